@@ -2,7 +2,10 @@ package com.github.abagabagon.verifico.automation.web;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -13,10 +16,23 @@ import org.openqa.selenium.NoSuchWindowException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
 
 public class BrowserCommands extends Commands {
 
 	private JavascriptExecutor javascriptExecutor;
+	private boolean isPageMetricsCaptured;
+	private SessionId cdpPerformanceSessionId;
+	private List<PageMetrics> pageMetrics;
+
+	private static final String CAPTURE_TIMINGS_SCRIPT =
+			"var timings = {}; var navigation = window.performance.getEntriesByType('navigation')[0];"
+			+ "if (navigation) { ['responseStart', 'domInteractive', 'domContentLoadedEventEnd', 'loadEventEnd', 'duration', 'transferSize']"
+			+ ".forEach(function(name) { timings[name] = navigation[name]; }); }"
+			+ "window.performance.getEntriesByType('paint').forEach(function(entry) { timings[entry.name] = entry.startTime; });"
+			+ "return timings;";
 
 	private enum BrowserAction {
 		OPEN_TAB, GO_TO, MAXIMIZE, DELETE_COOKIE, DELETE_ALL_COOKIES, BACK, FORWARD, REFRESH, CLOSE_TAB, CLOSE_BROWSER, SCROLL
@@ -32,6 +48,7 @@ public class BrowserCommands extends Commands {
 		this.driver = driver;
 		this.javascriptExecutor = (JavascriptExecutor) this.driver;
 		this.wait = wait;
+		this.pageMetrics = new ArrayList<PageMetrics>();
 	}
 
 	private void execute(BrowserAction browserAction, String input) {
@@ -55,18 +72,22 @@ public class BrowserCommands extends Commands {
 			case GO_TO:
 				this.driver.get(input);
 				this.wait.waitForPage();
+				this.capturePageMetrics(browserAction);
 				break;
 			case BACK:
 				this.driver.navigate().back();
 				this.wait.waitForPage();
+				this.capturePageMetrics(browserAction);
 				break;
 			case FORWARD:
 				this.driver.navigate().forward();
 				this.wait.waitForPage();
+				this.capturePageMetrics(browserAction);
 				break;
 			case REFRESH:
 				this.driver.navigate().refresh();
 				this.wait.waitForPage();
+				this.capturePageMetrics(browserAction);
 				break;
 			case CLOSE_TAB:
 				this.driver.close();
@@ -316,4 +337,183 @@ public class BrowserCommands extends Commands {
 		return size;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Captures Cookies, Local Storage and Session Storage of the current page's
+	 * origin into a named Session Snapshot, e.g. right after logging in. The
+	 * Snapshot is registered and can be restored into new sessions through
+	 * {@link #restoreSession(String)}.
+	 *
+	 * @param name			Name of the Session Snapshot.
+	 * @param timeToLive	Time to Live of the Session Snapshot in seconds. <code>0</code> if it never expires.
+	 * @return	Captured Session Snapshot. <code>null</code> if capture failed.
+	 */
+
+	public final SessionSnapshot saveSession(String name, int timeToLive) {
+		this.log.debug("Performing \"SAVE SESSION\" Browser Action: \"" + name + "\".");
+		SessionSnapshot snapshot = null;
+		try {
+			snapshot = SessionSnapshot.capture(this.driver, name, timeToLive);
+			SessionSnapshot.register(snapshot);
+			this.log.debug("Successfully saved Session Snapshot \"" + name + "\" with " + snapshot.getCookies().size() + " Cookie(s).");
+		} catch (NullPointerException e) {
+			this.log.error("Unable to save Session Snapshot. Browser might not have been opened or initialized.");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		} catch (Exception e) {
+			this.log.error("Something went wrong while trying to save Session Snapshot \"" + name + "\".");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Restores a registered Session Snapshot into the current session. Should be
+	 * called before navigating to the page under test.
+	 *
+	 * @param name Name of the Session Snapshot.
+	 * @return	<code>true</code> if restore is successful.
+	 * 			<code>false</code> if Snapshot is missing, expired or restore is unsuccessful.
+	 */
+
+	public final boolean restoreSession(String name) {
+		SessionSnapshot snapshot = SessionSnapshot.get(name);
+		if (snapshot == null) {
+			this.log.debug("Session Snapshot \"" + name + "\" is not available for restore.");
+			return false;
+		}
+		return this.restoreSession(snapshot);
+	}
+
+	/**
+	 * Restores a Session Snapshot into the current session. Opens the Snapshot's
+	 * origin, adds its Cookies and injects Local and Session Storage in a single
+	 * script call. Should be called before navigating to the page under test.
+	 *
+	 * @param snapshot Session Snapshot to restore.
+	 * @return	<code>true</code> if restore is successful.
+	 * 			<code>false</code> if Snapshot is missing, expired or restore is unsuccessful.
+	 */
+
+	public final boolean restoreSession(SessionSnapshot snapshot) {
+		if (snapshot == null) {
+			this.log.debug("Session Snapshot is not available for restore.");
+			return false;
+		}
+		this.log.debug("Performing \"RESTORE SESSION\" Browser Action: \"" + snapshot.getName() + "\".");
+		if (snapshot.isExpired()) {
+			this.log.debug("Session Snapshot \"" + snapshot.getName() + "\" has expired.");
+			SessionSnapshot.invalidate(snapshot.getName());
+			return false;
+		}
+		boolean isRestored = false;
+		try {
+			snapshot.restore(this.driver);
+			isRestored = true;
+			this.log.debug("Successfully restored Session Snapshot \"" + snapshot.getName() + "\".");
+		} catch (NullPointerException e) {
+			this.log.error("Unable to restore Session Snapshot. Browser might not have been opened or initialized.");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		} catch (Exception e) {
+			this.log.error("Something went wrong while trying to restore Session Snapshot \"" + snapshot.getName() + "\".");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+		return isRestored;
+	}
+
+	/**
+	 * Enables or disables capture of Page Metrics (Navigation Timing, Paint
+	 * Timing and, for Chromium, DevTools Performance Metrics) after every
+	 * <code>goTo</code>, <code>back</code>, <code>forward</code> and
+	 * <code>refresh</code>.
+	 *
+	 * @param isPageMetricsCaptured <code>true</code> to capture Page Metrics.
+	 */
+
+	public final void setPageMetricsCapture(boolean isPageMetricsCaptured) {
+		this.isPageMetricsCaptured = isPageMetricsCaptured;
+	}
+
+	/**
+	 * Gets Page Metrics of the latest navigation.
+	 *
+	 * @return Page Metrics. <code>null</code> if none were captured.
+	 */
+
+	public final PageMetrics getPageMetrics() {
+		return this.pageMetrics.isEmpty() ? null : this.pageMetrics.get(this.pageMetrics.size() - 1);
+	}
+
+	/**
+	 * Gets Page Metrics of all navigations captured so far, oldest first.
+	 *
+	 * @return List of Page Metrics.
+	 */
+
+	public final List<PageMetrics> getPageMetricsHistory() {
+		return Collections.unmodifiableList(new ArrayList<PageMetrics>(this.pageMetrics));
+	}
+
+	/**
+	 * Clears captured Page Metrics.
+	 */
+
+	public final void clearPageMetrics() {
+		this.pageMetrics.clear();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void capturePageMetrics(BrowserAction browserAction) {
+		if (!this.isPageMetricsCaptured) {
+			return;
+		}
+		String action = String.valueOf(browserAction).replace('_', ' ');
+		this.log.trace("Capturing Page Metrics after \"" + action + "\".");
+		try {
+			Map<String, Object> timings = (Map<String, Object>) this.javascriptExecutor.executeScript(CAPTURE_TIMINGS_SCRIPT);
+			Map<String, Double> cdpMetrics = new LinkedHashMap<String, Double>();
+			if (this.driver instanceof HasCdp) {
+				HasCdp cdp = (HasCdp) this.driver;
+				SessionId sessionId = this.getSessionId();
+				if (sessionId == null || !sessionId.equals(this.cdpPerformanceSessionId)) {
+					cdp.executeCdpCommand("Performance.enable", Collections.<String, Object>emptyMap());
+					this.cdpPerformanceSessionId = sessionId;
+				}
+				Map<String, Object> result = cdp.executeCdpCommand("Performance.getMetrics", Collections.<String, Object>emptyMap());
+				for (Map<String, Object> metric : (List<Map<String, Object>>) result.get("metrics")) {
+					cdpMetrics.put(String.valueOf(metric.get("name")), ((Number) metric.get("value")).doubleValue());
+				}
+			}
+			PageMetrics metrics = new PageMetrics(action, this.driver.getCurrentUrl(), this.toDoubleMap(timings), cdpMetrics);
+			this.pageMetrics.add(metrics);
+			this.log.debug("Captured Page Metrics: " + metrics);
+		} catch (Exception e) {
+			this.log.warn("Unable to capture Page Metrics after \"" + action + "\".");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	/**
+	 * Gets the Session ID of the current WebDriver session, looking through a
+	 * recyclable WebDriver handle so a recycled session is told apart.
+	 *
+	 * @return Session ID. <code>null</code> if unknown.
+	 */
+
+	private SessionId getSessionId() {
+		RecyclingDriver recyclingDriver = RecyclingDriver.of(this.driver);
+		WebDriver currentDriver = recyclingDriver != null ? recyclingDriver.getDriver() : this.driver;
+		return currentDriver instanceof RemoteWebDriver ? ((RemoteWebDriver) currentDriver).getSessionId() : null;
+	}
+
+	private Map<String, Double> toDoubleMap(Map<String, Object> data) {
+		Map<String, Double> map = new LinkedHashMap<String, Double>();
+		if (data != null) {
+			for (Map.Entry<String, Object> entry : data.entrySet()) {
+				if (entry.getValue() instanceof Number) {
+					map.put(entry.getKey(), ((Number) entry.getValue()).doubleValue());
+				}
+			}
+		}
+		return map;
+	}
+
+}
@@ -0,0 +1,261 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import io.appium.java_client.remote.MobileCapabilityType;
+
+public class DeviceFarm {
+
+	private Logger log;
+	private Map<MobileDevice, DeviceState> devices;
+	private Map<WebDriver, MobileDevice> leasedSessions;
+	private int leaseTimeout;
+	private int queuedRequests;
+	private long startedAt;
+
+	private static class DeviceState {
+
+		private final MobileSessionPool sessionPool;
+		private int activeSessions;
+		private long totalLeases;
+		private long busyTime;
+		private long lastChange;
+
+		private DeviceState(MobileDevice device, long startedAt) {
+			this.sessionPool = new MobileSessionPool(device.getAppiumServerUrl(), device.getMaxSessions());
+			this.lastChange = startedAt;
+		}
+
+		private void update(int delta) {
+			long now = System.currentTimeMillis();
+			this.busyTime += this.activeSessions * (now - this.lastChange);
+			this.lastChange = now;
+			this.activeSessions += delta;
+		}
+
+	}
+
+	/**
+	 * Creates a Device Farm spanning one or more Appium Servers.
+	 *
+	 * @param devices Devices available in the farm.
+	 */
+
+	public DeviceFarm(List<MobileDevice> devices) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.startedAt = System.currentTimeMillis();
+		this.leaseTimeout = 600;
+		this.devices = new LinkedHashMap<MobileDevice, DeviceState>();
+		this.leasedSessions = new IdentityHashMap<WebDriver, MobileDevice>();
+		for (MobileDevice device : devices) {
+			this.devices.put(device, new DeviceState(device, this.startedAt));
+		}
+	}
+
+	/**
+	 * Sets how long a queued request waits for a compatible Device to free up.
+	 *
+	 * @param leaseTimeout Lease Timeout in seconds.
+	 */
+
+	public final void setLeaseTimeout(int leaseTimeout) {
+		this.leaseTimeout = leaseTimeout;
+	}
+
+	/**
+	 * Leases a session on the least-loaded Device compatible with the specified
+	 * Capabilities. Platform, Platform Version and Device Name are matched only
+	 * when present in the Capabilities. Requests are queued while every
+	 * compatible Device is busy.
+	 *
+	 * @param capabilities Capabilities of the session.
+	 * @return Leased WebDriver. <code>null</code> if no compatible Device exists
+	 *         or none freed up within the Lease Timeout.
+	 */
+
+	public final WebDriver lease(Capabilities capabilities) {
+		long deadline = System.currentTimeMillis() + this.leaseTimeout * 1000L;
+		MobileDevice device = null;
+		synchronized (this) {
+			List<MobileDevice> compatibleDevices = this.getCompatibleDevices(capabilities);
+			if (compatibleDevices.isEmpty()) {
+				this.log.error("No Device in the Device Farm is compatible with Capabilities: " + capabilities.asMap() + ".");
+				return null;
+			}
+			this.queuedRequests++;
+			try {
+				while ((device = this.getLeastLoadedDevice(compatibleDevices)) == null) {
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						this.log.error("Wait time to lease a Device from the Device Farm has expired.");
+						return null;
+					}
+					this.log.trace("All compatible Devices are busy. Queueing request.");
+					this.wait(remaining);
+				}
+			} catch (InterruptedException e) {
+				this.log.error("Encountered InterruptedException while waiting for a Device.");
+				Thread.currentThread().interrupt();
+				return null;
+			} finally {
+				this.queuedRequests--;
+			}
+			DeviceState state = this.devices.get(device);
+			state.update(1);
+			state.totalLeases++;
+		}
+		this.log.debug("Placing session on Device: " + device + ".");
+		DesiredCapabilities deviceCapabilities = new DesiredCapabilities(capabilities);
+		deviceCapabilities.setCapability(MobileCapabilityType.DEVICE_NAME, device.getDeviceName());
+		deviceCapabilities.setCapability(MobileCapabilityType.PLATFORM_VERSION, device.getPlatformVersion());
+		WebDriver driver = this.devices.get(device).sessionPool.lease(deviceCapabilities);
+		synchronized (this) {
+			if (driver == null) {
+				this.devices.get(device).update(-1);
+				this.notifyAll();
+			} else {
+				this.leasedSessions.put(driver, device);
+			}
+		}
+		return driver;
+	}
+
+	/**
+	 * Returns a leased session to its Device and wakes up queued requests.
+	 *
+	 * @param driver Leased WebDriver.
+	 */
+
+	public final void release(WebDriver driver) {
+		MobileDevice device;
+		synchronized (this) {
+			device = this.leasedSessions.remove(driver);
+		}
+		if (device == null) {
+			this.log.warn("Released WebDriver was not leased from this Device Farm.");
+			return;
+		}
+		this.devices.get(device).sessionPool.release(driver);
+		synchronized (this) {
+			this.devices.get(device).update(-1);
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Closes all sessions on every Device.
+	 */
+
+	public final void close() {
+		this.log.debug("Closing Device Farm.");
+		for (DeviceState state : this.devices.values()) {
+			state.sessionPool.close();
+		}
+		synchronized (this) {
+			this.leasedSessions.clear();
+			for (DeviceState state : this.devices.values()) {
+				state.update(-state.activeSessions);
+			}
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Gets the utilization of every Device since the farm was created, as the
+	 * share of its session capacity that was in use over time.
+	 *
+	 * @return Utilization from <code>0.0</code> to <code>1.0</code> per Device,
+	 *         so Devices sharing a name on different Appium Servers are kept apart.
+	 */
+
+	public final synchronized Map<MobileDevice, Double> getUtilization() {
+		long now = System.currentTimeMillis();
+		long elapsed = Math.max(1, now - this.startedAt);
+		Map<MobileDevice, Double> utilization = new LinkedHashMap<MobileDevice, Double>();
+		for (Map.Entry<MobileDevice, DeviceState> entry : this.devices.entrySet()) {
+			DeviceState state = entry.getValue();
+			long busyTime = state.busyTime + state.activeSessions * (now - state.lastChange);
+			utilization.put(entry.getKey(), (double) busyTime / (elapsed * Math.max(1, entry.getKey().getMaxSessions())));
+		}
+		return utilization;
+	}
+
+	/**
+	 * Logs active sessions, total leases and utilization of every Device along
+	 * with the number of queued requests.
+	 */
+
+	public final synchronized void logUtilization() {
+		Map<MobileDevice, Double> utilization = this.getUtilization();
+		this.log.info("Device Farm Utilization (" + this.queuedRequests + " queued request(s)):");
+		for (Map.Entry<MobileDevice, DeviceState> entry : this.devices.entrySet()) {
+			DeviceState state = entry.getValue();
+			this.log.info(String.format("  %s: %d/%d active, %d lease(s), %.1f%% utilized", entry.getKey(), state.activeSessions,
+					entry.getKey().getMaxSessions(), state.totalLeases, utilization.get(entry.getKey()) * 100));
+		}
+	}
+
+	private List<MobileDevice> getCompatibleDevices(Capabilities capabilities) {
+		Object platform = getCapability(capabilities, CapabilityType.PLATFORM_NAME);
+		Object platformVersion = getCapability(capabilities, MobileCapabilityType.PLATFORM_VERSION);
+		Object deviceName = getCapability(capabilities, MobileCapabilityType.DEVICE_NAME);
+		List<MobileDevice> compatibleDevices = new ArrayList<MobileDevice>();
+		for (MobileDevice device : this.devices.keySet()) {
+			if (platform != null && !isSamePlatform(platform, device.getPlatform())) {
+				continue;
+			}
+			if (platformVersion != null && !String.valueOf(platformVersion).equals(device.getPlatformVersion())) {
+				continue;
+			}
+			if (deviceName != null && !String.valueOf(deviceName).equals(device.getDeviceName())) {
+				continue;
+			}
+			compatibleDevices.add(device);
+		}
+		return compatibleDevices;
+	}
+
+	private MobileDevice getLeastLoadedDevice(List<MobileDevice> compatibleDevices) {
+		MobileDevice leastLoaded = null;
+		double leastLoad = Double.MAX_VALUE;
+		for (MobileDevice device : compatibleDevices) {
+			DeviceState state = this.devices.get(device);
+			if (state.activeSessions < device.getMaxSessions()) {
+				double load = (double) state.activeSessions / device.getMaxSessions();
+				if (load < leastLoad) {
+					leastLoad = load;
+					leastLoaded = device;
+				}
+			}
+		}
+		return leastLoaded;
+	}
+
+	private static boolean isSamePlatform(Object platform, Platform devicePlatform) {
+		if (platform instanceof Platform) {
+			return ((Platform) platform).is(devicePlatform);
+		}
+		return String.valueOf(platform).equalsIgnoreCase(devicePlatform.name());
+	}
+
+	private static Object getCapability(Capabilities capabilities, String name) {
+		Object value = capabilities.getCapability(name);
+		if (value == null) {
+			value = capabilities.getCapability("appium:" + name);
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import java.net.URL;
+
+import org.openqa.selenium.Platform;
+
+public class MobileDevice {
+
+	private final URL appiumServerUrl;
+	private final String deviceName;
+	private final Platform platform;
+	private final String platformVersion;
+	private final int maxSessions;
+
+	/**
+	 * Describes a Device attached to an Appium Server.
+	 *
+	 * @param appiumServerUrl	URL of the Appium Server the Device is attached to.
+	 * @param deviceName		Name (or UDID) of the Device.
+	 * @param platform			Platform of the Device.
+	 * @param platformVersion	Version of the Platform.
+	 * @param maxSessions		Maximum concurrent sessions on the Device.
+	 */
+
+	public MobileDevice(URL appiumServerUrl, String deviceName, Platform platform, String platformVersion, int maxSessions) {
+		this.appiumServerUrl = appiumServerUrl;
+		this.deviceName = deviceName;
+		this.platform = platform;
+		this.platformVersion = platformVersion;
+		this.maxSessions = maxSessions;
+	}
+
+	public final URL getAppiumServerUrl() {
+		return this.appiumServerUrl;
+	}
+
+	public final String getDeviceName() {
+		return this.deviceName;
+	}
+
+	public final Platform getPlatform() {
+		return this.platform;
+	}
+
+	public final String getPlatformVersion() {
+		return this.platformVersion;
+	}
+
+	public final int getMaxSessions() {
+		return this.maxSessions;
+	}
+
+	@Override
+	public String toString() {
+		return this.deviceName + " (" + this.platform + " " + this.platformVersion + ") @ " + this.appiumServerUrl;
+	}
+
+}
@@ -0,0 +1,312 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.remote.MobileCapabilityType;
+
+public class MobileSessionPool {
+
+	private static final String RESET_STORAGE_SCRIPT = "window.localStorage.clear(); window.sessionStorage.clear();";
+
+	private Logger log;
+	private Function<Capabilities, WebDriver> sessionFactory;
+	private int maxSessionsPerDevice;
+	private int leaseTimeout;
+	private LinkedList<Session> idleSessions;
+	private Map<WebDriver, Session> leasedSessions;
+	private Map<String, Integer> deviceSessionCount;
+
+	private static class Session {
+
+		private final WebDriver driver;
+		private final String key;
+		private final String device;
+
+		private Session(WebDriver driver, String key, String device) {
+			this.driver = driver;
+			this.key = key;
+			this.device = device;
+		}
+
+	}
+
+	/**
+	 * Creates a Session Pool for a single Appium Server.
+	 *
+	 * @param appiumServerUrl		URL of the Appium Server.
+	 * @param maxSessionsPerDevice	Maximum concurrent sessions per Device.
+	 */
+
+	public MobileSessionPool(URL appiumServerUrl, int maxSessionsPerDevice) {
+		this(capabilities -> new AppiumDriver(appiumServerUrl, capabilities), maxSessionsPerDevice);
+	}
+
+	/**
+	 * Creates a Session Pool with a custom session factory, e.g. for a local
+	 * stub W3C endpoint.
+	 *
+	 * @param sessionFactory		Creates a new session for the given Capabilities.
+	 * @param maxSessionsPerDevice	Maximum concurrent sessions per Device.
+	 */
+
+	public MobileSessionPool(Function<Capabilities, WebDriver> sessionFactory, int maxSessionsPerDevice) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.sessionFactory = sessionFactory;
+		this.maxSessionsPerDevice = maxSessionsPerDevice;
+		this.leaseTimeout = 300;
+		this.idleSessions = new LinkedList<Session>();
+		this.leasedSessions = new IdentityHashMap<WebDriver, Session>();
+		this.deviceSessionCount = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * Sets how long a lease waits for a Device with free capacity.
+	 *
+	 * @param leaseTimeout Lease Timeout in seconds.
+	 */
+
+	public final void setLeaseTimeout(int leaseTimeout) {
+		this.leaseTimeout = leaseTimeout;
+	}
+
+	/**
+	 * Leases a session for the specified Capabilities. A live idle session with
+	 * the same Capabilities is reused, otherwise a new session is created. Waits
+	 * when the Device is already at its session limit.
+	 *
+	 * @param capabilities Capabilities of the session.
+	 * @return Leased WebDriver. <code>null</code> if no session could be leased
+	 *         within the Lease Timeout.
+	 */
+
+	public final WebDriver lease(Capabilities capabilities) {
+		String key = getKey(capabilities);
+		String device = getDevice(capabilities);
+		long deadline = System.currentTimeMillis() + this.leaseTimeout * 1000L;
+		this.log.trace("Leasing Mobile Session for Device \"" + device + "\".");
+		while (true) {
+			Session session;
+			Session evictedSession = null;
+			synchronized (this) {
+				session = this.takeIdleSession(key);
+				if (session == null && this.getSessionCount(device) < this.maxSessionsPerDevice) {
+					this.deviceSessionCount.put(device, this.getSessionCount(device) + 1);
+				} else if (session == null) {
+					evictedSession = this.takeIdleSessionOn(device);
+					if (evictedSession == null) {
+						long remaining = deadline - System.currentTimeMillis();
+						if (remaining <= 0) {
+							this.log.error("Wait time to lease a Mobile Session for Device \"" + device + "\" has expired.");
+							return null;
+						}
+						try {
+							this.wait(remaining);
+						} catch (InterruptedException e) {
+							this.log.error("Encountered InterruptedException while waiting for a Mobile Session.");
+							Thread.currentThread().interrupt();
+							return null;
+						}
+						continue;
+					}
+				}
+			}
+			if (session != null) {
+				if (this.isAlive(session)) {
+					this.log.trace("Reusing idle Mobile Session for Device \"" + session.device + "\".");
+					synchronized (this) {
+						this.leasedSessions.put(session.driver, session);
+					}
+					return session.driver;
+				}
+				this.closeSession(session);
+				continue;
+			}
+			if (evictedSession != null) {
+				this.log.trace("Closing idle Mobile Session with different Capabilities on Device \"" + device + "\".");
+				this.quitSession(evictedSession);
+			}
+			return this.createSession(capabilities, key, device);
+		}
+	}
+
+	/**
+	 * Returns a leased session to the pool. Browser state (Cookies, Local and
+	 * Session Storage, current page) is reset so the next lease starts clean.
+	 * Sessions that fail to reset are closed.
+	 *
+	 * @param driver Leased WebDriver.
+	 */
+
+	public final void release(WebDriver driver) {
+		Session session;
+		synchronized (this) {
+			session = this.leasedSessions.remove(driver);
+		}
+		if (session == null) {
+			this.log.warn("Released WebDriver was not leased from this Mobile Session Pool.");
+			return;
+		}
+		try {
+			driver.manage().deleteAllCookies();
+			((JavascriptExecutor) driver).executeScript(RESET_STORAGE_SCRIPT);
+			driver.get("about:blank");
+		} catch (Exception e) {
+			this.log.warn("Unable to reset Mobile Session for Device \"" + session.device + "\". Closing it.");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+			this.closeSession(session);
+			return;
+		}
+		synchronized (this) {
+			this.idleSessions.addLast(session);
+			this.notifyAll();
+		}
+		this.log.trace("Released Mobile Session for Device \"" + session.device + "\".");
+	}
+
+	/**
+	 * Closes all idle and leased sessions.
+	 */
+
+	public final void close() {
+		this.log.debug("Closing Mobile Session Pool.");
+		List<Session> sessions;
+		synchronized (this) {
+			sessions = new ArrayList<Session>(this.idleSessions);
+			sessions.addAll(this.leasedSessions.values());
+			this.idleSessions.clear();
+			this.leasedSessions.clear();
+		}
+		for (Session session : sessions) {
+			this.closeSession(session);
+		}
+	}
+
+	/**
+	 * Gets the number of open sessions on a Device.
+	 *
+	 * @param device Device Name.
+	 * @return Open session count.
+	 */
+
+	public final synchronized int getSessionCount(String device) {
+		Integer count = this.deviceSessionCount.get(device);
+		return count == null ? 0 : count.intValue();
+	}
+
+	/**
+	 * Takes the first idle session with the specified Capabilities Key out of
+	 * the pool. Call while holding the pool's lock.
+	 */
+
+	private Session takeIdleSession(String key) {
+		Iterator<Session> iterator = this.idleSessions.iterator();
+		while (iterator.hasNext()) {
+			Session session = iterator.next();
+			if (session.key.equals(key)) {
+				iterator.remove();
+				return session;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Takes the first idle session on the specified Device out of the pool,
+	 * keeping its place in the Device's session count for the caller. Call
+	 * while holding the pool's lock.
+	 */
+
+	private Session takeIdleSessionOn(String device) {
+		Iterator<Session> iterator = this.idleSessions.iterator();
+		while (iterator.hasNext()) {
+			Session session = iterator.next();
+			if (session.device.equals(device)) {
+				iterator.remove();
+				return session;
+			}
+		}
+		return null;
+	}
+
+	private WebDriver createSession(Capabilities capabilities, String key, String device) {
+		this.log.debug("Creating Mobile Session for Device \"" + device + "\".");
+		WebDriver driver = null;
+		try {
+			driver = this.sessionFactory.apply(capabilities);
+		} catch (Exception e) {
+			this.log.fatal("Encountered Exception while creating Mobile Session for Device \"" + device + "\"!");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+		synchronized (this) {
+			if (driver == null) {
+				this.deviceSessionCount.put(device, Math.max(0, this.getSessionCount(device) - 1));
+				this.notifyAll();
+			} else {
+				this.leasedSessions.put(driver, new Session(driver, key, device));
+			}
+		}
+		return driver;
+	}
+
+	private boolean isAlive(Session session) {
+		try {
+			session.driver.getWindowHandle();
+			return true;
+		} catch (Exception e) {
+			this.log.debug("Idle Mobile Session for Device \"" + session.device + "\" is no longer alive.");
+			return false;
+		}
+	}
+
+	/**
+	 * Quits a session taken out of the pool and frees its place in the
+	 * Device's session count. Must not be called while holding the pool's lock.
+	 */
+
+	private void closeSession(Session session) {
+		this.quitSession(session);
+		synchronized (this) {
+			this.deviceSessionCount.put(session.device, Math.max(0, this.getSessionCount(session.device) - 1));
+			this.notifyAll();
+		}
+	}
+
+	private void quitSession(Session session) {
+		try {
+			session.driver.quit();
+		} catch (Exception e) {
+			this.log.debug("Encountered Exception while closing Mobile Session.");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	static String getKey(Capabilities capabilities) {
+		return new TreeMap<String, Object>(capabilities.asMap()).toString();
+	}
+
+	static String getDevice(Capabilities capabilities) {
+		Object device = capabilities.getCapability(MobileCapabilityType.DEVICE_NAME);
+		if (device == null) {
+			device = capabilities.getCapability("appium:" + MobileCapabilityType.DEVICE_NAME);
+		}
+		return String.valueOf(device);
+	}
+
+}
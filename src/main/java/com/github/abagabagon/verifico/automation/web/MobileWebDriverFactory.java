@@ -18,12 +18,56 @@ public class MobileWebDriverFactory {
 	private Logger log;
 	public WebDriver driver;
 	private URL appiumServerUrl;
+	private MobileSessionPool sessionPool;
+	private DeviceFarm deviceFarm;
 
 	public MobileWebDriverFactory(URL appiumServerUrl) {
 		this.log = LogManager.getLogger(this.getClass());
 		this.appiumServerUrl = appiumServerUrl;
 	}
 
+	/**
+	 * Creates a factory that places sessions on the least-loaded compatible
+	 * Device of a Device Farm. A <code>null</code> Device Name or Platform
+	 * Version in the getters matches any Device.
+	 *
+	 * @param deviceFarm Device Farm spanning one or more Appium Servers.
+	 */
+
+	public MobileWebDriverFactory(DeviceFarm deviceFarm) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.deviceFarm = deviceFarm;
+	}
+
+	/**
+	 * Sets a Session Pool from which WebDrivers are leased instead of starting a
+	 * new Appium session on every call. Leased WebDrivers must be returned
+	 * through {@link #release(WebDriver)}.
+	 *
+	 * @param sessionPool Mobile Session Pool.
+	 */
+
+	public final void setSessionPool(MobileSessionPool sessionPool) {
+		this.sessionPool = sessionPool;
+	}
+
+	/**
+	 * Returns a WebDriver to the Device Farm or Session Pool, or quits it if
+	 * neither is set.
+	 *
+	 * @param driver WebDriver to release.
+	 */
+
+	public final void release(WebDriver driver) {
+		if (this.deviceFarm != null) {
+			this.deviceFarm.release(driver);
+		} else if (this.sessionPool != null) {
+			this.sessionPool.release(driver);
+		} else {
+			driver.quit();
+		}
+	}
+
 	/**
 	 * Initializes and returns AppiumDriver Object configured for Google Chrome.
 	 *
@@ -35,13 +79,8 @@ public class MobileWebDriverFactory {
 
 	public final WebDriver getChromeDriver(Platform platform, String platformVersion, String deviceName) {
 		this.log.trace("Initializing Google Chrome Driver.");
-		DesiredCapabilities capabilities = new DesiredCapabilities();
-		capabilities.setCapability(CapabilityType.PLATFORM_NAME, platform);
-		capabilities.setCapability(MobileCapabilityType.PLATFORM_VERSION, platformVersion);
-		capabilities.setCapability(MobileCapabilityType.DEVICE_NAME, deviceName);
-		capabilities.setCapability(MobileCapabilityType.AUTOMATION_NAME, "UIAutomator2");
-		capabilities.setCapability(CapabilityType.BROWSER_NAME, Browser.CHROME);
-		this.driver = new AppiumDriver(this.appiumServerUrl, capabilities);
+		DesiredCapabilities capabilities = this.getCapabilities(platform, platformVersion, deviceName, "UIAutomator2", Browser.CHROME);
+		this.driver = this.createDriver(capabilities);
 		this.log.trace("Successfully initialized Google Chrome Driver.");
 		return this.driver;
 	}
@@ -57,13 +96,8 @@ public class MobileWebDriverFactory {
 
 	public final WebDriver getFirefoxDriver(Platform platform, String platformVersion, String deviceName) {
 		this.log.trace("Initializing Mozilla Firefox Driver.");
-		DesiredCapabilities capabilities = new DesiredCapabilities();
-		capabilities.setCapability(CapabilityType.PLATFORM_NAME, platform);
-		capabilities.setCapability(MobileCapabilityType.PLATFORM_VERSION, platformVersion);
-		capabilities.setCapability(MobileCapabilityType.DEVICE_NAME, deviceName);
-		capabilities.setCapability(MobileCapabilityType.AUTOMATION_NAME, "UIAutomator2");
-		capabilities.setCapability(CapabilityType.BROWSER_NAME, Browser.FIREFOX);
-		this.driver = new AppiumDriver(this.appiumServerUrl, capabilities);
+		DesiredCapabilities capabilities = this.getCapabilities(platform, platformVersion, deviceName, "UIAutomator2", Browser.FIREFOX);
+		this.driver = this.createDriver(capabilities);
 		this.log.trace("Successfully initialized Mozilla Firefox Driver.");
 		return this.driver;
 	}
@@ -79,13 +113,8 @@ public class MobileWebDriverFactory {
 
 	public final WebDriver getSafariDriver(Platform platform, String platformVersion, String deviceName) {
 		this.log.trace("Initializing Safari Driver.");
-		DesiredCapabilities capabilities = new DesiredCapabilities();
-		capabilities.setCapability(CapabilityType.PLATFORM_NAME, platform);
-		capabilities.setCapability(MobileCapabilityType.PLATFORM_VERSION, platformVersion);
-		capabilities.setCapability(MobileCapabilityType.DEVICE_NAME, deviceName);
-		capabilities.setCapability(MobileCapabilityType.AUTOMATION_NAME, "XCUITest");
-		capabilities.setCapability(CapabilityType.BROWSER_NAME, Browser.SAFARI);
-		this.driver = new AppiumDriver(this.appiumServerUrl, capabilities);
+		DesiredCapabilities capabilities = this.getCapabilities(platform, platformVersion, deviceName, "XCUITest", Browser.SAFARI);
+		this.driver = this.createDriver(capabilities);
 		this.log.trace("Successfully initialized Safari Driver.");
 		return this.driver;
 	}
@@ -101,15 +130,29 @@ public class MobileWebDriverFactory {
 
 	public final WebDriver getEdgeDriver(Platform platform, String platformVersion, String deviceName) {
 		this.log.trace("Initializing Microsoft Edge Driver.");
+		DesiredCapabilities capabilities = this.getCapabilities(platform, platformVersion, deviceName, "XCUITest", Browser.EDGE);
+		this.driver = this.createDriver(capabilities);
+		this.log.trace("Successfully initialized Microsoft Edge Driver.");
+		return this.driver;
+	}
+
+	private DesiredCapabilities getCapabilities(Platform platform, String platformVersion, String deviceName, String automationName, Browser browser) {
 		DesiredCapabilities capabilities = new DesiredCapabilities();
 		capabilities.setCapability(CapabilityType.PLATFORM_NAME, platform);
 		capabilities.setCapability(MobileCapabilityType.PLATFORM_VERSION, platformVersion);
 		capabilities.setCapability(MobileCapabilityType.DEVICE_NAME, deviceName);
-		capabilities.setCapability(MobileCapabilityType.AUTOMATION_NAME, "XCUITest");
-		capabilities.setCapability(CapabilityType.BROWSER_NAME, Browser.EDGE);
-		this.driver = new AppiumDriver(this.appiumServerUrl, capabilities);
-		this.log.trace("Successfully initialized Microsoft Edge Driver.");
-		return this.driver;
+		capabilities.setCapability(MobileCapabilityType.AUTOMATION_NAME, automationName);
+		capabilities.setCapability(CapabilityType.BROWSER_NAME, browser);
+		return capabilities;
+	}
+
+	private WebDriver createDriver(DesiredCapabilities capabilities) {
+		if (this.deviceFarm != null) {
+			return this.deviceFarm.lease(capabilities);
+		} else if (this.sessionPool != null) {
+			return this.sessionPool.lease(capabilities);
+		}
+		return new AppiumDriver(this.appiumServerUrl, capabilities);
 	}
 
 }
@@ -0,0 +1,199 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+public class NetworkControl {
+
+	private Logger log;
+	private List<String> blockedUrls;
+	private List<Stub> stubs;
+
+	private static class Stub {
+
+		private final String urlPattern;
+		private final Pattern regex;
+		private final String filePath;
+		private final String contentType;
+		private final int status;
+		private String body;
+
+		private Stub(String urlPattern, String filePath, String contentType, int status) {
+			this.urlPattern = urlPattern;
+			this.regex = toRegex(urlPattern);
+			this.filePath = filePath;
+			this.contentType = contentType;
+			this.status = status;
+		}
+
+	}
+
+	public NetworkControl() {
+		this.log = LogManager.getLogger(this.getClass());
+		this.blockedUrls = new ArrayList<String>();
+		this.stubs = new ArrayList<Stub>();
+	}
+
+	/**
+	 * Blocks requests to URLs matching the specified patterns. Patterns follow
+	 * DevTools wildcard syntax, e.g. <code>*google-analytics.com*</code>.
+	 *
+	 * @param urlPatterns URL Patterns to block.
+	 * @return This Network Control.
+	 */
+
+	public final NetworkControl block(String... urlPatterns) {
+		for (String urlPattern : urlPatterns) {
+			this.log.trace("Adding URL Pattern \"" + urlPattern + "\" to Network Blocklist.");
+			this.blockedUrls.add(urlPattern);
+		}
+		return this;
+	}
+
+	/**
+	 * Serves the contents of a local File with HTTP Status 200 for requests to
+	 * URLs matching the specified pattern.
+	 *
+	 * @param urlPattern  URL Pattern to stub, in DevTools wildcard syntax.
+	 * @param filePath    File Path of the canned response body.
+	 * @param contentType Content Type of the canned response.
+	 * @return This Network Control.
+	 */
+
+	public final NetworkControl stub(String urlPattern, String filePath, String contentType) {
+		return this.stub(urlPattern, filePath, contentType, 200);
+	}
+
+	/**
+	 * Serves the contents of a local File for requests to URLs matching the
+	 * specified pattern.
+	 *
+	 * @param urlPattern  URL Pattern to stub, in DevTools wildcard syntax.
+	 * @param filePath    File Path of the canned response body.
+	 * @param contentType Content Type of the canned response.
+	 * @param status      HTTP Status Code of the canned response.
+	 * @return This Network Control.
+	 */
+
+	public final NetworkControl stub(String urlPattern, String filePath, String contentType, int status) {
+		this.log.trace("Adding Network Stub \"" + urlPattern + "\" served from \"" + filePath + "\".");
+		this.stubs.add(new Stub(urlPattern, filePath, contentType, status));
+		return this;
+	}
+
+	/**
+	 * Applies Network Blocklist and Stubs to a Chromium WebDriver session.
+	 * Only requests matching a Stub are intercepted, everything else goes
+	 * straight to the network.
+	 *
+	 * @param driver Chromium WebDriver (Chrome or Microsoft Edge).
+	 * @return <code>true</code> if applied. <code>false</code> if WebDriver has
+	 *         no DevTools support or applying failed.
+	 */
+
+	public final boolean apply(WebDriver driver) {
+		this.log.debug("Applying Network Control.");
+		if (!(driver instanceof HasDevTools)) {
+			this.log.error("Network Control is only supported for Chromium WebDrivers.");
+			return false;
+		}
+		boolean isApplied = false;
+		try {
+			DevTools devTools = ((HasDevTools) driver).getDevTools();
+			devTools.createSessionIfThereIsNotOne();
+			if (!this.blockedUrls.isEmpty()) {
+				devTools.send(new Command<Object>("Network.enable", Collections.<String, Object>emptyMap()));
+				devTools.send(new Command<Object>("Network.setBlockedURLs", Collections.<String, Object>singletonMap("urls", this.blockedUrls)));
+				this.log.debug("Blocked " + this.blockedUrls.size() + " URL Pattern(s).");
+			}
+			if (!this.stubs.isEmpty()) {
+				this.enableStubs(devTools);
+				this.log.debug("Stubbed " + this.stubs.size() + " URL Pattern(s).");
+			}
+			isApplied = true;
+		} catch (IOException e) {
+			this.log.error("Encountered IOException while reading Network Stub Files!");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		} catch (Exception e) {
+			this.log.error("Something went wrong while trying to apply Network Control.");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+		return isApplied;
+	}
+
+	private void enableStubs(DevTools devTools) throws IOException {
+		List<Map<String, Object>> patterns = new ArrayList<Map<String, Object>>();
+		for (Stub stub : this.stubs) {
+			stub.body = Base64.getEncoder().encodeToString(Files.readAllBytes(Paths.get(stub.filePath)));
+			Map<String, Object> pattern = new HashMap<String, Object>();
+			pattern.put("urlPattern", stub.urlPattern);
+			pattern.put("requestStage", "Request");
+			patterns.add(pattern);
+		}
+		Event<Map<String, Object>> requestPaused = new Event<Map<String, Object>>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE));
+		devTools.addListener(requestPaused, event -> this.fulfill(devTools, event));
+		devTools.send(new Command<Object>("Fetch.enable", Collections.<String, Object>singletonMap("patterns", patterns)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void fulfill(DevTools devTools, Map<String, Object> event) {
+		Object requestId = event.get("requestId");
+		String url = String.valueOf(((Map<String, Object>) event.get("request")).get("url"));
+		try {
+			for (Stub stub : this.stubs) {
+				if (stub.regex.matcher(url).matches()) {
+					this.log.trace("Serving Network Stub \"" + stub.urlPattern + "\" for \"" + url + "\".");
+					Map<String, Object> header = new HashMap<String, Object>();
+					header.put("name", "Content-Type");
+					header.put("value", stub.contentType);
+					Map<String, Object> params = new HashMap<String, Object>();
+					params.put("requestId", requestId);
+					params.put("responseCode", stub.status);
+					params.put("responseHeaders", Collections.singletonList(header));
+					params.put("body", stub.body);
+					devTools.send(new Command<Object>("Fetch.fulfillRequest", params));
+					return;
+				}
+			}
+			devTools.send(new Command<Object>("Fetch.continueRequest", Collections.<String, Object>singletonMap("requestId", requestId)));
+		} catch (Exception e) {
+			this.log.error("Something went wrong while trying to serve Network Stub for \"" + url + "\".");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	private static Pattern toRegex(String urlPattern) {
+		StringBuilder regex = new StringBuilder();
+		StringBuilder literal = new StringBuilder();
+		for (char character : urlPattern.toCharArray()) {
+			if (character == '*' || character == '?') {
+				regex.append(Pattern.quote(literal.toString()));
+				literal.setLength(0);
+				regex.append(character == '*' ? ".*" : ".");
+			} else {
+				literal.append(character);
+			}
+		}
+		regex.append(Pattern.quote(literal.toString()));
+		return Pattern.compile(regex.toString());
+	}
+
+}
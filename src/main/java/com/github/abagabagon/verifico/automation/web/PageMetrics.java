@@ -0,0 +1,164 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class PageMetrics {
+
+	private final String action;
+	private final String url;
+	private final long capturedAt;
+	private final Map<String, Double> timings;
+	private final Map<String, Double> cdpMetrics;
+
+	PageMetrics(String action, String url, Map<String, Double> timings, Map<String, Double> cdpMetrics) {
+		this.action = action;
+		this.url = url;
+		this.capturedAt = System.currentTimeMillis();
+		this.timings = Collections.unmodifiableMap(new LinkedHashMap<String, Double>(timings));
+		this.cdpMetrics = Collections.unmodifiableMap(new LinkedHashMap<String, Double>(cdpMetrics));
+	}
+
+	/**
+	 * Gets the Browser Action that triggered the navigation, e.g. "GO TO".
+	 *
+	 * @return Browser Action
+	 */
+
+	public final String getAction() {
+		return this.action;
+	}
+
+	/**
+	 * Gets the URL of the page the metrics were captured on.
+	 *
+	 * @return Page URL
+	 */
+
+	public final String getUrl() {
+		return this.url;
+	}
+
+	/**
+	 * Gets the time the metrics were captured in epoch milliseconds.
+	 *
+	 * @return Capture Time
+	 */
+
+	public final long getCapturedAt() {
+		return this.capturedAt;
+	}
+
+	/**
+	 * Gets Time to First Byte in milliseconds.
+	 *
+	 * @return Time to First Byte. <code>-1</code> if unavailable.
+	 */
+
+	public final double getTimeToFirstByte() {
+		return this.getTiming("responseStart");
+	}
+
+	/**
+	 * Gets DOM Interactive time in milliseconds.
+	 *
+	 * @return DOM Interactive time. <code>-1</code> if unavailable.
+	 */
+
+	public final double getDomInteractive() {
+		return this.getTiming("domInteractive");
+	}
+
+	/**
+	 * Gets DOM Content Loaded Event End time in milliseconds.
+	 *
+	 * @return DOM Content Loaded time. <code>-1</code> if unavailable.
+	 */
+
+	public final double getDomContentLoaded() {
+		return this.getTiming("domContentLoadedEventEnd");
+	}
+
+	/**
+	 * Gets Load Event End time in milliseconds.
+	 *
+	 * @return Load time. <code>-1</code> if unavailable.
+	 */
+
+	public final double getLoad() {
+		return this.getTiming("loadEventEnd");
+	}
+
+	/**
+	 * Gets First Paint time in milliseconds.
+	 *
+	 * @return First Paint time. <code>-1</code> if unavailable.
+	 */
+
+	public final double getFirstPaint() {
+		return this.getTiming("first-paint");
+	}
+
+	/**
+	 * Gets First Contentful Paint time in milliseconds.
+	 *
+	 * @return First Contentful Paint time. <code>-1</code> if unavailable.
+	 */
+
+	public final double getFirstContentfulPaint() {
+		return this.getTiming("first-contentful-paint");
+	}
+
+	/**
+	 * Gets all Navigation Timing and Paint Timing entries captured, keyed by
+	 * their Performance API names.
+	 *
+	 * @return Timings in milliseconds.
+	 */
+
+	public final Map<String, Double> getTimings() {
+		return this.timings;
+	}
+
+	/**
+	 * Gets Chromium DevTools <code>Performance.getMetrics</code> values, e.g.
+	 * JSHeapUsedSize, Nodes, LayoutCount. Empty for non-Chromium WebDrivers.
+	 *
+	 * @return DevTools Performance Metrics
+	 */
+
+	public final Map<String, Double> getCdpMetrics() {
+		return this.cdpMetrics;
+	}
+
+	/**
+	 * Gets Page Metrics as rows of name-value pairs, e.g. for report tables.
+	 *
+	 * @return Page Metrics in a form of a String Array.
+	 */
+
+	public final String[][] toTable() {
+		String[][] table = new String[this.timings.size() + this.cdpMetrics.size() + 1][2];
+		table[0] = new String[] { this.action, this.url };
+		int i = 1;
+		for (Map.Entry<String, Double> entry : this.timings.entrySet()) {
+			table[i++] = new String[] { entry.getKey(), String.valueOf(entry.getValue()) };
+		}
+		for (Map.Entry<String, Double> entry : this.cdpMetrics.entrySet()) {
+			table[i++] = new String[] { entry.getKey(), String.valueOf(entry.getValue()) };
+		}
+		return table;
+	}
+
+	@Override
+	public String toString() {
+		return "PageMetrics [action=" + this.action + ", url=" + this.url + ", timings=" + this.timings + ", cdpMetrics=" + this.cdpMetrics + "]";
+	}
+
+	private double getTiming(String name) {
+		Double value = this.timings.get(name);
+		return value == null ? -1 : value.doubleValue();
+	}
+
+}
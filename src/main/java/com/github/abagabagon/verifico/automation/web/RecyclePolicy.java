@@ -0,0 +1,77 @@
+package com.github.abagabagon.verifico.automation.web;
+
+public class RecyclePolicy {
+
+	private int maxAge;
+	private long maxCommands;
+	private long maxHeapSize;
+	private boolean isSessionRestored;
+
+	/**
+	 * Recycles a WebDriver session once it is older than the specified age.
+	 *
+	 * @param maxAge Maximum session age in seconds. <code>0</code> to disable.
+	 * @return This Recycle Policy.
+	 */
+
+	public final RecyclePolicy setMaxAge(int maxAge) {
+		this.maxAge = maxAge;
+		return this;
+	}
+
+	/**
+	 * Recycles a WebDriver session once it has executed the specified number of
+	 * WebDriver commands.
+	 *
+	 * @param maxCommands Maximum command count. <code>0</code> to disable.
+	 * @return This Recycle Policy.
+	 */
+
+	public final RecyclePolicy setMaxCommands(long maxCommands) {
+		this.maxCommands = maxCommands;
+		return this;
+	}
+
+	/**
+	 * Recycles a WebDriver session once the page's used JS Heap exceeds the
+	 * specified size. Only measurable on Chromium WebDrivers.
+	 *
+	 * @param maxHeapSize Maximum used JS Heap in megabytes. <code>0</code> to disable.
+	 * @return This Recycle Policy.
+	 */
+
+	public final RecyclePolicy setMaxHeapSize(long maxHeapSize) {
+		this.maxHeapSize = maxHeapSize * 1024 * 1024;
+		return this;
+	}
+
+	/**
+	 * Carries Cookies, Local and Session Storage and the current URL over to the
+	 * new session when recycling.
+	 *
+	 * @param isSessionRestored <code>true</code> to restore session state.
+	 * @return This Recycle Policy.
+	 */
+
+	public final RecyclePolicy setSessionRestore(boolean isSessionRestored) {
+		this.isSessionRestored = isSessionRestored;
+		return this;
+	}
+
+	final int getMaxAge() {
+		return this.maxAge;
+	}
+
+	final long getMaxCommands() {
+		return this.maxCommands;
+	}
+
+	final long getMaxHeapSize() {
+		return this.maxHeapSize;
+	}
+
+	final boolean isSessionRestored() {
+		return this.isSessionRestored;
+	}
+
+}
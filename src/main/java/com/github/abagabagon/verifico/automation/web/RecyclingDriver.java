@@ -0,0 +1,184 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Stable WebDriver handle whose underlying session can be replaced at a test
+ * boundary, so Command Classes holding the handle keep working after recycle.
+ */
+
+class RecyclingDriver implements InvocationHandler {
+
+	private static final String HEAP_SIZE_SCRIPT = "return window.performance.memory ? window.performance.memory.usedJSHeapSize : -1;";
+
+	private Logger log;
+	private Supplier<WebDriver> factory;
+	private RecyclePolicy policy;
+	private volatile WebDriver driver;
+	private volatile long createdAt;
+	private AtomicLong commandCount;
+	private volatile boolean isQuit;
+
+	private RecyclingDriver(Supplier<WebDriver> factory, RecyclePolicy policy) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.factory = factory;
+		this.policy = policy;
+		this.commandCount = new AtomicLong();
+		this.driver = factory.get();
+		this.createdAt = System.currentTimeMillis();
+	}
+
+	/**
+	 * Creates a WebDriver through the factory and wraps it in a recyclable
+	 * handle implementing all of the WebDriver's interfaces.
+	 *
+	 * @param factory	Creates a new WebDriver session.
+	 * @param policy	Thresholds from which the session is recycled.
+	 * @return Recyclable WebDriver handle.
+	 */
+
+	static WebDriver wrap(Supplier<WebDriver> factory, RecyclePolicy policy) {
+		RecyclingDriver handler = new RecyclingDriver(factory, policy);
+		List<Class<?>> interfaces = ClassUtils.getAllInterfaces(handler.driver.getClass());
+		return (WebDriver) Proxy.newProxyInstance(handler.driver.getClass().getClassLoader(), interfaces.toArray(new Class<?>[0]), handler);
+	}
+
+	/**
+	 * Gets the Recycling Handler of a WebDriver.
+	 *
+	 * @param driver WebDriver handle.
+	 * @return Recycling Handler. <code>null</code> if WebDriver is not recyclable.
+	 */
+
+	static RecyclingDriver of(WebDriver driver) {
+		if (driver != null && Proxy.isProxyClass(driver.getClass()) && Proxy.getInvocationHandler(driver) instanceof RecyclingDriver) {
+			return (RecyclingDriver) Proxy.getInvocationHandler(driver);
+		}
+		return null;
+	}
+
+	/**
+	 * Forwards WebDriver commands to the current session. Object methods are
+	 * answered by the handle itself, so it keeps its identity in Maps and Sets
+	 * across recycles.
+	 */
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class) {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				return "RecyclingDriver[" + this.driver + "]";
+			}
+		}
+		this.commandCount.incrementAndGet();
+		if (method.getName().equals("quit") && method.getParameterCount() == 0) {
+			this.isQuit = true;
+		}
+		try {
+			return method.invoke(this.driver, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Gets the WebDriver of the current session.
+	 *
+	 * @return Current WebDriver session.
+	 */
+
+	WebDriver getDriver() {
+		return this.driver;
+	}
+
+	/**
+	 * Recycles the WebDriver session if any threshold of the Recycle Policy has
+	 * been crossed.
+	 *
+	 * @return <code>true</code> if session was recycled.
+	 */
+
+	synchronized boolean recycleIfDue() {
+		if (this.isQuit) {
+			return false;
+		}
+		String reason = this.getRecycleReason();
+		if (reason == null) {
+			return false;
+		}
+		this.log.info("Recycling WebDriver session: " + reason + ".");
+		SessionSnapshot snapshot = null;
+		String url = null;
+		if (this.policy.isSessionRestored()) {
+			try {
+				url = this.driver.getCurrentUrl();
+				snapshot = SessionSnapshot.capture(this.driver, "recycle-" + System.identityHashCode(this), 0);
+			} catch (Exception e) {
+				this.log.warn("Unable to capture session state before recycling WebDriver.");
+				this.log.debug(ExceptionUtils.getStackTrace(e));
+			}
+		}
+		try {
+			this.driver.quit();
+		} catch (Exception e) {
+			this.log.warn("Encountered Exception while quitting recycled WebDriver session.");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+		this.driver = this.factory.get();
+		this.createdAt = System.currentTimeMillis();
+		this.commandCount.set(0);
+		if (snapshot != null) {
+			try {
+				snapshot.restore(this.driver);
+				this.driver.get(url);
+			} catch (Exception e) {
+				this.log.warn("Unable to restore session state after recycling WebDriver.");
+				this.log.debug(ExceptionUtils.getStackTrace(e));
+			}
+		}
+		this.log.debug("Successfully recycled WebDriver session.");
+		return true;
+	}
+
+	private String getRecycleReason() {
+		long age = System.currentTimeMillis() - this.createdAt;
+		if (this.policy.getMaxAge() > 0 && age > this.policy.getMaxAge() * 1000L) {
+			return "session age of " + (age / 1000) + "s exceeded " + this.policy.getMaxAge() + "s";
+		}
+		long commands = this.commandCount.get();
+		if (this.policy.getMaxCommands() > 0 && commands > this.policy.getMaxCommands()) {
+			return "command count of " + commands + " exceeded " + this.policy.getMaxCommands();
+		}
+		if (this.policy.getMaxHeapSize() > 0 && this.driver instanceof JavascriptExecutor) {
+			try {
+				Object heapSize = ((JavascriptExecutor) this.driver).executeScript(HEAP_SIZE_SCRIPT);
+				if (heapSize instanceof Number && ((Number) heapSize).longValue() > this.policy.getMaxHeapSize()) {
+					return "used JS Heap of " + heapSize + " bytes exceeded " + this.policy.getMaxHeapSize() + " bytes";
+				}
+			} catch (Exception e) {
+				this.log.debug("Unable to measure JS Heap of WebDriver session.");
+				this.log.debug(ExceptionUtils.getStackTrace(e));
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,222 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+public class SessionSnapshot implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private static final Map<String, SessionSnapshot> snapshots = new ConcurrentHashMap<String, SessionSnapshot>();
+	private static Logger log = LogManager.getLogger(SessionSnapshot.class);
+
+	private static final String CAPTURE_STORAGE_SCRIPT =
+			"var dump = function(storage) { var data = {}; for (var i = 0; i < storage.length; i++) { var key = storage.key(i); data[key] = storage.getItem(key); } return data; };"
+			+ "return { origin: window.location.origin, local: dump(window.localStorage), session: dump(window.sessionStorage) };";
+
+	private static final String RESTORE_STORAGE_SCRIPT =
+			"var load = function(storage, data) { for (var key in data) { storage.setItem(key, data[key]); } };"
+			+ "load(window.localStorage, arguments[0]); load(window.sessionStorage, arguments[1]);";
+
+	private final String name;
+	private final String origin;
+	private final long capturedAt;
+	private final long timeToLive;
+	private final ArrayList<Cookie> cookies;
+	private final HashMap<String, String> localStorage;
+	private final HashMap<String, String> sessionStorage;
+
+	SessionSnapshot(String name, String origin, int timeToLive, List<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage) {
+		this.name = name;
+		this.origin = origin;
+		this.capturedAt = System.currentTimeMillis();
+		this.timeToLive = timeToLive * 1000L;
+		this.cookies = new ArrayList<Cookie>(cookies);
+		this.localStorage = new HashMap<String, String>(localStorage);
+		this.sessionStorage = new HashMap<String, String>(sessionStorage);
+	}
+
+	/**
+	 * Captures Cookies, Local Storage and Session Storage of the current page's
+	 * origin. Storage is read with a single script call.
+	 *
+	 * @param driver		WebDriver to capture from.
+	 * @param name			Name of the Session Snapshot.
+	 * @param timeToLive	Time to Live in seconds. <code>0</code> if it never expires.
+	 * @return Captured Session Snapshot.
+	 */
+
+	@SuppressWarnings("unchecked")
+	static SessionSnapshot capture(WebDriver driver, String name, int timeToLive) {
+		Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+		List<Cookie> cookies = new ArrayList<Cookie>(driver.manage().getCookies());
+		return new SessionSnapshot(name, String.valueOf(storage.get("origin")), timeToLive, cookies,
+				toStringMap(storage.get("local")), toStringMap(storage.get("session")));
+	}
+
+	/**
+	 * Restores the Session Snapshot into a WebDriver. Opens the Snapshot's
+	 * origin, adds its Cookies and injects Local and Session Storage with a
+	 * single script call.
+	 *
+	 * @param driver WebDriver to restore into.
+	 */
+
+	final void restore(WebDriver driver) {
+		driver.get(this.origin);
+		for (Cookie cookie : this.cookies) {
+			driver.manage().addCookie(cookie);
+		}
+		((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE_SCRIPT, this.localStorage, this.sessionStorage);
+	}
+
+	/**
+	 * Registers a Session Snapshot under its name, replacing any previous
+	 * Snapshot with the same name.
+	 *
+	 * @param snapshot Session Snapshot to register.
+	 */
+
+	public static final void register(SessionSnapshot snapshot) {
+		log.debug("Registering Session Snapshot \"" + snapshot.getName() + "\".");
+		snapshots.put(snapshot.getName(), snapshot);
+	}
+
+	/**
+	 * Gets a registered Session Snapshot by name. Expired Snapshots are removed
+	 * and not returned.
+	 *
+	 * @param name Name of the Session Snapshot.
+	 * @return Session Snapshot. <code>null</code> if not registered or expired.
+	 */
+
+	public static final SessionSnapshot get(String name) {
+		SessionSnapshot snapshot = snapshots.get(name);
+		if (snapshot == null) {
+			log.debug("Session Snapshot \"" + name + "\" is not registered.");
+		} else if (snapshot.isExpired()) {
+			log.debug("Session Snapshot \"" + name + "\" has expired.");
+			snapshots.remove(name, snapshot);
+			snapshot = null;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Removes a registered Session Snapshot.
+	 *
+	 * @param name Name of the Session Snapshot.
+	 */
+
+	public static final void invalidate(String name) {
+		log.debug("Invalidating Session Snapshot \"" + name + "\".");
+		snapshots.remove(name);
+	}
+
+	/**
+	 * Saves Session Snapshot to a File.
+	 *
+	 * @param filePath File Path where the Session Snapshot will be saved.
+	 */
+
+	public final void save(String filePath) {
+		log.debug("Saving Session Snapshot \"" + this.name + "\" to \"" + filePath + "\".");
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filePath))) {
+			out.writeObject(this);
+		} catch (IOException e) {
+			log.error("Encountered IOException while saving Session Snapshot \"" + this.name + "\"!");
+			log.debug(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	/**
+	 * Loads a Session Snapshot from a File and registers it. Expired Snapshots
+	 * are not registered.
+	 *
+	 * @param filePath File Path of the saved Session Snapshot.
+	 * @return Session Snapshot. <code>null</code> if unreadable or expired.
+	 */
+
+	public static final SessionSnapshot load(String filePath) {
+		log.debug("Loading Session Snapshot from \"" + filePath + "\".");
+		SessionSnapshot snapshot = null;
+		try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filePath))) {
+			snapshot = (SessionSnapshot) in.readObject();
+		} catch (IOException e) {
+			log.error("Encountered IOException while loading Session Snapshot from \"" + filePath + "\"!");
+			log.debug(ExceptionUtils.getStackTrace(e));
+		} catch (ClassNotFoundException e) {
+			log.error("Encountered ClassNotFoundException while loading Session Snapshot from \"" + filePath + "\"!");
+			log.debug(ExceptionUtils.getStackTrace(e));
+		}
+		if (snapshot != null) {
+			if (snapshot.isExpired()) {
+				log.debug("Session Snapshot \"" + snapshot.getName() + "\" has expired.");
+				snapshot = null;
+			} else {
+				register(snapshot);
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Checks if the Session Snapshot has outlived its Time to Live.
+	 *
+	 * @return <code>true</code> if expired. <code>false</code> if still valid.
+	 */
+
+	public final boolean isExpired() {
+		return this.timeToLive > 0 && System.currentTimeMillis() - this.capturedAt > this.timeToLive;
+	}
+
+	public final String getName() {
+		return this.name;
+	}
+
+	public final String getOrigin() {
+		return this.origin;
+	}
+
+	public final long getCapturedAt() {
+		return this.capturedAt;
+	}
+
+	final List<Cookie> getCookies() {
+		return this.cookies;
+	}
+
+	final Map<String, String> getLocalStorage() {
+		return this.localStorage;
+	}
+
+	final Map<String, String> getSessionStorage() {
+		return this.sessionStorage;
+	}
+
+	private static Map<String, String> toStringMap(Object data) {
+		Map<String, String> map = new HashMap<String, String>();
+		if (data instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) data).entrySet()) {
+				map.put(String.valueOf(entry.getKey()), entry.getValue() == null ? null : String.valueOf(entry.getValue()));
+			}
+		}
+		return map;
+	}
+
+}
@@ -1,11 +1,14 @@
 package com.github.abagabagon.verifico.automation.web;
 
+import java.util.function.Supplier;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.Platform;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
@@ -28,11 +31,57 @@ public class WebDriverFactory {
 	private WebDriver edgeDriver;
 	private WebDriver ieDriver;
 	private WebDriver safariDriver;
+	private NetworkControl networkControl;
+	private RecyclePolicy recyclePolicy;
 
 	public WebDriverFactory() {
 		this.log = LogManager.getLogger(this.getClass());
 	}
 
+	/**
+	 * Sets Network Control (URL Blocklist and Stubs) applied to every Chrome and
+	 * Microsoft Edge WebDriver set afterwards.
+	 *
+	 * @param networkControl Network Control to apply on session creation.
+	 */
+
+	public final void setNetworkControl(NetworkControl networkControl) {
+		this.networkControl = networkControl;
+	}
+
+	/**
+	 * Sets Recycle Policy for every WebDriver set afterwards. WebDrivers are
+	 * tracked for session age, command count and used JS Heap, and are replaced
+	 * by a fresh session through {@link #recycleDrivers()} once a threshold is
+	 * crossed. The WebDriver returned by the getters stays valid across recycles.
+	 *
+	 * @param recyclePolicy Recycle Policy to apply on session creation.
+	 */
+
+	public final void setRecyclePolicy(RecyclePolicy recyclePolicy) {
+		this.recyclePolicy = recyclePolicy;
+	}
+
+	/**
+	 * Recycles WebDriver sessions that crossed a threshold of the Recycle
+	 * Policy. Meant to be called at test boundaries, e.g. in an
+	 * <code>@AfterMethod</code>.
+	 *
+	 * @return <code>true</code> if at least one WebDriver session was recycled.
+	 */
+
+	public final boolean recycleDrivers() {
+		this.log.trace("Checking WebDriver sessions for recycling.");
+		boolean isRecycled = false;
+		for (WebDriver driver : new WebDriver[] { this.chromeDriver, this.firefoxDriver, this.edgeDriver, this.ieDriver, this.safariDriver }) {
+			RecyclingDriver recyclingDriver = RecyclingDriver.of(driver);
+			if (recyclingDriver != null && recyclingDriver.recycleIfDue()) {
+				isRecycled = true;
+			}
+		}
+		return isRecycled;
+	}
+
 	/**
 	 * Sets/initializes Chrome WebDriver.
 	 */
@@ -40,7 +89,7 @@ public class WebDriverFactory {
 	public final void setChromeDriver() {
 		this.log.trace("Initializing " + String.valueOf(Browser.CHROME) + " WebDriver.");
 		WebDriverManager.chromedriver().setup();
-		this.chromeDriver = new ChromeDriver();
+		this.chromeDriver = this.createDriver(() -> new ChromeDriver());
 		this.log.trace("Successfully initialized " + String.valueOf(Browser.CHROME) + " WebDriver.");
 	}
 
@@ -53,7 +102,7 @@ public class WebDriverFactory {
 	public final void setChromeDriver(ChromeOptions options) {
 		this.log.trace("Initializing " + String.valueOf(Browser.CHROME) + " WebDriver.");
 		WebDriverManager.chromedriver().setup();
-		this.chromeDriver = new ChromeDriver(options);
+		this.chromeDriver = this.createDriver(() -> new ChromeDriver(options));
 		this.log.trace("Successfully initialized " + String.valueOf(Browser.CHROME) + " WebDriver.");
 	}
 
@@ -64,7 +113,7 @@ public class WebDriverFactory {
 	public final void setFirefoxDriver() {
 		this.log.trace("Initializing " + String.valueOf(Browser.FIREFOX) + " WebDriver.");
 		WebDriverManager.firefoxdriver().setup();
-		this.firefoxDriver = new FirefoxDriver();
+		this.firefoxDriver = this.createDriver(() -> new FirefoxDriver());
 		this.log.trace("Successfully initialized " + String.valueOf(Browser.FIREFOX) + " WebDriver.");
 	}
 
@@ -77,7 +126,7 @@ public class WebDriverFactory {
 	public final void setFirefoxDriver(FirefoxOptions options) {
 		this.log.trace("Initializing " + String.valueOf(Browser.FIREFOX) + " WebDriver.");
 		WebDriverManager.firefoxdriver().setup();
-		this.firefoxDriver = new FirefoxDriver(options);
+		this.firefoxDriver = this.createDriver(() -> new FirefoxDriver(options));
 		this.log.trace("Successfully initialized " + String.valueOf(Browser.FIREFOX) + " WebDriver.");
 	}
 
@@ -88,7 +137,7 @@ public class WebDriverFactory {
 	public final void setEdgeDriver() {
 		this.log.trace("Initializing " + String.valueOf(Browser.EDGE) + " WebDriver.");
 		WebDriverManager.edgedriver().setup();
-		this.edgeDriver = new EdgeDriver();
+		this.edgeDriver = this.createDriver(() -> new EdgeDriver());
 		this.log.trace("Successfully initialized " + String.valueOf(Browser.EDGE) + " WebDriver.");
 	}
 
@@ -101,7 +150,7 @@ public class WebDriverFactory {
 	public final void setEdgeDriver(EdgeOptions options) {
 		this.log.trace("Initializing " + String.valueOf(Browser.EDGE) + " WebDriver.");
 		WebDriverManager.edgedriver().setup();
-		this.edgeDriver = new EdgeDriver(options);
+		this.edgeDriver = this.createDriver(() -> new EdgeDriver(options));
 		this.log.trace("Successfully initialized " + String.valueOf(Browser.EDGE) + " WebDriver.");
 	}
 
@@ -118,7 +167,7 @@ public class WebDriverFactory {
 		switch(operatingSystem) {
 		case WINDOWS:
 			WebDriverManager.iedriver().setup();
-			this.ieDriver = new InternetExplorerDriver();
+			this.ieDriver = this.createDriver(() -> new InternetExplorerDriver());
 			this.log.trace("Successfully initialized " + String.valueOf(Browser.IE) + " WebDriver.");
 			break;
 		default:
@@ -142,7 +191,7 @@ public class WebDriverFactory {
 		switch(operatingSystem) {
 		case WINDOWS:
 			WebDriverManager.iedriver().setup();
-			this.ieDriver = new InternetExplorerDriver(options);
+			this.ieDriver = this.createDriver(() -> new InternetExplorerDriver(options));
 			this.log.trace("Successfully initialized " + String.valueOf(Browser.IE) + " WebDriver.");
 			break;
 		default:
@@ -162,7 +211,7 @@ public class WebDriverFactory {
 
 		switch(operatingSystem) {
 		case MAC:
-			this.safariDriver = new SafariDriver();
+			this.safariDriver = this.createDriver(() -> new SafariDriver());
 			this.log.trace("Successfully initialized " + String.valueOf(Browser.SAFARI) + " WebDriver.");
 			break;
 		default:
@@ -184,7 +233,7 @@ public class WebDriverFactory {
 
 		switch(operatingSystem) {
 		case MAC:
-			this.safariDriver = new SafariDriver(options);
+			this.safariDriver = this.createDriver(() -> new SafariDriver(options));
 			this.log.trace("Successfully initialized " + String.valueOf(Browser.SAFARI) + " WebDriver.");
 			break;
 		default:
@@ -263,6 +312,20 @@ public class WebDriverFactory {
 		return this.safariDriver;
 	}
 
+	private WebDriver createDriver(Supplier<WebDriver> supplier) {
+		Supplier<WebDriver> factory = () -> {
+			WebDriver driver = supplier.get();
+			if (this.networkControl != null && driver instanceof ChromiumDriver) {
+				this.networkControl.apply(driver);
+			}
+			return driver;
+		};
+		if (this.recyclePolicy == null) {
+			return factory.get();
+		}
+		return RecyclingDriver.wrap(factory, this.recyclePolicy);
+	}
+
 	private void checkNullWebDriver(Browser browser, WebDriver driver) {
 		if (driver == null) {
 			this.log.fatal(String.valueOf(browser) + " Driver still not initialized. Initialize first before getting the WebDriver.");
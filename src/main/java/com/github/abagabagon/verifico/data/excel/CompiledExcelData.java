@@ -0,0 +1,237 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.abagabagon.verifico.enums.Excel;
+
+/**
+ * Excel Data Retrieval from Sheets compiled into memory-mapped binary cache
+ * files. A Sheet is compiled from its Excel File on first use and the cache
+ * file is reused by later runs for as long as the Excel File's SHA-256 matches.
+ * Sheets that cannot be compiled are read from the Excel File directly.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class CompiledExcelData implements ExcelData {
+
+	private static volatile File cacheDirectory = new File(System.getProperty("java.io.tmpdir"), "verifico-excel-cache");
+
+	private Logger log;
+	private ExcelData source;
+	private String filePath;
+	private Map<String, CompiledExcelSheet> sheets;
+	private long sourceLastModified;
+	private long sourceSize;
+	private byte[] sourceHash;
+
+	/**
+	 * Creates Excel Data reading compiled Sheets of an Excel File.
+	 *
+	 * @param excelType	Excel File Type used to compile Sheets.
+	 * @param filePath	Excel File Path.
+	 */
+
+	public CompiledExcelData(Excel excelType, String filePath) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.source = ExcelDataFactory.getExcelData(excelType, filePath);
+		this.filePath = filePath;
+		this.sheets = new HashMap<String, CompiledExcelSheet>();
+		this.sourceLastModified = -1;
+	}
+
+	/**
+	 * Sets the directory where compiled Sheets are kept. Defaults to
+	 * <code>verifico-excel-cache</code> in the temporary directory.
+	 *
+	 * @param directoryPath Cache Directory Path.
+	 */
+
+	public static void setCacheDirectory(String directoryPath) {
+		cacheDirectory = new File(directoryPath);
+	}
+
+	@Override
+	public Object getCellData(String sheetName, int rowNum, int columnNum) {
+		this.log.trace("Retrieving Cell Data from \"" + sheetName + "\" compiled Excel Sheet.");
+		CompiledExcelSheet sheet = this.getSheet(sheetName);
+		return sheet == null ? this.source.getCellData(sheetName, rowNum, columnNum) : sheet.getCellData(rowNum, columnNum);
+	}
+
+	@Override
+	public Object[] getColumnData(String sheetName, String columnName) {
+		this.log.trace("Retrieving data of the Column \"" + columnName + "\" from \"" + sheetName + "\" compiled Excel Sheet.");
+		CompiledExcelSheet sheet = this.getSheet(sheetName);
+		if (sheet == null) {
+			return this.source.getColumnData(sheetName, columnName);
+		}
+		return this.getColumnsData(sheet, columnName)[0];
+	}
+
+	@Override
+	public Object[][] getSheetData(String sheetName, boolean withHeader) {
+		this.log.trace("Retrieving data from \"" + sheetName + "\" compiled Excel Sheet.");
+		CompiledExcelSheet sheet = this.getSheet(sheetName);
+		if (sheet == null) {
+			return this.source.getSheetData(sheetName, withHeader);
+		}
+		int firstRow = withHeader ? 1 : 0;
+		Object[][] excelData = new Object[sheet.getRowCount() - firstRow][];
+		for (int i = 0; i < excelData.length; i++) {
+			excelData[i] = sheet.getRow(i + firstRow, sheet.getHeaderLength());
+		}
+		return excelData;
+	}
+
+	@Override
+	public Object[][] getColumnsData(String sheetName, String... columnNames) {
+		this.log.trace("Retrieving data of the Columns " + Arrays.toString(columnNames) + " from \"" + sheetName + "\" compiled Excel Sheet.");
+		CompiledExcelSheet sheet = this.getSheet(sheetName);
+		if (sheet == null) {
+			return this.source.getColumnsData(sheetName, columnNames);
+		}
+		return this.getColumnsData(sheet, columnNames);
+	}
+
+	@Override
+	public List<Map<String, Object>> getSheetDataAsMaps(String sheetName) {
+		this.log.trace("Retrieving data from \"" + sheetName + "\" compiled Excel Sheet.");
+		CompiledExcelSheet sheet = this.getSheet(sheetName);
+		if (sheet == null) {
+			return this.source.getSheetDataAsMaps(sheetName);
+		}
+		Object[] header = sheet.getRow(0, sheet.getHeaderLength());
+		List<Map<String, Object>> excelData = new ArrayList<Map<String, Object>>(sheet.getRowCount() - 1);
+		for (int i = 1; i < sheet.getRowCount(); i++) {
+			excelData.add(ExcelSheet.toMap(header, sheet.getRow(i, header.length)));
+		}
+		return excelData;
+	}
+
+	@Override
+	public ExcelRowIterator getRowIterator(String sheetName) {
+		this.log.trace("Iterating rows of \"" + sheetName + "\" compiled Excel Sheet.");
+		CompiledExcelSheet sheet = this.getSheet(sheetName);
+		if (sheet == null) {
+			return this.source.getRowIterator(sheetName);
+		}
+		return new ExcelRowIterator() {
+
+			private int rowNum;
+
+			@Override
+			public boolean hasNext() {
+				return this.rowNum < sheet.getRowCount();
+			}
+
+			@Override
+			public Object[] next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException("No more rows in compiled Excel Sheet \"" + sheetName + "\".");
+				}
+				return sheet.getRow(this.rowNum++, sheet.getColumnCount());
+			}
+
+			@Override
+			public void close() {
+				this.rowNum = sheet.getRowCount();
+			}
+
+		};
+	}
+
+	@Override
+	public TypedExcelSheet getTypedSheet(String sheetName) {
+		this.log.trace("Retrieving typed data from \"" + sheetName + "\" compiled Excel Sheet.");
+		CompiledExcelSheet sheet = this.getSheet(sheetName);
+		if (sheet == null) {
+			return this.source.getTypedSheet(sheetName);
+		}
+		List<Object[]> rows = new ArrayList<Object[]>(sheet.getRowCount());
+		for (int i = 0; i < sheet.getRowCount(); i++) {
+			rows.add(sheet.getRow(i, sheet.getColumnCount()));
+		}
+		return TypedExcelSheet.of(sheetName, rows, true);
+	}
+
+	private Object[][] getColumnsData(CompiledExcelSheet sheet, String... columnNames) {
+		Object[][] excelData = new Object[columnNames.length][sheet.getRowCount() - 1];
+		for (int i = 0; i < columnNames.length; i++) {
+			Integer columnNum = sheet.getHeaderIndex().get(columnNames[i]);
+			if (columnNum == null) {
+				this.log.fatal("The Column Name \"" + columnNames[i] + "\" specified does not exist.");
+				continue;
+			}
+			for (int j = 0; j < excelData[i].length; j++) {
+				excelData[i][j] = sheet.getCellData(j + 1, columnNum);
+			}
+		}
+		return excelData;
+	}
+
+	/**
+	 * Gets a compiled Sheet. The Excel File is hashed again whenever its last
+	 * modified time or size changes, and Sheets are compiled again whenever the
+	 * hash no longer matches their cache file.
+	 *
+	 * @param sheetName Sheet Name from the Excel File.
+	 * @return Compiled Sheet. <code>null</code> if the Sheet could not be compiled.
+	 */
+
+	private synchronized CompiledExcelSheet getSheet(String sheetName) {
+		File file = new File(this.filePath);
+		try {
+			if (file.lastModified() != this.sourceLastModified || file.length() != this.sourceSize) {
+				this.sheets.clear();
+				this.sourceLastModified = file.lastModified();
+				this.sourceSize = file.length();
+				this.sourceHash = CompiledExcelSheet.hash(file);
+			}
+			CompiledExcelSheet sheet = this.sheets.get(sheetName);
+			if (sheet != null) {
+				return sheet;
+			}
+			File compiledFile = this.getCompiledFile(file, sheetName);
+			sheet = CompiledExcelSheet.open(compiledFile, this.sourceHash);
+			if (sheet == null) {
+				this.log.debug("Compiling \"" + sheetName + "\" Excel Sheet of \"" + this.filePath + "\" into \"" + compiledFile + "\".");
+				List<Object[]> rows = new ArrayList<Object[]>();
+				try (ExcelRowIterator iterator = this.source.getRowIterator(sheetName)) {
+					iterator.forEachRemaining(rows::add);
+				}
+				if (rows.isEmpty()) {
+					return null;
+				}
+				CompiledExcelSheet.compile(compiledFile, this.sourceHash, rows);
+				sheet = CompiledExcelSheet.open(compiledFile, this.sourceHash);
+			}
+			this.sheets.put(sheetName, sheet);
+			return sheet;
+		} catch (IOException e) {
+			this.sourceLastModified = -1;
+			this.log.error("Encountered IOException while compiling \"" + sheetName + "\" Excel Sheet! Reading the Excel File instead.");
+			this.log.error(ExceptionUtils.getStackTrace(e));
+			return null;
+		}
+	}
+
+	private File getCompiledFile(File file, String sheetName) throws IOException {
+		String key = file.getCanonicalPath() + "\n" + sheetName;
+		return new File(cacheDirectory, file.getName() + "." + UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".sheet");
+	}
+
+}
@@ -0,0 +1,431 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Excel Sheet compiled into a memory-mapped binary file. Below the header
+ * row, columns holding only whole numbers are stored as longs, Boolean columns
+ * as bytes and all other columns as indexes into a shared String dictionary.
+ * Cells are decoded on access, so opening a compiled Sheet reads almost
+ * nothing.
+ *
+ * <pre>
+ * int magic, int version, byte[32] source SHA-256,
+ * int rowCount, int columnCount, int dictionarySize,
+ * int[dictionarySize + 1] dictionary offsets, byte[] UTF-8 dictionary,
+ * int[columnCount] header dictionary index (-1 null),
+ * per column, for the rows below the header: byte type, then
+ *   LONG:    byte[(rowCount + 7) / 8] null bitmap, long[rowCount]
+ *   BOOLEAN: byte[rowCount] (0 null, 1 false, 2 true)
+ *   STRING:  int[rowCount] dictionary index (-1 null)
+ * </pre>
+ *
+ * @author albagabagon
+ *
+ */
+
+class CompiledExcelSheet {
+
+	private static final int MAGIC = 0x56584331;
+	private static final int VERSION = 1;
+	private static final int HASH_LENGTH = 32;
+	private static final byte LONG = 1;
+	private static final byte BOOLEAN = 2;
+	private static final byte STRING = 3;
+
+	private final ByteBuffer buffer;
+	private final int rowCount;
+	private final int columnCount;
+	private final int dictionaryOffset;
+	private final int dictionaryDataOffset;
+	private final int headerOffset;
+	private final String[] dictionary;
+	private final byte[] columnTypes;
+	private final int[] columnOffsets;
+	private final int headerLength;
+	private volatile Map<String, Integer> headerIndex;
+
+	private CompiledExcelSheet(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Not a compiled Excel Sheet of version " + VERSION + ".");
+		}
+		int offset = 8 + HASH_LENGTH;
+		this.rowCount = buffer.getInt(offset);
+		this.columnCount = buffer.getInt(offset + 4);
+		int dictionarySize = buffer.getInt(offset + 8);
+		this.dictionaryOffset = offset + 12;
+		this.dictionaryDataOffset = this.dictionaryOffset + (dictionarySize + 1) * 4;
+		this.dictionary = new String[dictionarySize];
+		this.headerOffset = this.dictionaryDataOffset + buffer.getInt(this.dictionaryOffset + dictionarySize * 4);
+		offset = this.headerOffset + this.columnCount * 4;
+		this.columnTypes = new byte[this.columnCount];
+		this.columnOffsets = new int[this.columnCount];
+		for (int i = 0; i < this.columnCount; i++) {
+			this.columnTypes[i] = buffer.get(offset);
+			this.columnOffsets[i] = offset + 1;
+			offset += 1 + getColumnLength(this.columnTypes[i], this.rowCount);
+		}
+		int headerLength = 0;
+		for (int i = 0; i < this.columnCount; i++) {
+			if (buffer.getInt(this.headerOffset + i * 4) >= 0) {
+				headerLength = i + 1;
+			}
+		}
+		this.headerLength = headerLength;
+	}
+
+	/**
+	 * Memory-maps a compiled Sheet if it was compiled from the given source.
+	 *
+	 * @param file			Compiled Sheet File.
+	 * @param sourceHash	SHA-256 of the source Excel File.
+	 * @return Compiled Sheet. <code>null</code> if the file does not exist or was compiled from another source.
+	 * @throws IOException if the file cannot be read.
+	 */
+
+	static CompiledExcelSheet open(File file, byte[] sourceHash) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() < 8 + HASH_LENGTH + 12) {
+				return null;
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			return null;
+		}
+		byte[] hash = new byte[HASH_LENGTH];
+		for (int i = 0; i < HASH_LENGTH; i++) {
+			hash[i] = buffer.get(8 + i);
+		}
+		return Arrays.equals(hash, sourceHash) ? new CompiledExcelSheet(buffer) : null;
+	}
+
+	/**
+	 * Compiles Sheet rows into a file. The file is written next to its final
+	 * location and then moved in place, so concurrent readers never see a
+	 * partial file.
+	 *
+	 * @param file			Compiled Sheet File.
+	 * @param sourceHash	SHA-256 of the source Excel File.
+	 * @param rows			Sheet rows, starting with the header row. At least the header row is required. Values other than Booleans are stored as Strings.
+	 * @throws IOException if the file cannot be written.
+	 */
+
+	static void compile(File file, byte[] sourceHash, List<Object[]> rows) throws IOException {
+		Object[] header = rows.get(0);
+		rows = rows.subList(1, rows.size());
+		int rowCount = rows.size();
+		int columnCount = header.length;
+		for (Object[] row : rows) {
+			columnCount = Math.max(columnCount, row.length);
+		}
+		byte[] columnTypes = new byte[columnCount];
+		Map<String, Integer> dictionary = new LinkedHashMap<String, Integer>();
+		int columnsLength = 0;
+		for (int i = 0; i < columnCount; i++) {
+			addToDictionary(dictionary, getValue(header, i));
+			columnTypes[i] = getColumnType(rows, i);
+			columnsLength += 1 + getColumnLength(columnTypes[i], rowCount);
+			if (columnTypes[i] == STRING) {
+				for (Object[] row : rows) {
+					addToDictionary(dictionary, getValue(row, i));
+				}
+			}
+		}
+		List<byte[]> dictionaryBytes = new ArrayList<byte[]>(dictionary.size());
+		int dictionaryLength = 0;
+		for (String value : dictionary.keySet()) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			dictionaryBytes.add(bytes);
+			dictionaryLength += bytes.length;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(8 + HASH_LENGTH + 12 + (dictionary.size() + 1) * 4 + dictionaryLength + columnCount * 4 + columnsLength);
+		buffer.putInt(MAGIC).putInt(VERSION).put(sourceHash).putInt(rowCount).putInt(columnCount).putInt(dictionary.size());
+		int offset = 0;
+		for (byte[] bytes : dictionaryBytes) {
+			buffer.putInt(offset);
+			offset += bytes.length;
+		}
+		buffer.putInt(offset);
+		for (byte[] bytes : dictionaryBytes) {
+			buffer.put(bytes);
+		}
+		for (int i = 0; i < columnCount; i++) {
+			Object value = getValue(header, i);
+			buffer.putInt(value == null ? -1 : dictionary.get(value.toString()));
+		}
+		for (int i = 0; i < columnCount; i++) {
+			buffer.put(columnTypes[i]);
+			switch (columnTypes[i]) {
+			case LONG:
+				byte[] nulls = new byte[(rowCount + 7) / 8];
+				for (int j = 0; j < rowCount; j++) {
+					if (getValue(rows.get(j), i) == null) {
+						nulls[j >> 3] |= 1 << (j & 7);
+					}
+				}
+				buffer.put(nulls);
+				for (Object[] row : rows) {
+					Object value = getValue(row, i);
+					buffer.putLong(value == null ? 0 : Long.parseLong(value.toString()));
+				}
+				break;
+			case BOOLEAN:
+				for (Object[] row : rows) {
+					Object value = getValue(row, i);
+					buffer.put((byte) (value == null ? 0 : (Boolean) value ? 2 : 1));
+				}
+				break;
+			default:
+				for (Object[] row : rows) {
+					Object value = getValue(row, i);
+					buffer.putInt(value == null ? -1 : dictionary.get(value.toString()));
+				}
+			}
+		}
+		buffer.flip();
+		File directory = file.getAbsoluteFile().getParentFile();
+		Files.createDirectories(directory.toPath());
+		File temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+		try {
+			try (FileChannel channel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+			Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+	}
+
+	/**
+	 * Computes the SHA-256 of a file.
+	 *
+	 * @param file File to hash.
+	 * @return SHA-256
+	 * @throws IOException if the file cannot be read.
+	 */
+
+	static byte[] hash(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("SHA-256 is not supported by the Java runtime.", e);
+		}
+		byte[] bytes = new byte[65536];
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			for (int read = in.read(bytes); read >= 0; read = in.read(bytes)) {
+				digest.update(bytes, 0, read);
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Gets the number of rows, including the header row.
+	 *
+	 * @return Row Count
+	 */
+
+	int getRowCount() {
+		return this.rowCount + 1;
+	}
+
+	int getColumnCount() {
+		return this.columnCount;
+	}
+
+	/**
+	 * Gets the number of columns up to the last non-empty header Cell.
+	 *
+	 * @return Header Length
+	 */
+
+	int getHeaderLength() {
+		return this.headerLength;
+	}
+
+	/**
+	 * Gets the header column positions by Column Name, indexed on first use.
+	 *
+	 * @return Column positions, starting at 0, by Column Name.
+	 */
+
+	Map<String, Integer> getHeaderIndex() {
+		Map<String, Integer> headerIndex = this.headerIndex;
+		if (headerIndex == null) {
+			headerIndex = ExcelSheet.indexHeader(this.getRow(0, this.headerLength));
+			this.headerIndex = headerIndex;
+		}
+		return headerIndex;
+	}
+
+	/**
+	 * Checks whether a column is stored as longs.
+	 *
+	 * @param columnNum Column position, starting at 0.
+	 * @return <code>true</code> if every non-empty Cell below the header row is a whole number.
+	 */
+
+	boolean isLongColumn(int columnNum) {
+		return this.columnTypes[columnNum] == LONG;
+	}
+
+	/**
+	 * Decodes a Cell value. Whole numbers are decoded as Strings to keep the
+	 * values of the source Excel Data.
+	 *
+	 * @param rowNum	Row position, starting at 0.
+	 * @param columnNum	Column position, starting at 0.
+	 * @return Cell data in a form of an Object. <code>null</code> if the Cell is empty or does not exist.
+	 */
+
+	Object getCellData(int rowNum, int columnNum) {
+		if (rowNum < 0 || rowNum > this.rowCount || columnNum < 0 || columnNum >= this.columnCount) {
+			return null;
+		}
+		if (rowNum == 0) {
+			int index = this.buffer.getInt(this.headerOffset + columnNum * 4);
+			return index < 0 ? null : this.getString(index);
+		}
+		rowNum--;
+		int offset = this.columnOffsets[columnNum];
+		switch (this.columnTypes[columnNum]) {
+		case LONG:
+			if ((this.buffer.get(offset + (rowNum >> 3)) & 1 << (rowNum & 7)) != 0) {
+				return null;
+			}
+			return Long.toString(this.buffer.getLong(offset + (this.rowCount + 7) / 8 + rowNum * 8));
+		case BOOLEAN:
+			byte value = this.buffer.get(offset + rowNum);
+			return value == 0 ? null : value == 2;
+		default:
+			int index = this.buffer.getInt(offset + rowNum * 4);
+			return index < 0 ? null : this.getString(index);
+		}
+	}
+
+	/**
+	 * Gets a row with as many columns as requested.
+	 *
+	 * @param rowNum		Row position, starting at 0.
+	 * @param columnCount	Number of columns to return.
+	 * @return Row data in a form of an Object Array.
+	 */
+
+	Object[] getRow(int rowNum, int columnCount) {
+		Object[] row = new Object[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			row[i] = this.getCellData(rowNum, i);
+		}
+		return row;
+	}
+
+	private String getString(int index) {
+		String value = this.dictionary[index];
+		if (value == null) {
+			int start = this.buffer.getInt(this.dictionaryOffset + index * 4);
+			int end = this.buffer.getInt(this.dictionaryOffset + index * 4 + 4);
+			byte[] bytes = new byte[end - start];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = this.buffer.get(this.dictionaryDataOffset + start + i);
+			}
+			value = new String(bytes, StandardCharsets.UTF_8);
+			this.dictionary[index] = value;
+		}
+		return value;
+	}
+
+	private static void addToDictionary(Map<String, Integer> dictionary, Object value) {
+		if (value != null) {
+			dictionary.putIfAbsent(value.toString(), dictionary.size());
+		}
+	}
+
+	private static Object getValue(Object[] row, int columnNum) {
+		return columnNum < row.length ? row[columnNum] : null;
+	}
+
+	private static byte getColumnType(List<Object[]> rows, int columnNum) {
+		boolean isLong = true;
+		boolean isBoolean = true;
+		boolean isEmpty = true;
+		for (Object[] row : rows) {
+			Object value = getValue(row, columnNum);
+			if (value == null) {
+				continue;
+			}
+			isEmpty = false;
+			isBoolean &= value instanceof Boolean;
+			isLong &= value instanceof String && isLong((String) value);
+			if (!isLong && !isBoolean) {
+				return STRING;
+			}
+		}
+		return isEmpty ? STRING : isBoolean ? BOOLEAN : LONG;
+	}
+
+	/**
+	 * Checks whether a String is a whole number written exactly as
+	 * {@link Long#toString(long)} would write it, so it decodes to the same
+	 * String.
+	 */
+
+	private static boolean isLong(String value) {
+		int length = value.length();
+		if (length == 0 || length > 20) {
+			return false;
+		}
+		int start = value.charAt(0) == '-' ? 1 : 0;
+		if (start == length || value.charAt(start) == '0' && length > start + 1 || start == 1 && value.equals("-0")) {
+			return false;
+		}
+		for (int i = start; i < length; i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		try {
+			Long.parseLong(value);
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private static int getColumnLength(byte columnType, int rowCount) {
+		switch (columnType) {
+		case LONG:
+			return (rowCount + 7) / 8 + rowCount * 8;
+		case BOOLEAN:
+			return rowCount;
+		default:
+			return rowCount * 4;
+		}
+	}
+
+}
@@ -0,0 +1,373 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Implemented Excel Data Retrieval for delimited text Files such as CSV and
+ * TSV, following RFC 4180 quoting. The File is treated as a single Sheet, so
+ * the Sheet Name is only used in logs. Rows are parsed straight from a
+ * character buffer one at a time, so Files of any size can be iterated with
+ * constant memory. Cell values are Strings and empty Cells are
+ * <code>null</code>.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class CsvData implements ExcelData {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private Logger log;
+	private String filePath;
+	private char delimiter;
+	private Charset charset;
+
+	/**
+	 * Creates Excel Data reading a comma-separated UTF-8 File.
+	 *
+	 * @param filePath CSV File Path.
+	 */
+
+	public CsvData(String filePath) {
+		this(filePath, ',');
+	}
+
+	/**
+	 * Creates Excel Data reading a delimited UTF-8 File.
+	 *
+	 * @param filePath	Delimited File Path.
+	 * @param delimiter	Field delimiter, e.g. <code>'\t'</code> for TSV Files.
+	 */
+
+	public CsvData(String filePath, char delimiter) {
+		this(filePath, delimiter, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Creates Excel Data reading a delimited File.
+	 *
+	 * @param filePath	Delimited File Path.
+	 * @param delimiter	Field delimiter, e.g. <code>'\t'</code> for TSV Files.
+	 * @param charset	Character encoding of the File.
+	 */
+
+	public CsvData(String filePath, char delimiter, Charset charset) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.filePath = filePath;
+		this.delimiter = delimiter;
+		this.charset = charset;
+	}
+
+	@Override
+	public Object getCellData(String sheetName, int rowNum, int columnNum) {
+		this.log.trace("Retrieving Cell Data from \"" + this.filePath + "\" File.");
+		try (ExcelRowIterator rows = this.getRowIterator(sheetName)) {
+			for (int i = 0; rows.hasNext(); i++) {
+				Object[] row = rows.next();
+				if (i == rowNum) {
+					return columnNum < row.length ? row[columnNum] : null;
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Object[] getColumnData(String sheetName, String columnName) {
+		this.log.trace("Retrieving data of the Column \"" + columnName + "\" from \"" + this.filePath + "\" File.");
+		Object[][] excelData = this.getColumnsData(sheetName, columnName);
+		return excelData[0];
+	}
+
+	@Override
+	public Object[][] getSheetData(String sheetName, boolean withHeader) {
+		this.log.trace("Retrieving data from \"" + this.filePath + "\" File.");
+		List<Object[]> excelData = new ArrayList<Object[]>();
+		try (ExcelRowIterator rows = this.getRowIterator(sheetName)) {
+			if (rows.hasNext()) {
+				Object[] header = rows.next();
+				int columnCount = header.length;
+				if (!withHeader) {
+					excelData.add(header);
+				}
+				while (rows.hasNext()) {
+					Object[] row = rows.next();
+					excelData.add(row.length == columnCount ? row : Arrays.copyOf(row, columnCount));
+				}
+			}
+		}
+		if (excelData.isEmpty()) {
+			this.log.fatal("No Data is available for File: " + this.filePath + ".");
+		}
+		return excelData.toArray(new Object[excelData.size()][]);
+	}
+
+	@Override
+	public Object[][] getColumnsData(String sheetName, String... columnNames) {
+		this.log.trace("Retrieving data of the Columns " + Arrays.toString(columnNames) + " from \"" + this.filePath + "\" File.");
+		List<Object[]> excelData = new ArrayList<Object[]>();
+		try (ExcelRowIterator rows = this.getRowIterator(sheetName)) {
+			Map<String, Integer> headerIndex = ExcelSheet.indexHeader(rows.hasNext() ? rows.next() : new Object[0]);
+			int[] columnNums = new int[columnNames.length];
+			for (int i = 0; i < columnNames.length; i++) {
+				Integer columnNum = headerIndex.get(columnNames[i]);
+				if (columnNum == null) {
+					this.log.fatal("The Column Name \"" + columnNames[i] + "\" specified does not exist.");
+				}
+				columnNums[i] = columnNum == null ? -1 : columnNum;
+			}
+			while (rows.hasNext()) {
+				Object[] row = rows.next();
+				Object[] values = new Object[columnNums.length];
+				for (int i = 0; i < columnNums.length; i++) {
+					values[i] = columnNums[i] >= 0 && columnNums[i] < row.length ? row[columnNums[i]] : null;
+				}
+				excelData.add(values);
+			}
+		}
+		Object[][] columnsData = new Object[columnNames.length][excelData.size()];
+		for (int i = 0; i < excelData.size(); i++) {
+			Object[] values = excelData.get(i);
+			for (int j = 0; j < values.length; j++) {
+				columnsData[j][i] = values[j];
+			}
+		}
+		return columnsData;
+	}
+
+	@Override
+	public List<Map<String, Object>> getSheetDataAsMaps(String sheetName) {
+		this.log.trace("Retrieving data from \"" + this.filePath + "\" File.");
+		List<Map<String, Object>> excelData = new ArrayList<Map<String, Object>>();
+		try (ExcelRowIterator rows = this.getRowIterator(sheetName)) {
+			Object[] header = rows.hasNext() ? rows.next() : new Object[0];
+			while (rows.hasNext()) {
+				excelData.add(ExcelSheet.toMap(header, rows.next()));
+			}
+		}
+		return excelData;
+	}
+
+	/**
+	 * Gets the rows of the File one at a time, parsing each row only when it
+	 * is asked for. Empty lines are returned as empty arrays so row positions
+	 * are kept. Close the iterator when leaving it before the last row.
+	 *
+	 * @param sheetName Sheet Name, only used in logs.
+	 * @return Row Iterator
+	 */
+
+	@Override
+	public ExcelRowIterator getRowIterator(String sheetName) {
+		this.log.trace("Iterating rows of \"" + this.filePath + "\" File.");
+		try {
+			return new CsvRowIterator(new InputStreamReader(new FileInputStream(this.filePath), this.charset));
+		} catch (IOException e) {
+			this.log.fatal("Encountered IOException while initializing Input File \"" + this.filePath + "\"!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			return new ExcelSheet(sheetName, new Object[0][]).getRowIterator();
+		}
+	}
+
+	/**
+	 * Row Iterator parsing fields straight from a character buffer. Unquoted
+	 * fields that lie within the buffer become Strings without any copy into
+	 * an intermediate builder.
+	 */
+
+	private class CsvRowIterator implements ExcelRowIterator {
+
+		private final Reader reader;
+		private final char[] buffer;
+		private final StringBuilder field;
+		private final List<Object> row;
+		private int position;
+		private int limit;
+		private boolean isStarted;
+		private boolean isClosed;
+		private Object[] nextRow;
+
+		CsvRowIterator(Reader reader) {
+			this.reader = reader;
+			this.buffer = new char[BUFFER_SIZE];
+			this.field = new StringBuilder();
+			this.row = new ArrayList<Object>();
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.nextRow == null && !this.isClosed) {
+				try {
+					this.nextRow = this.parseRow();
+				} catch (IOException e) {
+					CsvData.this.log.fatal("Encountered IOException while reading Input File \"" + CsvData.this.filePath + "\"!");
+					CsvData.this.log.fatal(ExceptionUtils.getStackTrace(e));
+				}
+				if (this.nextRow == null) {
+					this.close();
+				}
+			}
+			return this.nextRow != null;
+		}
+
+		@Override
+		public Object[] next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException("No more rows in \"" + CsvData.this.filePath + "\" File.");
+			}
+			Object[] row = this.nextRow;
+			this.nextRow = null;
+			return row;
+		}
+
+		@Override
+		public void close() {
+			if (this.isClosed) {
+				return;
+			}
+			this.isClosed = true;
+			this.nextRow = null;
+			try {
+				this.reader.close();
+			} catch (IOException e) {
+				CsvData.this.log.error("Encountered IOException while closing Input File \"" + CsvData.this.filePath + "\"!");
+				CsvData.this.log.debug(ExceptionUtils.getStackTrace(e));
+			}
+		}
+
+		/**
+		 * Parses the next row.
+		 *
+		 * @return Row values. <code>null</code> at the end of the File.
+		 */
+
+		private Object[] parseRow() throws IOException {
+			if (this.position == this.limit && !this.fill()) {
+				return null;
+			}
+			this.row.clear();
+			int c;
+			do {
+				if ((this.position < this.limit || this.fill()) && this.buffer[this.position] == '"') {
+					this.position++;
+					c = this.parseQuotedField();
+				} else {
+					c = this.parseField();
+				}
+			} while (c == CsvData.this.delimiter);
+			if (c == '\r' && (this.position < this.limit || this.fill()) && this.buffer[this.position] == '\n') {
+				this.position++;
+			}
+			if (this.row.size() == 1 && this.row.get(0) == null) {
+				return new Object[0];
+			}
+			return this.row.toArray();
+		}
+
+		/**
+		 * Parses an unquoted field up to and including its terminator.
+		 *
+		 * @return Terminating character, or <code>-1</code> at the end of the File.
+		 */
+
+		private int parseField() throws IOException {
+			this.field.setLength(0);
+			while (true) {
+				int start = this.position;
+				for (int i = start; i < this.limit; i++) {
+					char c = this.buffer[i];
+					if (c == CsvData.this.delimiter || c == '\n' || c == '\r') {
+						this.position = i + 1;
+						if (this.field.length() == 0) {
+							this.row.add(i == start ? null : new String(this.buffer, start, i - start));
+						} else {
+							this.row.add(this.field.append(this.buffer, start, i - start).toString());
+						}
+						return c;
+					}
+				}
+				this.field.append(this.buffer, start, this.limit - start);
+				this.position = this.limit;
+				if (!this.fill()) {
+					this.row.add(this.field.length() == 0 ? null : this.field.toString());
+					return -1;
+				}
+			}
+		}
+
+		/**
+		 * Parses a quoted field, after its opening quote, up to and including
+		 * its terminator. Doubled quotes are read as one quote, and delimiters
+		 * and line breaks within quotes are kept. Characters between the
+		 * closing quote and the terminator are kept as well.
+		 *
+		 * @return Terminating character, or <code>-1</code> at the end of the File.
+		 */
+
+		private int parseQuotedField() throws IOException {
+			this.field.setLength(0);
+			boolean isQuoted = true;
+			while (this.position < this.limit || this.fill()) {
+				char c = this.buffer[this.position++];
+				if (isQuoted) {
+					if (c != '"') {
+						this.field.append(c);
+					} else if ((this.position < this.limit || this.fill()) && this.buffer[this.position] == '"') {
+						this.field.append(c);
+						this.position++;
+					} else {
+						isQuoted = false;
+					}
+				} else if (c == CsvData.this.delimiter || c == '\n' || c == '\r') {
+					this.row.add(this.field.toString());
+					return c;
+				} else {
+					this.field.append(c);
+				}
+			}
+			this.row.add(this.field.toString());
+			return -1;
+		}
+
+		/**
+		 * Reads the next chunk of the File into the buffer, skipping a leading
+		 * byte order mark.
+		 *
+		 * @return <code>false</code> at the end of the File.
+		 */
+
+		private boolean fill() throws IOException {
+			if (this.isClosed) {
+				return false;
+			}
+			int count = this.reader.read(this.buffer, 0, this.buffer.length);
+			this.position = 0;
+			this.limit = Math.max(0, count);
+			if (!this.isStarted && this.limit > 0) {
+				this.isStarted = true;
+				if (this.buffer[0] == '\uFEFF') {
+					this.position = 1;
+					return this.limit > 1 || this.fill();
+				}
+			}
+			return this.limit > 0;
+		}
+
+	}
+
+}
@@ -1,5 +1,13 @@
 package com.github.abagabagon.verifico.data.excel;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 /**
  * Interface for retrieving Excel Data
  *
@@ -52,4 +60,97 @@ public interface ExcelData {
 
 	public Object[][] getSheetData(String sheetName, boolean withHeader);
 
+	/**
+	 * Gets data from several Columns of an Excel File Sheet in one pass. Unless
+	 * overridden, e.g. by readers keeping a parsed Sheet with its header index,
+	 * the Sheet is copied through {@link #getSheetData(String, boolean)}.
+	 *
+	 * @param sheetName   Sheet Name from the Excel File where data will be
+	 *                    retrieved.
+	 * @param columnNames Column Names from the Excel File where data will be
+	 *                    retrieved.
+	 * @return Data of each Column in a form of an Object Array, in the order
+	 *         requested.
+	 */
+
+	public default Object[][] getColumnsData(String sheetName, String... columnNames) {
+		Logger log = LogManager.getLogger(this.getClass());
+		log.trace("Retrieving data of the Columns " + Arrays.toString(columnNames) + " from \"" + sheetName + "\" Excel Sheet.");
+		Object[][] sheetData = this.getSheetData(sheetName, false);
+		if (sheetData == null) {
+			return null;
+		}
+		Map<String, Integer> headerIndex = ExcelSheet.indexHeader(sheetData.length == 0 ? new Object[0] : sheetData[0]);
+		Object[][] columnsData = new Object[columnNames.length][Math.max(0, sheetData.length - 1)];
+		for (int i = 0; i < columnNames.length; i++) {
+			Integer columnNum = headerIndex.get(columnNames[i]);
+			if (columnNum == null) {
+				log.fatal("The Column Name \"" + columnNames[i] + "\" specified does not exist.");
+				continue;
+			}
+			for (int j = 0; j < columnsData[i].length; j++) {
+				Object[] row = sheetData[j + 1];
+				columnsData[i][j] = columnNum < row.length ? row[columnNum] : null;
+			}
+		}
+		return columnsData;
+	}
+
+	/**
+	 * Gets all data below the header row of the specified Excel Sheet Name,
+	 * keyed by Column Name. Unless overridden, the Sheet is copied through
+	 * {@link #getSheetData(String, boolean)}.
+	 *
+	 * @param sheetName Sheet Name from the Excel File where data will be
+	 *                  retrieved.
+	 * @return Data in a form of a List of Maps of Column Name to Cell data.
+	 */
+
+	public default List<Map<String, Object>> getSheetDataAsMaps(String sheetName) {
+		LogManager.getLogger(this.getClass()).trace("Retrieving data from \"" + sheetName + "\" Excel Sheet.");
+		Object[][] sheetData = this.getSheetData(sheetName, false);
+		if (sheetData == null) {
+			return null;
+		}
+		List<Map<String, Object>> excelData = new ArrayList<Map<String, Object>>(Math.max(0, sheetData.length - 1));
+		for (int i = 1; i < sheetData.length; i++) {
+			excelData.add(ExcelSheet.toMap(sheetData[0], sheetData[i]));
+		}
+		return excelData;
+	}
+
+	/**
+	 * Gets the rows of the specified Excel Sheet Name one at a time, starting
+	 * with the header row if any. Missing cells are <code>null</code> and rows
+	 * end at their last non-empty cell. Unless overridden, rows are taken from
+	 * {@link #getSheetData(String, boolean)} and have as many columns as the
+	 * header row.
+	 *
+	 * @param sheetName Sheet Name from the Excel File where data will be
+	 *                  retrieved.
+	 * @return Row Iterator. Empty if the Sheet could not be read.
+	 */
+
+	public default ExcelRowIterator getRowIterator(String sheetName) {
+		LogManager.getLogger(this.getClass()).trace("Iterating rows of \"" + sheetName + "\" Excel Sheet.");
+		Object[][] sheetData = this.getSheetData(sheetName, false);
+		return new ExcelSheet(sheetName, sheetData == null ? new Object[0][] : sheetData).getRowIterator();
+	}
+
+	/**
+	 * Gets a typed, column-oriented view of the rows below the header row of
+	 * the specified Excel Sheet Name, with numeric and Boolean Columns in
+	 * primitive arrays.
+	 *
+	 * @param sheetName Sheet Name from the Excel File where data will be
+	 *                  retrieved.
+	 * @return Typed Excel Sheet. <code>null</code> if the Sheet could not be read.
+	 */
+
+	public default TypedExcelSheet getTypedSheet(String sheetName) {
+		LogManager.getLogger(this.getClass()).trace("Retrieving typed data from \"" + sheetName + "\" Excel Sheet.");
+		Object[][] sheetData = this.getSheetData(sheetName, false);
+		return sheetData == null ? null : TypedExcelSheet.of(sheetName, Arrays.asList(sheetData), true);
+	}
+
 }
@@ -0,0 +1,50 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import org.apache.logging.log4j.LogManager;
+
+import com.github.abagabagon.verifico.enums.Excel;
+
+/**
+ * Creates the Excel Data Retrieval implementation of an Excel File Type
+ *
+ * @author albagabagon
+ *
+ */
+
+public class ExcelDataFactory {
+
+	private ExcelDataFactory() {
+	}
+
+	/**
+	 * Gets the Excel Data Retrieval implementation of an Excel File Type.
+	 * <code>XLS_STREAMING</code> and <code>XLSX_STREAMING</code> read XLS and
+	 * XLSX Files row by row and should be used for large Sheets. <code>CSV</code> and <code>TSV</code> read UTF-8
+	 * delimited text Files as a single Sheet.
+	 *
+	 * @param excelType	Excel File Type
+	 * @param filePath	Excel File Path.
+	 * @return Excel Data. <code>null</code> if the Excel File Type is unsupported.
+	 */
+
+	public static ExcelData getExcelData(Excel excelType, String filePath) {
+		switch (excelType) {
+		case XLS:
+			return new XLSExcelData(filePath);
+		case XLS_STREAMING:
+			return new StreamingXLSExcelData(filePath);
+		case XLSX:
+			return new XLSXExcelData(filePath);
+		case XLSX_STREAMING:
+			return new StreamingXLSXExcelData(filePath);
+		case CSV:
+			return new CsvData(filePath, ',');
+		case TSV:
+			return new CsvData(filePath, '\t');
+		default:
+			LogManager.getLogger(ExcelDataFactory.class).fatal(excelType + " is an unsupported Excel File Type.");
+			return null;
+		}
+	}
+
+}
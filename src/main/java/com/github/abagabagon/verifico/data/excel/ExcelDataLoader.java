@@ -0,0 +1,182 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.abagabagon.verifico.enums.Excel;
+
+/**
+ * Loads Sheets of many Excel Files concurrently on a bounded number of
+ * threads. Each Excel File is loaded by a single thread. XLS and XLSX
+ * Workbooks are parsed once for all of their requested Sheets, while
+ * streaming XLS, streaming XLSX and delimited text Files are read once per
+ * requested Sheet on the loading thread.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class ExcelDataLoader {
+
+	private Logger log;
+	private int maxThreads;
+	private Map<String, FileRequest> requests;
+
+	/**
+	 * Sheets requested from one Excel File.
+	 */
+
+	private static class FileRequest {
+
+		private final Excel excelType;
+		private final String filePath;
+		private final Set<String> sheetNames;
+
+		FileRequest(Excel excelType, String filePath) {
+			this.excelType = excelType;
+			this.filePath = filePath;
+			this.sheetNames = new LinkedHashSet<String>();
+		}
+
+	}
+
+	/**
+	 * Creates a loader.
+	 *
+	 * @param maxThreads Maximum number of Excel Files loaded at the same time, at least 1.
+	 */
+
+	public ExcelDataLoader(int maxThreads) {
+		this.log = LogManager.getLogger(this.getClass());
+		if (maxThreads < 1) {
+			this.log.fatal("Maximum number of threads must be at least 1, but was " + maxThreads + ". Loading Excel Files on a single thread.");
+			maxThreads = 1;
+		}
+		this.maxThreads = maxThreads;
+		this.requests = new LinkedHashMap<String, FileRequest>();
+	}
+
+	/**
+	 * Requests Sheets of an Excel File. Requests for the same Excel File are
+	 * merged, even if its path is written differently.
+	 *
+	 * @param excelType		Excel File Type
+	 * @param filePath		Excel File Path.
+	 * @param sheetNames	Sheet Names to load.
+	 * @return this loader
+	 */
+
+	public ExcelDataLoader add(Excel excelType, String filePath, String... sheetNames) {
+		String key;
+		try {
+			key = new File(filePath).getCanonicalPath();
+		} catch (IOException e) {
+			key = new File(filePath).getAbsolutePath();
+		}
+		FileRequest request = this.requests.computeIfAbsent(key, canonicalPath -> new FileRequest(excelType, filePath));
+		for (String sheetName : sheetNames) {
+			request.sheetNames.add(sheetName);
+		}
+		return this;
+	}
+
+	/**
+	 * Loads every requested Sheet, one Excel File per thread, and waits until
+	 * all of them are loaded. Sheets that could not be loaded are logged and
+	 * left out of the result.
+	 *
+	 * @return Loaded Sheets by Sheet Name, by Excel File Path as it was first requested.
+	 */
+
+	public Map<String, Map<String, ExcelSheet>> load() {
+		this.log.debug("Loading Sheets of " + this.requests.size() + " Excel File(s) on up to " + this.maxThreads + " thread(s).");
+		long start = System.nanoTime();
+		Map<String, Map<String, ExcelSheet>> excelData = new LinkedHashMap<String, Map<String, ExcelSheet>>();
+		if (this.requests.isEmpty()) {
+			return excelData;
+		}
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.maxThreads, this.requests.size()), runnable -> {
+			Thread thread = new Thread(runnable, "verifico-excel-loader-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<Map<String, ExcelSheet>>> results = new ArrayList<Future<Map<String, ExcelSheet>>>();
+			for (FileRequest request : this.requests.values()) {
+				results.add(executor.submit(this.load(request)));
+			}
+			int i = 0;
+			for (FileRequest request : this.requests.values()) {
+				try {
+					excelData.put(request.filePath, results.get(i++).get());
+				} catch (ExecutionException e) {
+					this.log.fatal("Encountered " + e.getCause().getClass().getSimpleName() + " while loading Excel File \"" + request.filePath + "\"!");
+					this.log.fatal(ExceptionUtils.getStackTrace(e.getCause()));
+				}
+			}
+		} catch (InterruptedException e) {
+			this.log.error("Interrupted while loading Excel Files.");
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+		this.log.debug("Successfully loaded Sheets of " + excelData.size() + " Excel File(s) in " + (System.nanoTime() - start) / 1000000 + " ms.");
+		return excelData;
+	}
+
+	private Callable<Map<String, ExcelSheet>> load(FileRequest request) {
+		return () -> {
+			ExcelData source = ExcelDataFactory.getExcelData(request.excelType, request.filePath);
+			Map<String, ExcelSheet> sheets = new LinkedHashMap<String, ExcelSheet>();
+			for (String sheetName : request.sheetNames) {
+				ExcelSheet sheet = getSheet(source, sheetName);
+				if (sheet != null) {
+					sheets.put(sheetName, sheet);
+				}
+			}
+			return sheets;
+		};
+	}
+
+	/**
+	 * Gets a parsed Sheet. XLS and XLSX Sheets come from the Excel Workbook
+	 * Cache. Streaming Sheets are read row by row on the calling thread, and
+	 * delimited text Files through their Row Iterator.
+	 */
+
+	private static ExcelSheet getSheet(ExcelData source, String sheetName) {
+		if (source instanceof XLSExcelData) {
+			return ((XLSExcelData) source).getSheet(sheetName);
+		}
+		if (source instanceof XLSXExcelData) {
+			return ((XLSXExcelData) source).getSheet(sheetName);
+		}
+		List<Object[]> rows = new ArrayList<Object[]>();
+		if (source instanceof StreamingExcelData) {
+			((StreamingExcelData) source).forEachRow(sheetName, rows::add);
+		} else {
+			try (ExcelRowIterator iterator = source.getRowIterator(sheetName)) {
+				iterator.forEachRemaining(rows::add);
+			}
+		}
+		return rows.isEmpty() ? null : new ExcelSheet(sheetName, rows.toArray(new Object[rows.size()][]));
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Lazy TestNG Data Provider over the rows of an Excel Sheet with a header
+ * row. Rows are read only as TestNG asks for them, so the first test starts
+ * right away. Empty rows are skipped. Memory only stays flat for large Sheets
+ * with <code>XLS_STREAMING</code> and <code>XLSX_STREAMING</code> Excel Data;
+ * <code>XLS</code> and <code>XLSX</code> Workbooks are fully parsed and kept
+ * in the Excel Workbook Cache before the first row is provided.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class ExcelDataProvider implements Iterator<Object[]>, AutoCloseable {
+
+	private Logger log;
+	private ExcelData excelData;
+	private String sheetName;
+	private Map<String, String> filters;
+	private ExcelRowIterator rows;
+	private int columnCount;
+	private int[] filterColumnNums;
+	private String[] filterValues;
+	private Object[] nextRow;
+	private boolean isDone;
+
+	/**
+	 * Creates a Data Provider over a Sheet. Nothing is read until TestNG asks
+	 * for the first row.
+	 *
+	 * @param excelData	Excel Data to read from.
+	 * @param sheetName	Sheet Name from the Excel File where data will be retrieved.
+	 */
+
+	public ExcelDataProvider(ExcelData excelData, String sheetName) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.excelData = excelData;
+		this.sheetName = sheetName;
+		this.filters = new LinkedHashMap<String, String>();
+	}
+
+	/**
+	 * Only provides rows whose value in a header column equals the given
+	 * value, e.g. <code>where("Enabled", "Y")</code>. Filters add up.
+	 *
+	 * @param columnName	Column Name in the header row.
+	 * @param value			Expected Cell value, compared as a String. <code>null</code> for empty Cells.
+	 * @return this Data Provider
+	 */
+
+	public ExcelDataProvider where(String columnName, Object value) {
+		if (this.rows != null) {
+			throw new IllegalStateException("Filters must be set before the first row is read.");
+		}
+		this.filters.put(columnName, value == null ? null : value.toString());
+		return this;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (this.rows == null) {
+			this.open();
+		}
+		while (this.nextRow == null && !this.isDone) {
+			if (!this.rows.hasNext()) {
+				this.close();
+				break;
+			}
+			Object[] row = this.rows.next();
+			if (this.isIncluded(row)) {
+				this.nextRow = row.length == this.columnCount ? row : Arrays.copyOf(row, this.columnCount);
+			}
+		}
+		return this.nextRow != null;
+	}
+
+	@Override
+	public Object[] next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException("No more rows in \"" + this.sheetName + "\" Excel Sheet.");
+		}
+		Object[] row = this.nextRow;
+		this.nextRow = null;
+		return row;
+	}
+
+	/**
+	 * Stops reading the Sheet, e.g. when the remaining rows are not needed.
+	 */
+
+	@Override
+	public void close() {
+		this.isDone = true;
+		if (this.rows != null) {
+			this.rows.close();
+		}
+	}
+
+	private void open() {
+		this.log.debug("Providing data from \"" + this.sheetName + "\" Excel Sheet.");
+		this.rows = this.excelData.getRowIterator(this.sheetName);
+		Object[] header = this.rows.hasNext() ? this.rows.next() : new Object[0];
+		this.columnCount = header.length;
+		Map<String, Integer> headerIndex = ExcelSheet.indexHeader(header);
+		this.filterColumnNums = new int[this.filters.size()];
+		this.filterValues = new String[this.filters.size()];
+		int i = 0;
+		for (Map.Entry<String, String> filter : this.filters.entrySet()) {
+			Integer columnNum = headerIndex.get(filter.getKey());
+			if (columnNum == null) {
+				this.log.fatal("The Column Name \"" + filter.getKey() + "\" specified does not exist. No rows will be provided.");
+				this.close();
+			}
+			this.filterColumnNums[i] = columnNum == null ? -1 : columnNum;
+			this.filterValues[i] = filter.getValue();
+			i++;
+		}
+	}
+
+	private boolean isIncluded(Object[] row) {
+		if (isEmpty(row)) {
+			return false;
+		}
+		for (int i = 0; i < this.filterColumnNums.length; i++) {
+			int columnNum = this.filterColumnNums[i];
+			Object value = columnNum < row.length ? row[columnNum] : null;
+			String expectedValue = this.filterValues[i];
+			if (value == null ? expectedValue != null : !value.toString().equals(expectedValue)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isEmpty(Object[] row) {
+		for (Object value : row) {
+			if (value != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
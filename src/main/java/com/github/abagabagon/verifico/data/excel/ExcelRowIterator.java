@@ -0,0 +1,22 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.util.Iterator;
+
+/**
+ * Forward-only iterator over the rows of an Excel Sheet, starting with the
+ * header row
+ *
+ * @author albagabagon
+ *
+ */
+
+public interface ExcelRowIterator extends Iterator<Object[]>, AutoCloseable {
+
+	/**
+	 * Stops reading the Excel Sheet and releases the Excel File.
+	 */
+
+	@Override
+	public void close();
+
+}
@@ -0,0 +1,338 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Parsed content of an Excel Sheet. Rows keep the length up to their last
+ * non-empty cell and missing cells are <code>null</code>.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class ExcelSheet {
+
+	private final String name;
+	private final Object[][] rows;
+	private final int cellCount;
+	private int typedCellCount;
+	private Object[][] cellValues;
+	private volatile Map<String, Integer> headerIndex;
+	private volatile TypedExcelSheet typedSheet;
+
+	ExcelSheet(String name, Object[][] rows) {
+		this.name = name;
+		this.rows = rows;
+		int cellCount = 0;
+		for (Object[] row : rows) {
+			cellCount += row.length;
+		}
+		this.cellCount = cellCount;
+	}
+
+	/**
+	 * Creates a parsed Sheet for readers that know the type of each Cell. The
+	 * typed view is only built on first use, from the typed Cell values.
+	 *
+	 * @param name			Sheet Name
+	 * @param rows			Cell data as returned by Excel Data.
+	 * @param cellValues	Typed Cell values, e.g. Doubles and LocalDateTimes,
+	 * 						where they differ from the Cell data. Rows without
+	 * 						such values may be <code>null</code>.
+	 */
+
+	ExcelSheet(String name, Object[][] rows, Object[][] cellValues) {
+		this(name, rows);
+		this.cellValues = cellValues;
+		for (Object[] row : cellValues) {
+			if (row != null) {
+				for (Object value : row) {
+					this.typedCellCount += value == null ? 0 : 1;
+				}
+			}
+		}
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public int getRowCount() {
+		return this.rows.length;
+	}
+
+	/**
+	 * Gets the number of columns of the first row, which is the header row of
+	 * data sheets.
+	 *
+	 * @return Column Count
+	 */
+
+	public int getColumnCount() {
+		return this.rows.length == 0 ? 0 : this.rows[0].length;
+	}
+
+	/**
+	 * Gets the typed view of the rows below the header row, built on first
+	 * use. Sheets parsed without Cell types get their view built from their
+	 * Cell data, where numbers and Dates are recognized from their text.
+	 *
+	 * @return Typed Excel Sheet
+	 */
+
+	public TypedExcelSheet getTypedSheet() {
+		TypedExcelSheet typedSheet = this.typedSheet;
+		if (typedSheet == null) {
+			synchronized (this) {
+				typedSheet = this.typedSheet;
+				if (typedSheet == null) {
+					typedSheet = this.cellValues == null ? TypedExcelSheet.of(this.name, Arrays.asList(this.rows), true) : TypedExcelSheet.of(this.name, this.getTypedRows(), false);
+					this.typedSheet = typedSheet;
+					this.cellValues = null;
+				}
+			}
+		}
+		return typedSheet;
+	}
+
+	/**
+	 * Gets the rows with their typed Cell values in place of the Cell data.
+	 */
+
+	private List<Object[]> getTypedRows() {
+		List<Object[]> typedRows = new ArrayList<Object[]>(this.rows.length);
+		for (int i = 0; i < this.rows.length; i++) {
+			Object[] values = i < this.cellValues.length ? this.cellValues[i] : null;
+			if (values == null) {
+				typedRows.add(this.rows[i]);
+				continue;
+			}
+			Object[] row = Arrays.copyOf(this.rows[i], this.rows[i].length);
+			for (int j = 0; j < values.length && j < row.length; j++) {
+				if (values[j] != null) {
+					row[j] = values[j];
+				}
+			}
+			typedRows.add(row);
+		}
+		return typedRows;
+	}
+
+	/**
+	 * Gets the number of Cells held, counting the typed Cell values kept for
+	 * the typed view, e.g. to weigh cached Sheets.
+	 *
+	 * @return Cell Count of the Sheet and its typed Cell values.
+	 */
+
+	int getWeight() {
+		return this.cellCount + this.typedCellCount;
+	}
+
+	/**
+	 * Gets a Cell value.
+	 *
+	 * @param rowNum	Row position, starting at 0.
+	 * @param columnNum	Column position, starting at 0.
+	 * @return Cell data in a form of an Object. <code>null</code> if the Cell is empty or does not exist.
+	 */
+
+	public Object getCellData(int rowNum, int columnNum) {
+		if (rowNum < 0 || rowNum >= this.rows.length || columnNum < 0 || columnNum >= this.rows[rowNum].length) {
+			return null;
+		}
+		return this.rows[rowNum][columnNum];
+	}
+
+	/**
+	 * Gets a copy of a row padded or trimmed to a number of columns.
+	 *
+	 * @param rowNum		Row position, starting at 0.
+	 * @param columnCount	Number of columns to return.
+	 * @return Row data in a form of an Object Array.
+	 */
+
+	public Object[] getRow(int rowNum, int columnCount) {
+		return Arrays.copyOf(this.rows[rowNum], columnCount);
+	}
+
+	/**
+	 * Gets the position of a header column. The header is indexed on first use.
+	 *
+	 * @param columnName Column Name in the first row.
+	 * @return Column position, starting at 0. <code>-1</code> if the column does not exist.
+	 */
+
+	public int getColumnNum(String columnName) {
+		Integer columnNum = this.getHeaderIndex().get(columnName);
+		return columnNum == null ? -1 : columnNum;
+	}
+
+	/**
+	 * Gets the header column positions by Column Name. Where Column Names repeat,
+	 * the first column is used.
+	 *
+	 * @return Column positions, starting at 0, by Column Name.
+	 */
+
+	public Map<String, Integer> getHeaderIndex() {
+		Map<String, Integer> headerIndex = this.headerIndex;
+		if (headerIndex == null) {
+			headerIndex = Collections.unmodifiableMap(indexHeader(this.rows.length == 0 ? new Object[0] : this.rows[0]));
+			this.headerIndex = headerIndex;
+		}
+		return headerIndex;
+	}
+
+	/**
+	 * Indexes a header row by Column Name, keeping the first column of repeated
+	 * Column Names.
+	 *
+	 * @param header Header row.
+	 * @return Column positions, starting at 0, by Column Name.
+	 */
+
+	static Map<String, Integer> indexHeader(Object[] header) {
+		Map<String, Integer> headerIndex = new HashMap<String, Integer>();
+		for (int i = 0; i < header.length; i++) {
+			if (header[i] != null) {
+				headerIndex.putIfAbsent(header[i].toString(), i);
+			}
+		}
+		return headerIndex;
+	}
+
+	/**
+	 * Gets the values of a column below the header row.
+	 *
+	 * @param columnNum Column position, starting at 0.
+	 * @return Data in a form of an Object Array.
+	 */
+
+	public Object[] getColumnData(int columnNum) {
+		Object[] columnData = new Object[Math.max(0, this.rows.length - 1)];
+		for (int i = 0; i < columnData.length; i++) {
+			columnData[i] = this.getCellData(i + 1, columnNum);
+		}
+		return columnData;
+	}
+
+	/**
+	 * Gets the values of several columns below the header row in one pass.
+	 *
+	 * @param columnNums Column positions, starting at 0. Negative positions yield <code>null</code> values.
+	 * @return Data of each column in a form of an Object Array, in the order requested.
+	 */
+
+	public Object[][] getColumnsData(int... columnNums) {
+		int rowCount = Math.max(0, this.rows.length - 1);
+		Object[][] columnsData = new Object[columnNums.length][rowCount];
+		for (int i = 0; i < rowCount; i++) {
+			Object[] row = this.rows[i + 1];
+			for (int j = 0; j < columnNums.length; j++) {
+				int columnNum = columnNums[j];
+				if (columnNum >= 0 && columnNum < row.length) {
+					columnsData[j][i] = row[columnNum];
+				}
+			}
+		}
+		return columnsData;
+	}
+
+	/**
+	 * Gets every row below the header row keyed by header Column Name.
+	 *
+	 * @return Rows in a form of Maps of Column Name to Cell data, in column order.
+	 */
+
+	public List<Map<String, Object>> getSheetDataAsMaps() {
+		Object[] header = this.rows.length == 0 ? new Object[0] : this.rows[0];
+		List<Map<String, Object>> sheetData = new ArrayList<Map<String, Object>>(Math.max(0, this.rows.length - 1));
+		for (int i = 1; i < this.rows.length; i++) {
+			sheetData.add(toMap(header, this.rows[i]));
+		}
+		return sheetData;
+	}
+
+	/**
+	 * Keys a row by the Column Names of a header row. Columns without a Column
+	 * Name are left out.
+	 *
+	 * @param header	Header row.
+	 * @param row		Data row.
+	 * @return Row in a form of a Map of Column Name to Cell data, in column order.
+	 */
+
+	static Map<String, Object> toMap(Object[] header, Object[] row) {
+		Map<String, Object> rowData = new LinkedHashMap<String, Object>(header.length * 4 / 3 + 1);
+		for (int i = 0; i < header.length; i++) {
+			if (header[i] != null) {
+				rowData.putIfAbsent(header[i].toString(), i < row.length ? row[i] : null);
+			}
+		}
+		return rowData;
+	}
+
+	/**
+	 * Gets a copy of all rows, each with as many columns as the header row.
+	 *
+	 * @param withHeader <code>true</code> if the Sheet has a header row, which is left out.
+	 * @return Data in a form of a two-dimensional Object Array.
+	 */
+
+	public Object[][] getSheetData(boolean withHeader) {
+		int firstRow = withHeader ? 1 : 0;
+		int columnCount = this.getColumnCount();
+		Object[][] sheetData = new Object[Math.max(0, this.rows.length - firstRow)][];
+		for (int i = 0; i < sheetData.length; i++) {
+			sheetData[i] = this.getRow(i + firstRow, columnCount);
+		}
+		return sheetData;
+	}
+
+	/**
+	 * Gets the rows one at a time, starting with the header row.
+	 *
+	 * @return Row Iterator returning a copy of each row.
+	 */
+
+	public ExcelRowIterator getRowIterator() {
+		return new ExcelRowIterator() {
+
+			private int rowNum;
+
+			@Override
+			public boolean hasNext() {
+				return this.rowNum < ExcelSheet.this.rows.length;
+			}
+
+			@Override
+			public Object[] next() {
+				if (!this.hasNext()) {
+					throw new NoSuchElementException("No more rows in Excel Sheet \"" + ExcelSheet.this.name + "\".");
+				}
+				Object[] row = ExcelSheet.this.rows[this.rowNum++];
+				return Arrays.copyOf(row, row.length);
+			}
+
+			@Override
+			public void close() {
+				this.rowNum = ExcelSheet.this.rows.length;
+			}
+
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "Excel Sheet \"" + this.name + "\" with " + this.rows.length + " row(s)";
+	}
+
+}
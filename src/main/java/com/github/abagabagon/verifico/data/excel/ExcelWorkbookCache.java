@@ -0,0 +1,165 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Process-wide cache of parsed Excel Workbooks keyed by canonical File Path.
+ * Entries are reloaded once the file's last modified time or size changes and
+ * the least recently used Workbooks are evicted once the total number of
+ * cached cells, including the typed Cell values kept for the typed Sheet
+ * views, exceeds the limit.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class ExcelWorkbookCache {
+
+	private static final Logger log = LogManager.getLogger(ExcelWorkbookCache.class);
+	private static volatile Cache<String, Workbook> cache = build(2000000);
+
+	private ExcelWorkbookCache() {
+	}
+
+	/**
+	 * Parsed Sheets of a Workbook along with the file state they were parsed
+	 * from.
+	 */
+
+	private static class Workbook {
+
+		private final Map<String, ExcelSheet> sheets;
+		private final long lastModified;
+		private final long size;
+		private final int cellCount;
+
+		Workbook(Map<String, ExcelSheet> sheets, long lastModified, long size) {
+			this.sheets = sheets;
+			this.lastModified = lastModified;
+			this.size = size;
+			int cellCount = 0;
+			for (ExcelSheet sheet : sheets.values()) {
+				cellCount += sheet.getWeight() + sheet.getRowCount();
+			}
+			this.cellCount = cellCount;
+		}
+
+		boolean isStale(File file) {
+			return file.lastModified() != this.lastModified || file.length() != this.size;
+		}
+
+	}
+
+	/**
+	 * Sets the maximum number of cells cached across all Workbooks. Cached
+	 * Workbooks are dropped.
+	 *
+	 * @param maximumCells Maximum number of cached cells. <code>0</code> disables caching.
+	 */
+
+	public static void setMaximumCells(long maximumCells) {
+		Cache<String, Workbook> previous = cache;
+		cache = build(maximumCells);
+		previous.invalidateAll();
+	}
+
+	/**
+	 * Drops the cached Workbook of a file, e.g. after it was written by the
+	 * test itself within the file system's timestamp resolution.
+	 *
+	 * @param filePath Excel File Path.
+	 */
+
+	public static void invalidate(String filePath) {
+		try {
+			cache.invalidate(new File(filePath).getCanonicalPath());
+		} catch (IOException e) {
+			log.error("Unable to resolve canonical path of Excel File \"" + filePath + "\".");
+		}
+	}
+
+	/**
+	 * Drops every cached Workbook.
+	 */
+
+	public static void clear() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Gets the hit, miss, load and eviction counts of the cache.
+	 *
+	 * @return Cache Statistics
+	 */
+
+	public static CacheStats getStatistics() {
+		return cache.stats();
+	}
+
+	/**
+	 * Gets a parsed Sheet, parsing the Workbook when it is not cached or was
+	 * modified since it was cached. Concurrent callers share one parse per
+	 * file.
+	 *
+	 * @param filePath	Excel File Path.
+	 * @param sheetName	Sheet Name.
+	 * @param loader	Parses every Sheet of the Workbook. Returns <code>null</code> if it could not be parsed.
+	 * @return Excel Sheet. <code>null</code> if the Workbook could not be parsed or has no such Sheet.
+	 */
+
+	static ExcelSheet getSheet(String filePath, String sheetName, Callable<Map<String, ExcelSheet>> loader) {
+		File file;
+		try {
+			file = new File(filePath).getCanonicalFile();
+		} catch (IOException e) {
+			log.fatal("Encountered IOException while resolving canonical path of Excel File \"" + filePath + "\"!");
+			log.fatal(ExceptionUtils.getStackTrace(e));
+			return null;
+		}
+		String key = file.getPath();
+		Cache<String, Workbook> cache = ExcelWorkbookCache.cache;
+		Workbook workbook = cache.asMap().get(key);
+		if (workbook != null && workbook.isStale(file)) {
+			log.debug("Excel File \"" + key + "\" was modified since it was cached. Parsing it again.");
+			cache.invalidate(key);
+		}
+		try {
+			workbook = cache.get(key, () -> {
+				long lastModified = file.lastModified();
+				long size = file.length();
+				Map<String, ExcelSheet> sheets = loader.call();
+				return sheets == null ? null : new Workbook(sheets, lastModified, size);
+			});
+		} catch (InvalidCacheLoadException e) {
+			return null;
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			log.fatal("Encountered " + e.getCause().getClass().getSimpleName() + " while parsing Excel File \"" + key + "\"!");
+			log.fatal(ExceptionUtils.getStackTrace(e.getCause()));
+			return null;
+		}
+		ExcelSheet sheet = workbook.sheets.get(sheetName);
+		if (sheet == null) {
+			log.fatal("The Sheet Name \"" + sheetName + "\" specified does not exist.");
+		}
+		return sheet;
+	}
+
+	private static Cache<String, Workbook> build(long maximumCells) {
+		return CacheBuilder.newBuilder().maximumWeight(maximumCells).<String, Workbook>weigher((key, workbook) -> workbook.cellCount).recordStats().build();
+	}
+
+}
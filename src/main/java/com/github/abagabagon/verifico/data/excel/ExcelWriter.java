@@ -0,0 +1,226 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import com.github.abagabagon.verifico.data.sql.SQLRowIterator;
+
+/**
+ * Streaming XLSX File writer. Only a window of the most recent rows is kept
+ * in memory; older rows are flushed to a temporary file, so Sheets of any
+ * size can be written from row iterators with constant memory.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class ExcelWriter implements AutoCloseable {
+
+	private static final long MAX_EXACT_LONG = 1L << 53;
+
+	private Logger log;
+	private String filePath;
+	private SXSSFWorkbook book;
+	private CellStyle dateStyle;
+	private CellStyle dateTimeStyle;
+
+	/**
+	 * Creates a writer keeping the default window of 100 rows in memory.
+	 *
+	 * @param filePath Output XLSX File Path.
+	 */
+
+	public ExcelWriter(String filePath) {
+		this(filePath, SXSSFWorkbook.DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Creates a writer.
+	 *
+	 * @param filePath	Output XLSX File Path.
+	 * @param rowWindow	Number of rows per Sheet kept in memory before being
+	 *                  flushed to a temporary file.
+	 */
+
+	public ExcelWriter(String filePath, int rowWindow) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.filePath = filePath;
+		this.book = new SXSSFWorkbook(rowWindow);
+		this.book.setCompressTempFiles(true);
+		this.dateStyle = this.book.createCellStyle();
+		this.dateStyle.setDataFormat(this.book.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+		this.dateTimeStyle = this.book.createCellStyle();
+		this.dateTimeStyle.setDataFormat(this.book.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+	}
+
+	/**
+	 * Writes a Sheet from a header row and row iterator, e.g. the Row
+	 * Iterator of an Excel Data. Numbers, Booleans and Dates keep their type;
+	 * other values are written as text and <code>null</code> values as empty
+	 * Cells. Numbers too precise for an Excel Cell, such as Longs beyond 2^53
+	 * or BigDecimals with more than 15 significant digits, are written as
+	 * text so no digit is lost.
+	 *
+	 * @param sheetName	Sheet Name to create.
+	 * @param header	Header row. <code>null</code> if the rows have no header.
+	 * @param rows		Rows to write.
+	 * @return Number of rows written below the header. <code>-1</code> if the Sheet could not be written.
+	 */
+
+	public int writeSheet(String sheetName, Object[] header, Iterator<Object[]> rows) {
+		this.log.debug("Writing \"" + sheetName + "\" Excel Sheet.");
+		int rowCount = 0;
+		try {
+			Sheet sheet = this.book.createSheet(sheetName);
+			int rowNum = 0;
+			if (header != null) {
+				this.writeRow(sheet.createRow(rowNum++), header);
+			}
+			while (rows.hasNext()) {
+				this.writeRow(sheet.createRow(rowNum++), rows.next());
+				rowCount++;
+			}
+		} catch (IllegalArgumentException e) {
+			this.log.fatal("Encountered IllegalArgumentException while writing \"" + sheetName + "\" Excel Sheet!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			return -1;
+		} catch (Exception e) {
+			this.log.fatal("Encountered Exception while writing \"" + sheetName + "\" Excel Sheet!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			return -1;
+		}
+		this.log.debug("Successfully wrote " + rowCount + " row(s) to \"" + sheetName + "\" Excel Sheet.");
+		return rowCount;
+	}
+
+	/**
+	 * Writes a Sheet from rows whose first row is the header row.
+	 *
+	 * @param sheetName	Sheet Name to create.
+	 * @param rows		Rows to write, starting with the header row.
+	 * @return Number of rows written below the header. <code>-1</code> if the Sheet could not be written.
+	 */
+
+	public int writeSheet(String sheetName, Object[][] rows) {
+		if (rows.length == 0) {
+			return this.writeSheet(sheetName, null, Arrays.<Object[]>asList().iterator());
+		}
+		return this.writeSheet(sheetName, rows[0], Arrays.asList(rows).subList(1, rows.length).iterator());
+	}
+
+	/**
+	 * Writes a Sheet from a streamed SQL Query result, with the Column Labels as
+	 * header row. The SQL Row Iterator is closed once written.
+	 *
+	 * @param sheetName	Sheet Name to create.
+	 * @param rows		SQL Row Iterator, e.g. from {@code SQLData.selectRows}.
+	 * @return Number of rows written below the header. <code>-1</code> if the Sheet could not be written.
+	 */
+
+	public int writeSheet(String sheetName, SQLRowIterator rows) {
+		try (SQLRowIterator sqlRows = rows) {
+			return this.writeSheet(sheetName, sqlRows.getColumnLabels(), new Iterator<Object[]>() {
+
+				@Override
+				public boolean hasNext() {
+					return sqlRows.hasNext();
+				}
+
+				@Override
+				public Object[] next() {
+					return sqlRows.next().toArray();
+				}
+
+			});
+		}
+	}
+
+	/**
+	 * Saves the written Sheets to the Output XLSX File and deletes the
+	 * temporary files. The writer cannot be used afterwards.
+	 */
+
+	@Override
+	public void close() {
+		this.log.debug("Saving Excel File \"" + this.filePath + "\".");
+		try (OutputStream excelOut = new FileOutputStream(this.filePath)) {
+			this.book.write(excelOut);
+			this.log.debug("Successfully saved Excel File \"" + this.filePath + "\".");
+		} catch (IOException e) {
+			this.log.fatal("Encountered IOException while saving Output Excel File!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		} finally {
+			this.book.dispose();
+			try {
+				this.book.close();
+			} catch (IOException e) {
+				this.log.error("Encountered IOException while closing Output Excel File!");
+				this.log.debug(ExceptionUtils.getStackTrace(e));
+			}
+		}
+	}
+
+	private void writeRow(Row row, Object[] values) {
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			if (value == null) {
+				continue;
+			}
+			Cell cell = row.createCell(i);
+			if (value instanceof Number && isExactDouble((Number) value)) {
+				cell.setCellValue(((Number) value).doubleValue());
+			} else if (value instanceof Boolean) {
+				cell.setCellValue((Boolean) value);
+			} else if (value instanceof java.sql.Date || value instanceof LocalDate) {
+				cell.setCellValue(value instanceof LocalDate ? (LocalDate) value : ((java.sql.Date) value).toLocalDate());
+				cell.setCellStyle(this.dateStyle);
+			} else if (value instanceof Date) {
+				cell.setCellValue((Date) value);
+				cell.setCellStyle(this.dateTimeStyle);
+			} else if (value instanceof LocalDateTime) {
+				cell.setCellValue((LocalDateTime) value);
+				cell.setCellStyle(this.dateTimeStyle);
+			} else {
+				cell.setCellValue(value.toString());
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a Number keeps its value as an Excel Cell, which holds a
+	 * double with 15 significant digits. Integers beyond 2^53 and decimals
+	 * with more digits are written as text instead.
+	 *
+	 * @param value Number to write.
+	 * @return <code>true</code> if the Number can be written as a Numeric Cell.
+	 */
+
+	private static boolean isExactDouble(Number value) {
+		if (value instanceof Long) {
+			return Math.abs(value.longValue()) <= MAX_EXACT_LONG;
+		} else if (value instanceof BigInteger) {
+			return ((BigInteger) value).abs().compareTo(BigInteger.valueOf(MAX_EXACT_LONG)) <= 0;
+		} else if (value instanceof BigDecimal) {
+			return ((BigDecimal) value).stripTrailingZeros().precision() <= 15;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,323 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Excel Data Retrieval for readers that push the rows of a Sheet one at a
+ * time instead of loading the whole Workbook into memory. Every read is
+ * answered from a single pass over the Sheet's rows.
+ *
+ * @author albagabagon
+ *
+ */
+
+abstract class StreamingExcelData implements ExcelData {
+
+	private static final int ROW_BUFFER_SIZE = 256;
+	private static final Object[] END_OF_SHEET = new Object[0];
+
+	protected Logger log;
+	protected String filePath;
+
+	StreamingExcelData(String filePath) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.filePath = filePath;
+	}
+
+	/**
+	 * Reads the rows of an Excel Sheet one at a time. Only the current row is
+	 * kept in memory. Missing rows are passed as empty arrays so row positions
+	 * are kept, and missing cells are <code>null</code>.
+	 *
+	 * @param sheetName		Sheet Name from the Excel File where data will be retrieved.
+	 * @param rowHandler	Consumer of each row, in a form of an Object Array.
+	 * @return <code>true</code> if the whole Sheet was read.
+	 */
+
+	public boolean forEachRow(String sheetName, Consumer<Object[]> rowHandler) {
+		return this.forEachRow(sheetName, false, rowHandler);
+	}
+
+	/**
+	 * Reads the rows of an Excel Sheet one at a time, stopping early when a row
+	 * handler throws a {@link StopReadingException}.
+	 *
+	 * @param sheetName		Sheet Name from the Excel File where data will be retrieved.
+	 * @param isTyped		Whether Numeric and Date values are passed as Doubles
+	 * 						and LocalDateTimes instead of Strings.
+	 * @param rowHandler	Consumer of each row, in a form of an Object Array.
+	 * @return <code>true</code> if the Sheet was read.
+	 */
+
+	abstract boolean forEachRow(String sheetName, boolean isTyped, Consumer<Object[]> rowHandler);
+
+	@Override
+	public Object getCellData(String sheetName, int rowNum, int columnNum) {
+		this.log.trace("Retrieving Cell Data from \"" + sheetName + "\" Excel Sheet.");
+		Object[] excelData = new Object[1];
+		int[] currentRow = { 0 };
+		this.forEachRow(sheetName, row -> {
+			if (currentRow[0]++ == rowNum) {
+				excelData[0] = columnNum < row.length ? row[columnNum] : null;
+				throw new StopReadingException();
+			}
+		});
+		return excelData[0];
+	}
+
+	@Override
+	public Object[] getColumnData(String sheetName, String columnName) {
+		this.log.trace("Retrieving data of the Column \"" + columnName + "\" from \"" + sheetName + "\" Excel Sheet.");
+		List<Object> excelData = new ArrayList<Object>();
+		int[] columnNum = { -1 };
+		boolean[] isHeader = { true };
+		boolean isRead = this.forEachRow(sheetName, row -> {
+			if (isHeader[0]) {
+				isHeader[0] = false;
+				Integer headerColumnNum = ExcelSheet.indexHeader(row).get(columnName);
+				if (headerColumnNum == null) {
+					this.log.fatal("The Column Name \"" + columnName + "\" specified does not exist.");
+				}
+				columnNum[0] = headerColumnNum == null ? -1 : headerColumnNum;
+				return;
+			}
+			excelData.add(columnNum[0] >= 0 && columnNum[0] < row.length ? row[columnNum[0]] : null);
+		});
+		if (!isRead) {
+			return null;
+		}
+		return excelData.toArray();
+	}
+
+	@Override
+	public Object[][] getSheetData(String sheetName, boolean withHeader) {
+		this.log.trace("Retrieving data from \"" + sheetName + "\" Excel Sheet.");
+		List<Object[]> excelData = new ArrayList<Object[]>();
+		int[] columnCount = { -1 };
+		boolean isRead = this.forEachRow(sheetName, row -> {
+			if (columnCount[0] < 0) {
+				columnCount[0] = row.length;
+				if (!withHeader) {
+					excelData.add(row);
+				}
+				return;
+			}
+			excelData.add(row.length == columnCount[0] ? row : Arrays.copyOf(row, columnCount[0]));
+		});
+		if (!isRead) {
+			return null;
+		}
+		if (excelData.isEmpty()) {
+			this.log.fatal("No Data is available for Sheet Name: " + sheetName + ".");
+		}
+		return excelData.toArray(new Object[excelData.size()][]);
+	}
+
+	@Override
+	public Object[][] getColumnsData(String sheetName, String... columnNames) {
+		this.log.trace("Retrieving data of the Columns " + Arrays.toString(columnNames) + " from \"" + sheetName + "\" Excel Sheet.");
+		List<Object[]> excelData = new ArrayList<Object[]>();
+		int[] columnNums = new int[columnNames.length];
+		boolean[] isHeader = { true };
+		boolean isRead = this.forEachRow(sheetName, row -> {
+			if (isHeader[0]) {
+				isHeader[0] = false;
+				Map<String, Integer> headerIndex = ExcelSheet.indexHeader(row);
+				for (int i = 0; i < columnNames.length; i++) {
+					Integer columnNum = headerIndex.get(columnNames[i]);
+					if (columnNum == null) {
+						this.log.fatal("The Column Name \"" + columnNames[i] + "\" specified does not exist.");
+					}
+					columnNums[i] = columnNum == null ? -1 : columnNum;
+				}
+				return;
+			}
+			Object[] values = new Object[columnNums.length];
+			for (int i = 0; i < columnNums.length; i++) {
+				values[i] = columnNums[i] >= 0 && columnNums[i] < row.length ? row[columnNums[i]] : null;
+			}
+			excelData.add(values);
+		});
+		if (!isRead) {
+			return null;
+		}
+		Object[][] columnsData = new Object[columnNames.length][excelData.size()];
+		for (int i = 0; i < excelData.size(); i++) {
+			Object[] values = excelData.get(i);
+			for (int j = 0; j < values.length; j++) {
+				columnsData[j][i] = values[j];
+			}
+		}
+		return columnsData;
+	}
+
+	@Override
+	public List<Map<String, Object>> getSheetDataAsMaps(String sheetName) {
+		this.log.trace("Retrieving data from \"" + sheetName + "\" Excel Sheet.");
+		List<Map<String, Object>> excelData = new ArrayList<Map<String, Object>>();
+		Object[][] header = { null };
+		boolean isRead = this.forEachRow(sheetName, row -> {
+			if (header[0] == null) {
+				header[0] = row;
+				return;
+			}
+			excelData.add(ExcelSheet.toMap(header[0], row));
+		});
+		return isRead ? excelData : null;
+	}
+
+	@Override
+	public TypedExcelSheet getTypedSheet(String sheetName) {
+		this.log.trace("Retrieving typed data from \"" + sheetName + "\" Excel Sheet.");
+		List<Object[]> rows = new ArrayList<Object[]>();
+		return this.forEachRow(sheetName, true, rows::add) ? TypedExcelSheet.of(sheetName, rows, false) : null;
+	}
+
+	/**
+	 * Gets the rows of an Excel Sheet one at a time. The Sheet is parsed on a
+	 * background thread that stays at most a few hundred rows ahead of the
+	 * caller, so the first row is available right away and memory stays flat.
+	 * Close the iterator when leaving it before the last row. An iterator that
+	 * is dropped without closing stops its parse once it is garbage collected.
+	 *
+	 * @param sheetName Sheet Name from the Excel File where data will be retrieved.
+	 * @return Row Iterator
+	 */
+
+	@Override
+	public ExcelRowIterator getRowIterator(String sheetName) {
+		this.log.trace("Iterating rows of \"" + sheetName + "\" Excel Sheet.");
+		return new StreamingRowIterator(sheetName);
+	}
+
+	/**
+	 * Row Iterator handing rows over from a background SAX parse through a
+	 * bounded queue.
+	 */
+
+	private class StreamingRowIterator implements ExcelRowIterator {
+
+		private final RowBuffer buffer;
+		private final BlockingQueue<Object[]> rows;
+		private Object[] nextRow;
+		private boolean isDone;
+
+		StreamingRowIterator(String sheetName) {
+			this.buffer = new RowBuffer(this);
+			this.rows = this.buffer.rows;
+			StreamingExcelData excelData = StreamingExcelData.this;
+			RowBuffer buffer = this.buffer;
+			Thread reader = new Thread(() -> {
+				try {
+					excelData.forEachRow(sheetName, buffer::hand);
+					buffer.hand(END_OF_SHEET);
+				} catch (StopReadingException e) {
+					excelData.log.trace("Stopped iterating rows of \"" + sheetName + "\" Excel Sheet.");
+				}
+			}, "verifico-excel-reader");
+			reader.setDaemon(true);
+			reader.start();
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.nextRow == null && !this.isDone) {
+				try {
+					Object[] row = this.rows.take();
+					if (row == END_OF_SHEET) {
+						this.isDone = true;
+					} else {
+						this.nextRow = row;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					this.close();
+				}
+			}
+			return this.nextRow != null;
+		}
+
+		@Override
+		public Object[] next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException("No more rows in Excel Sheet.");
+			}
+			Object[] row = this.nextRow;
+			this.nextRow = null;
+			return row;
+		}
+
+		@Override
+		public void close() {
+			this.buffer.isClosed = true;
+			this.isDone = true;
+			this.nextRow = null;
+			this.rows.clear();
+		}
+
+	}
+
+	/**
+	 * Queue between the background parse and its Row Iterator. The parse only
+	 * holds the iterator weakly, so an iterator dropped without closing can be
+	 * garbage collected and its parse stops.
+	 */
+
+	private static class RowBuffer {
+
+		private final BlockingQueue<Object[]> rows;
+		private final WeakReference<ExcelRowIterator> iterator;
+		private volatile boolean isClosed;
+
+		RowBuffer(ExcelRowIterator iterator) {
+			this.rows = new ArrayBlockingQueue<Object[]>(ROW_BUFFER_SIZE);
+			this.iterator = new WeakReference<ExcelRowIterator>(iterator);
+		}
+
+		/**
+		 * Hands a row over to the caller, waiting while the queue is full. Stops
+		 * the parse once the iterator is closed or garbage collected.
+		 */
+
+		private void hand(Object[] row) {
+			try {
+				while (!this.rows.offer(row, 100, TimeUnit.MILLISECONDS)) {
+					if (this.isClosed || this.iterator.get() == null) {
+						throw new StopReadingException();
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new StopReadingException();
+			}
+		}
+
+	}
+
+	/**
+	 * Thrown from a row handler to stop reading the rest of a Sheet.
+	 */
+
+	static class StopReadingException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		StopReadingException() {
+			super(null, null, false, false);
+		}
+
+	}
+
+}
@@ -0,0 +1,305 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.RKRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * Implemented Excel Data Retrieval for XLS File Type reading Sheets as a
+ * stream of records through the HSSF Event Model instead of loading the whole
+ * Workbook into memory. Values are the same as XLSExcelData's.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class StreamingXLSExcelData extends StreamingExcelData {
+
+	public StreamingXLSExcelData(String filePath) {
+		super(filePath);
+	}
+
+	@Override
+	boolean forEachRow(String sheetName, boolean isTyped, Consumer<Object[]> rowHandler) {
+		this.log.trace("Streaming rows from \"" + sheetName + "\" Excel Sheet.");
+		RecordListener listener = new RecordListener(sheetName, isTyped, rowHandler);
+		try (POIFSFileSystem fileSystem = new POIFSFileSystem(new File(this.filePath), true)) {
+			HSSFRequest request = new HSSFRequest();
+			request.addListenerForAllRecords(listener.formatListener);
+			try {
+				new HSSFEventFactory().processWorkbookEvents(request, fileSystem);
+			} catch (StopReadingException e) {
+				this.log.trace("Stopped streaming rows from \"" + sheetName + "\" Excel Sheet.");
+			}
+			if (listener.isSheetFound) {
+				return true;
+			}
+			this.log.fatal("The Sheet Name \"" + sheetName + "\" specified does not exist.");
+		} catch (IOException e) {
+			this.log.fatal("Encountered IOException while reading Input Excel File!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		} catch (Exception e) {
+			this.log.fatal("Encountered Exception while reading Input Excel File!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+		return false;
+	}
+
+	/**
+	 * HSSF record listener turning the cell records of one Sheet into rows.
+	 * Sheets are matched to their names by the order of their BOF records, and
+	 * reading stops at the end of the requested Sheet.
+	 */
+
+	private class RecordListener implements HSSFListener {
+
+		private final String sheetName;
+		private final boolean isTyped;
+		private final Consumer<Object[]> rowHandler;
+		private final FormatTrackingHSSFListener formatListener;
+		private final List<BoundSheetRecord> boundSheets;
+		private SSTRecord sharedStrings;
+		private boolean is1904;
+		private int sheetIndex;
+		private int currentSheetIndex;
+		private int depth;
+		private boolean isSheetFound;
+		private Object[] row;
+		private int rowNum;
+		private int cellRowNum;
+		private int lastColumnNum;
+		private int lastRowNum;
+		private FormulaRecord stringFormula;
+
+		RecordListener(String sheetName, boolean isTyped, Consumer<Object[]> rowHandler) {
+			this.sheetName = sheetName;
+			this.isTyped = isTyped;
+			this.rowHandler = rowHandler;
+			this.formatListener = new FormatTrackingHSSFListener(this);
+			this.boundSheets = new ArrayList<BoundSheetRecord>();
+			this.sheetIndex = -1;
+			this.currentSheetIndex = -1;
+			this.row = new Object[16];
+			this.cellRowNum = -1;
+			this.lastColumnNum = -1;
+			this.lastRowNum = -1;
+		}
+
+		@Override
+		public void processRecord(Record record) {
+			switch (record.getSid()) {
+			case BOFRecord.sid:
+				if (this.depth++ == 0 && ((BOFRecord) record).getType() != BOFRecord.TYPE_WORKBOOK) {
+					this.currentSheetIndex++;
+				}
+				return;
+			case EOFRecord.sid:
+				if (--this.depth == 0) {
+					if (this.currentSheetIndex < 0) {
+						this.findSheet();
+					} else if (this.currentSheetIndex == this.sheetIndex) {
+						this.endSheet();
+					}
+				}
+				return;
+			case BoundSheetRecord.sid:
+				this.boundSheets.add((BoundSheetRecord) record);
+				return;
+			case SSTRecord.sid:
+				this.sharedStrings = (SSTRecord) record;
+				return;
+			case DateWindow1904Record.sid:
+				this.is1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+				return;
+			default:
+				break;
+			}
+			if (this.depth != 1 || this.sheetIndex < 0 || this.currentSheetIndex != this.sheetIndex) {
+				return;
+			}
+			switch (record.getSid()) {
+			case RowRecord.sid:
+				this.lastRowNum = Math.max(this.lastRowNum, ((RowRecord) record).getRowNumber());
+				break;
+			case LabelSSTRecord.sid:
+				LabelSSTRecord labelSST = (LabelSSTRecord) record;
+				this.setCell(labelSST, this.sharedStrings.getString(labelSST.getSSTIndex()).getString());
+				break;
+			case LabelRecord.sid:
+				LabelRecord label = (LabelRecord) record;
+				this.setCell(label, label.getValue());
+				break;
+			case NumberRecord.sid:
+				NumberRecord number = (NumberRecord) record;
+				this.setCell(number, this.getNumericValue(number, number.getValue()));
+				break;
+			case RKRecord.sid:
+				RKRecord rk = (RKRecord) record;
+				this.setCell(rk, this.getNumericValue(rk, rk.getRKNumber()));
+				break;
+			case BoolErrRecord.sid:
+				BoolErrRecord boolErr = (BoolErrRecord) record;
+				if (boolErr.isBoolean()) {
+					this.setCell(boolErr, boolErr.getBooleanValue());
+				} else {
+					StreamingXLSExcelData.this.log.error("Encountered undefined Cell Type: " + CellType.ERROR);
+					this.setCell(boolErr, null);
+				}
+				break;
+			case FormulaRecord.sid:
+				FormulaRecord formula = (FormulaRecord) record;
+				this.setFormulaCell(formula);
+				break;
+			case StringRecord.sid:
+				if (this.stringFormula != null) {
+					this.setCell(this.stringFormula, ((StringRecord) record).getString());
+					this.stringFormula = null;
+				}
+				break;
+			case BlankRecord.sid:
+				this.setCell((BlankRecord) record, null);
+				break;
+			case MulBlankRecord.sid:
+				MulBlankRecord mulBlank = (MulBlankRecord) record;
+				this.setCell(mulBlank.getRow(), mulBlank.getLastColumn(), null);
+				break;
+			default:
+				break;
+			}
+		}
+
+		/**
+		 * Finds the position of the requested Sheet once the Workbook globals
+		 * are read, or stops reading if it does not exist.
+		 */
+
+		private void findSheet() {
+			BoundSheetRecord[] sheets = BoundSheetRecord.orderByBofPosition(this.boundSheets);
+			for (int i = 0; i < sheets.length; i++) {
+				if (sheets[i].getSheetname().equals(this.sheetName)) {
+					this.sheetIndex = i;
+					this.isSheetFound = true;
+					return;
+				}
+			}
+			throw new StopReadingException();
+		}
+
+		/**
+		 * Passes on the remaining rows of the requested Sheet and stops reading.
+		 */
+
+		private void endSheet() {
+			this.setCell(Math.max(this.lastRowNum, this.cellRowNum) + 1, -1, null);
+			throw new StopReadingException();
+		}
+
+		private void setFormulaCell(FormulaRecord formula) {
+			switch (formula.getCachedResultTypeEnum()) {
+			case STRING:
+				if (formula.hasCachedResultString()) {
+					this.stringFormula = formula;
+				} else {
+					this.setCell(formula, "");
+				}
+				break;
+			case NUMERIC:
+				this.setCell(formula, this.getNumericValue(formula, formula.getValue()));
+				break;
+			case BOOLEAN:
+				this.setCell(formula, formula.getCachedBooleanValue());
+				break;
+			default:
+				StreamingXLSExcelData.this.log.error("Encountered undefined Cell Type: " + formula.getCachedResultTypeEnum());
+				this.setCell(formula, null);
+			}
+		}
+
+		/**
+		 * Gets a Numeric Cell value the way XLSExcelData does: Dates are
+		 * recognized by the Cell's Data Format, and values are Strings unless
+		 * typed values are requested.
+		 */
+
+		private Object getNumericValue(CellValueRecordInterface cell, double value) {
+			boolean isDate = false;
+			if (DateUtil.isValidExcelDate(value)) {
+				int formatIndex = this.formatListener.getFormatIndex(cell);
+				isDate = DateUtil.isADateFormat(formatIndex, this.formatListener.getFormatString(formatIndex));
+			}
+			if (this.isTyped) {
+				return isDate ? DateUtil.getLocalDateTime(value, this.is1904) : (Object) value;
+			}
+			if (isDate) {
+				return DateUtil.getJavaDate(value, this.is1904).toString();
+			}
+			return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : new BigDecimal(value).toString();
+		}
+
+		private void setCell(CellValueRecordInterface cell, Object value) {
+			this.setCell(cell.getRow(), cell.getColumn(), value);
+		}
+
+		/**
+		 * Sets a Cell of the current row, first passing on the rows before it.
+		 * Rows without Cells are passed as empty arrays, and blank Cells count
+		 * towards the row length like in XLSExcelData.
+		 */
+
+		private void setCell(int rowNum, int columnNum, Object value) {
+			if (rowNum != this.cellRowNum) {
+				if (this.cellRowNum >= 0) {
+					Object[] values = Arrays.copyOf(this.row, this.lastColumnNum + 1);
+					Arrays.fill(this.row, 0, this.lastColumnNum + 1, null);
+					this.rowNum = this.cellRowNum + 1;
+					this.rowHandler.accept(values);
+				}
+				for (; this.rowNum < rowNum; this.rowNum++) {
+					this.rowHandler.accept(new Object[0]);
+				}
+				this.cellRowNum = rowNum;
+				this.lastColumnNum = -1;
+			}
+			if (columnNum < 0) {
+				return;
+			}
+			if (columnNum >= this.row.length) {
+				this.row = Arrays.copyOf(this.row, Math.max(this.row.length * 2, columnNum + 1));
+			}
+			this.row[columnNum] = value;
+			this.lastColumnNum = Math.max(this.lastColumnNum, columnNum);
+		}
+
+	}
+
+}
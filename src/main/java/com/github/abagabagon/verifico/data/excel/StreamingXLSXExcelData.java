@@ -0,0 +1,373 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Implemented Excel Data Retrieval for XLSX File Type reading Sheets as a
+ * stream of rows through the XSSF Event Model instead of loading the whole
+ * Workbook into memory. Shared Strings and Cell Styles are read with SAX as
+ * well, so no XML Beans are created.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class StreamingXLSXExcelData extends StreamingExcelData {
+
+	public StreamingXLSXExcelData(String filePath) {
+		super(filePath);
+	}
+
+	@Override
+	boolean forEachRow(String sheetName, boolean isTyped, Consumer<Object[]> rowHandler) {
+		this.log.trace("Streaming rows from \"" + sheetName + "\" Excel Sheet.");
+		try (OPCPackage excelPackage = OPCPackage.open(this.filePath, PackageAccess.READ)) {
+			XSSFReader reader = new XSSFReader(excelPackage);
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				try (InputStream sheet = sheets.next()) {
+					if (sheets.getSheetName().equals(sheetName)) {
+						WorkbookHandler workbook = new WorkbookHandler();
+						SharedStringsHandler sharedStrings = new SharedStringsHandler();
+						StylesHandler styles = new StylesHandler();
+						parse(reader.getWorkbookData(), workbook);
+						parse(reader.getSharedStringsData(), sharedStrings);
+						parse(reader.getStylesData(), styles);
+						XMLReader xmlReader = XMLHelper.newXMLReader();
+						xmlReader.setContentHandler(new SheetHandler(sharedStrings.getStrings(), styles, workbook.is1904(), isTyped, rowHandler));
+						try {
+							xmlReader.parse(new InputSource(sheet));
+						} catch (StopReadingException e) {
+							this.log.trace("Stopped streaming rows from \"" + sheetName + "\" Excel Sheet.");
+						}
+						return true;
+					}
+				}
+			}
+			this.log.fatal("The Sheet Name \"" + sheetName + "\" specified does not exist.");
+		} catch (IOException e) {
+			this.log.fatal("Encountered IOException while reading Input Excel File!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		} catch (OpenXML4JException e) {
+			this.log.fatal("Encountered OpenXML4JException while opening Input Excel File for Apache POI!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		} catch (SAXException e) {
+			this.log.fatal("Encountered SAXException while parsing \"" + sheetName + "\" Excel Sheet!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		} catch (Exception e) {
+			this.log.fatal("Encountered Exception while reading Input Excel File!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+		return false;
+	}
+
+	private static void parse(InputStream part, DefaultHandler handler) throws IOException, SAXException, ParserConfigurationException {
+		if (part == null) {
+			return;
+		}
+		try (InputStream in = part) {
+			XMLReader xmlReader = XMLHelper.newXMLReader();
+			xmlReader.setContentHandler(handler);
+			xmlReader.parse(new InputSource(in));
+		}
+	}
+
+	/**
+	 * SAX handler reading whether the Workbook uses the 1904 Date system.
+	 */
+
+	private static class WorkbookHandler extends DefaultHandler {
+
+		private boolean is1904;
+
+		boolean is1904() {
+			return this.is1904;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			if (localName.equals("workbookPr")) {
+				String date1904 = attributes.getValue("date1904");
+				this.is1904 = "1".equals(date1904) || "true".equals(date1904);
+			}
+		}
+
+	}
+
+	/**
+	 * SAX handler reading the Shared Strings Table, ignoring phonetic runs.
+	 */
+
+	private static class SharedStringsHandler extends DefaultHandler {
+
+		private final List<String> strings;
+		private final StringBuilder value;
+		private boolean isText;
+		private boolean isPhonetic;
+
+		SharedStringsHandler() {
+			this.strings = new ArrayList<String>();
+			this.value = new StringBuilder();
+		}
+
+		List<String> getStrings() {
+			return this.strings;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			switch (localName) {
+			case "si":
+				this.value.setLength(0);
+				break;
+			case "rPh":
+				this.isPhonetic = true;
+				break;
+			case "t":
+				this.isText = !this.isPhonetic;
+				break;
+			default:
+				break;
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			switch (localName) {
+			case "si":
+				this.strings.add(this.value.toString());
+				break;
+			case "rPh":
+				this.isPhonetic = false;
+				break;
+			case "t":
+				this.isText = false;
+				break;
+			default:
+				break;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (this.isText) {
+				this.value.append(ch, start, length);
+			}
+		}
+
+	}
+
+	/**
+	 * SAX handler reading which Cell Styles have a Date format.
+	 */
+
+	private static class StylesHandler extends DefaultHandler {
+
+		private final Map<Integer, String> formats;
+		private final List<Boolean> isDateStyle;
+		private boolean isCellFormat;
+
+		StylesHandler() {
+			this.formats = new HashMap<Integer, String>();
+			this.isDateStyle = new ArrayList<Boolean>();
+		}
+
+		boolean isDateFormatted(int styleIndex) {
+			return styleIndex < this.isDateStyle.size() && this.isDateStyle.get(styleIndex);
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			switch (localName) {
+			case "numFmt":
+				this.formats.put(Integer.parseInt(attributes.getValue("numFmtId")), attributes.getValue("formatCode"));
+				break;
+			case "cellXfs":
+				this.isCellFormat = true;
+				break;
+			case "xf":
+				if (this.isCellFormat) {
+					String formatId = attributes.getValue("numFmtId");
+					int format = formatId == null ? 0 : Integer.parseInt(formatId);
+					String formatString = this.formats.containsKey(format) ? this.formats.get(format) : BuiltinFormats.getBuiltinFormat(format);
+					this.isDateStyle.add(DateUtil.isADateFormat(format, formatString));
+				}
+				break;
+			default:
+				break;
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			if (localName.equals("cellXfs")) {
+				this.isCellFormat = false;
+			}
+		}
+
+	}
+
+	/**
+	 * SAX handler turning the cells of a Sheet XML into rows with the same
+	 * values as XLSXExcelData: Strings, Booleans, and Numeric and Date values
+	 * in a form of a String, with error Cells as <code>null</code>. Typed
+	 * handlers give Numeric values as Doubles and Date values as
+	 * LocalDateTimes instead.
+	 */
+
+	private class SheetHandler extends DefaultHandler {
+
+		private final List<String> sharedStrings;
+		private final StylesHandler styles;
+		private final boolean is1904;
+		private final boolean isTyped;
+		private final Consumer<Object[]> rowHandler;
+		private final StringBuilder value;
+		private Object[] row;
+		private int rowNum;
+		private int lastColumnNum;
+		private int columnNum;
+		private String cellType;
+		private String cellStyle;
+		private boolean isValue;
+
+		SheetHandler(List<String> sharedStrings, StylesHandler styles, boolean is1904, boolean isTyped, Consumer<Object[]> rowHandler) {
+			this.sharedStrings = sharedStrings;
+			this.styles = styles;
+			this.is1904 = is1904;
+			this.isTyped = isTyped;
+			this.rowHandler = rowHandler;
+			this.value = new StringBuilder();
+			this.row = new Object[16];
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			switch (localName) {
+			case "row":
+				String rowReference = attributes.getValue("r");
+				int rowNum = rowReference == null ? this.rowNum : Integer.parseInt(rowReference) - 1;
+				for (; this.rowNum < rowNum; this.rowNum++) {
+					this.rowHandler.accept(new Object[0]);
+				}
+				this.lastColumnNum = -1;
+				this.columnNum = -1;
+				break;
+			case "c":
+				String cellReference = attributes.getValue("r");
+				this.columnNum = cellReference == null ? this.columnNum + 1 : this.getColumnNum(cellReference);
+				this.cellType = attributes.getValue("t");
+				this.cellStyle = attributes.getValue("s");
+				this.value.setLength(0);
+				break;
+			case "v":
+			case "t":
+				this.isValue = true;
+				break;
+			default:
+				break;
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			switch (localName) {
+			case "v":
+			case "t":
+				this.isValue = false;
+				break;
+			case "c":
+				if (this.value.length() > 0) {
+					if (this.columnNum >= this.row.length) {
+						this.row = Arrays.copyOf(this.row, Math.max(this.row.length * 2, this.columnNum + 1));
+					}
+					this.row[this.columnNum] = this.getCellValue(this.value.toString());
+					this.lastColumnNum = Math.max(this.lastColumnNum, this.columnNum);
+				}
+				break;
+			case "row":
+				Object[] values = Arrays.copyOf(this.row, this.lastColumnNum + 1);
+				Arrays.fill(this.row, 0, this.lastColumnNum + 1, null);
+				this.rowNum++;
+				this.rowHandler.accept(values);
+				break;
+			default:
+				break;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (this.isValue) {
+				this.value.append(ch, start, length);
+			}
+		}
+
+		private Object getCellValue(String rawValue) {
+			if (this.cellType == null || this.cellType.equals("n")) {
+				if (this.isTyped) {
+					double value = Double.parseDouble(rawValue);
+					return this.isDateFormatted() ? DateUtil.getLocalDateTime(value, this.is1904) : (Object) value;
+				}
+				if (this.isDateFormatted()) {
+					return DateUtil.getJavaDate(Double.parseDouble(rawValue), this.is1904).toString();
+				}
+				return rawValue.indexOf('E') < 0 && rawValue.indexOf('e') < 0 ? rawValue : new BigDecimal(rawValue).toString();
+			}
+			switch (this.cellType) {
+			case "s":
+				return this.sharedStrings.get(Integer.parseInt(rawValue));
+			case "b":
+				return rawValue.equals("1");
+			case "e":
+				StreamingXLSXExcelData.this.log.error("Encountered undefined Cell Type: " + CellType.ERROR);
+				return null;
+			default:
+				return rawValue;
+			}
+		}
+
+		private boolean isDateFormatted() {
+			return this.styles.isDateFormatted(this.cellStyle == null ? 0 : Integer.parseInt(this.cellStyle));
+		}
+
+		private int getColumnNum(String cellReference) {
+			int columnNum = 0;
+			for (int i = 0; i < cellReference.length(); i++) {
+				char c = cellReference.charAt(i);
+				if (c < 'A' || c > 'Z') {
+					break;
+				}
+				columnNum = columnNum * 26 + (c - 'A' + 1);
+			}
+			return columnNum - 1;
+		}
+
+	}
+
+}
@@ -0,0 +1,564 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * Typed, column-oriented view of the rows below the header row of an Excel
+ * Sheet. Numeric columns are kept in double arrays and Boolean columns in
+ * boolean arrays, each with a null bitmap, so reading them needs neither
+ * String parsing nor boxing.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class TypedExcelSheet {
+
+	private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+	private static final int MAX_DOUBLE_DIGITS = 15;
+
+	private enum ColumnType {
+		DOUBLE, BOOLEAN, DATE, STRING
+	}
+
+	private final String name;
+	private final String[] columnNames;
+	private final Map<String, Integer> columnIndex;
+	private final ColumnType[] columnTypes;
+	private final Object[] columns;
+	private final BitSet[] nulls;
+	private final int rowCount;
+
+	private TypedExcelSheet(String name, Object[] header, int columnCount, int rowCount) {
+		this.name = name;
+		this.columnNames = new String[columnCount];
+		for (int i = 0; i < header.length; i++) {
+			this.columnNames[i] = header[i] == null ? null : header[i].toString();
+		}
+		this.columnIndex = ExcelSheet.indexHeader(header);
+		this.columnTypes = new ColumnType[columnCount];
+		this.columns = new Object[columnCount];
+		this.nulls = new BitSet[columnCount];
+		this.rowCount = rowCount;
+	}
+
+	/**
+	 * Builds a typed view of Sheet rows. A column whose values below the header
+	 * are all numbers is stored as doubles, a column of Booleans as booleans
+	 * and a column of Dates as LocalDateTimes. Any other column is stored as
+	 * Strings.
+	 *
+	 * @param name		Sheet Name
+	 * @param rows		Sheet rows, starting with the header row.
+	 * @param parseText	Whether Strings holding numbers, "true"/"false" or Dates
+	 * 					as written by {@link Date#toString()} count as numbers,
+	 * 					Booleans or Dates, for rows read without Cell types.
+	 * 					Numbers with a leading zero or more than 15 significant
+	 * 					digits, such as IDs, are kept as Strings.
+	 * @return Typed Excel Sheet
+	 */
+
+	static TypedExcelSheet of(String name, List<Object[]> rows, boolean parseText) {
+		Object[] header = rows.isEmpty() ? new Object[0] : rows.get(0);
+		int columnCount = header.length;
+		for (Object[] row : rows) {
+			columnCount = Math.max(columnCount, row.length);
+		}
+		int rowCount = Math.max(0, rows.size() - 1);
+		TypedExcelSheet sheet = new TypedExcelSheet(name, header, columnCount, rowCount);
+		for (int i = 0; i < columnCount; i++) {
+			sheet.columnTypes[i] = getColumnType(rows, i, parseText);
+			sheet.nulls[i] = new BitSet(rowCount);
+			switch (sheet.columnTypes[i]) {
+			case DOUBLE:
+				double[] doubles = new double[rowCount];
+				for (int j = 0; j < rowCount; j++) {
+					Object value = getValue(rows.get(j + 1), i);
+					if (value == null) {
+						sheet.nulls[i].set(j);
+					} else {
+						doubles[j] = value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+					}
+				}
+				sheet.columns[i] = doubles;
+				break;
+			case BOOLEAN:
+				boolean[] booleans = new boolean[rowCount];
+				for (int j = 0; j < rowCount; j++) {
+					Object value = getValue(rows.get(j + 1), i);
+					if (value == null) {
+						sheet.nulls[i].set(j);
+					} else {
+						booleans[j] = value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString());
+					}
+				}
+				sheet.columns[i] = booleans;
+				break;
+			case DATE:
+				LocalDateTime[] dates = new LocalDateTime[rowCount];
+				for (int j = 0; j < rowCount; j++) {
+					Object value = getValue(rows.get(j + 1), i);
+					if (value == null) {
+						sheet.nulls[i].set(j);
+					} else {
+						if (value instanceof String) {
+							dates[j] = parseDateText((String) value);
+						} else {
+							dates[j] = value instanceof Date ? LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault()) : (LocalDateTime) value;
+						}
+					}
+				}
+				sheet.columns[i] = dates;
+				break;
+			default:
+				String[] strings = new String[rowCount];
+				for (int j = 0; j < rowCount; j++) {
+					Object value = getValue(rows.get(j + 1), i);
+					if (value == null) {
+						sheet.nulls[i].set(j);
+					} else {
+						strings[j] = value.toString();
+					}
+				}
+				sheet.columns[i] = strings;
+			}
+		}
+		return sheet;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Gets the number of rows below the header row.
+	 *
+	 * @return Row Count
+	 */
+
+	public int getRowCount() {
+		return this.rowCount;
+	}
+
+	public int getColumnCount() {
+		return this.columnNames.length;
+	}
+
+	int getCellCount() {
+		return this.rowCount * this.columnNames.length;
+	}
+
+	/**
+	 * Gets the header Column Name of a column.
+	 *
+	 * @param columnNum Column position, starting at 0.
+	 * @return Column Name. <code>null</code> if the header Cell is empty.
+	 */
+
+	public String getColumnName(int columnNum) {
+		return this.columnNames[columnNum];
+	}
+
+	/**
+	 * Gets the position of a header column.
+	 *
+	 * @param columnName Column Name in the header row.
+	 * @return Column position, starting at 0.
+	 * @throws IllegalArgumentException if the column does not exist.
+	 */
+
+	public int getColumnNum(String columnName) {
+		Integer columnNum = this.columnIndex.get(columnName);
+		if (columnNum == null) {
+			throw new IllegalArgumentException("Column \"" + columnName + "\" does not exist in Excel Sheet \"" + this.name + "\".");
+		}
+		return columnNum;
+	}
+
+	/**
+	 * Checks whether a Cell is empty.
+	 *
+	 * @param rowNum	Row position below the header row, starting at 0.
+	 * @param columnNum	Column position, starting at 0.
+	 * @return <code>true</code> if the Cell is empty.
+	 */
+
+	public boolean isNull(int rowNum, int columnNum) {
+		this.checkRow(rowNum);
+		return this.nulls[columnNum].get(rowNum);
+	}
+
+	/**
+	 * Gets a numeric Cell value. Text Cells are parsed; empty Cells are
+	 * <code>0</code>.
+	 *
+	 * @param rowNum	Row position below the header row, starting at 0.
+	 * @param columnNum	Column position, starting at 0.
+	 * @return Cell value
+	 * @throws NumberFormatException if a text Cell does not hold a number.
+	 * @throws IllegalStateException if the column holds Booleans or Dates.
+	 */
+
+	public double getDouble(int rowNum, int columnNum) {
+		if (this.isNull(rowNum, columnNum)) {
+			return 0;
+		}
+		switch (this.columnTypes[columnNum]) {
+		case DOUBLE:
+			return ((double[]) this.columns[columnNum])[rowNum];
+		case STRING:
+			return Double.parseDouble(((String[]) this.columns[columnNum])[rowNum]);
+		default:
+			throw this.getTypeMismatch(columnNum, "a number");
+		}
+	}
+
+	public double getDouble(int rowNum, String columnName) {
+		return this.getDouble(rowNum, this.getColumnNum(columnName));
+	}
+
+	/**
+	 * Gets a numeric Cell value as an int, dropping any fractional part.
+	 *
+	 * @param rowNum	Row position below the header row, starting at 0.
+	 * @param columnNum	Column position, starting at 0.
+	 * @return Cell value
+	 */
+
+	public int getInt(int rowNum, int columnNum) {
+		return (int) this.getDouble(rowNum, columnNum);
+	}
+
+	public int getInt(int rowNum, String columnName) {
+		return this.getInt(rowNum, this.getColumnNum(columnName));
+	}
+
+	public long getLong(int rowNum, int columnNum) {
+		return (long) this.getDouble(rowNum, columnNum);
+	}
+
+	public long getLong(int rowNum, String columnName) {
+		return this.getLong(rowNum, this.getColumnNum(columnName));
+	}
+
+	/**
+	 * Gets a Boolean Cell value. Text Cells are <code>true</code> if they read
+	 * "true", ignoring case; empty Cells are <code>false</code>.
+	 *
+	 * @param rowNum	Row position below the header row, starting at 0.
+	 * @param columnNum	Column position, starting at 0.
+	 * @return Cell value
+	 * @throws IllegalStateException if the column holds numbers or Dates.
+	 */
+
+	public boolean getBoolean(int rowNum, int columnNum) {
+		if (this.isNull(rowNum, columnNum)) {
+			return false;
+		}
+		switch (this.columnTypes[columnNum]) {
+		case BOOLEAN:
+			return ((boolean[]) this.columns[columnNum])[rowNum];
+		case STRING:
+			return Boolean.parseBoolean(((String[]) this.columns[columnNum])[rowNum]);
+		default:
+			throw this.getTypeMismatch(columnNum, "a Boolean");
+		}
+	}
+
+	public boolean getBoolean(int rowNum, String columnName) {
+		return this.getBoolean(rowNum, this.getColumnNum(columnName));
+	}
+
+	/**
+	 * Gets a Date Cell value. Numeric Cells are read as Excel date serial
+	 * numbers and text Cells are parsed as ISO-8601 dates.
+	 *
+	 * @param rowNum	Row position below the header row, starting at 0.
+	 * @param columnNum	Column position, starting at 0.
+	 * @return Cell value. <code>null</code> if the Cell is empty.
+	 * @throws IllegalStateException if the column holds Booleans.
+	 */
+
+	public LocalDate getLocalDate(int rowNum, int columnNum) {
+		LocalDateTime value = this.getLocalDateTime(rowNum, columnNum);
+		return value == null ? null : value.toLocalDate();
+	}
+
+	public LocalDate getLocalDate(int rowNum, String columnName) {
+		return this.getLocalDate(rowNum, this.getColumnNum(columnName));
+	}
+
+	public LocalDateTime getLocalDateTime(int rowNum, int columnNum) {
+		if (this.isNull(rowNum, columnNum)) {
+			return null;
+		}
+		switch (this.columnTypes[columnNum]) {
+		case DATE:
+			return ((LocalDateTime[]) this.columns[columnNum])[rowNum];
+		case DOUBLE:
+			return DateUtil.getLocalDateTime(((double[]) this.columns[columnNum])[rowNum]);
+		case STRING:
+			String value = ((String[]) this.columns[columnNum])[rowNum];
+			LocalDateTime dateTime = parseDateText(value);
+			if (dateTime != null) {
+				return dateTime;
+			}
+			return value.indexOf('T') < 0 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+		default:
+			throw this.getTypeMismatch(columnNum, "a Date");
+		}
+	}
+
+	public LocalDateTime getLocalDateTime(int rowNum, String columnName) {
+		return this.getLocalDateTime(rowNum, this.getColumnNum(columnName));
+	}
+
+	/**
+	 * Gets a Cell value as text. Whole numbers are written without a decimal
+	 * point.
+	 *
+	 * @param rowNum	Row position below the header row, starting at 0.
+	 * @param columnNum	Column position, starting at 0.
+	 * @return Cell value. <code>null</code> if the Cell is empty.
+	 */
+
+	public String getString(int rowNum, int columnNum) {
+		if (this.isNull(rowNum, columnNum)) {
+			return null;
+		}
+		switch (this.columnTypes[columnNum]) {
+		case DOUBLE:
+			double value = ((double[]) this.columns[columnNum])[rowNum];
+			return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+		case BOOLEAN:
+			return Boolean.toString(((boolean[]) this.columns[columnNum])[rowNum]);
+		case DATE:
+			return ((LocalDateTime[]) this.columns[columnNum])[rowNum].toString();
+		default:
+			return ((String[]) this.columns[columnNum])[rowNum];
+		}
+	}
+
+	public String getString(int rowNum, String columnName) {
+		return this.getString(rowNum, this.getColumnNum(columnName));
+	}
+
+	/**
+	 * Gets the values of a numeric column without boxing. Empty Cells are
+	 * <code>0</code>; check them with {@link #getNulls(int)}.
+	 *
+	 * @param columnNum Column position, starting at 0.
+	 * @return Column values. Shared with the view; do not modify.
+	 * @throws IllegalStateException if the column is not numeric.
+	 */
+
+	public double[] getDoubleColumn(int columnNum) {
+		if (this.columnTypes[columnNum] != ColumnType.DOUBLE) {
+			throw this.getTypeMismatch(columnNum, "numbers");
+		}
+		return (double[]) this.columns[columnNum];
+	}
+
+	public double[] getDoubleColumn(String columnName) {
+		return this.getDoubleColumn(this.getColumnNum(columnName));
+	}
+
+	/**
+	 * Gets the values of a numeric column as ints, dropping any fractional
+	 * part.
+	 *
+	 * @param columnNum Column position, starting at 0.
+	 * @return Column values.
+	 * @throws IllegalStateException if the column is not numeric.
+	 */
+
+	public int[] getIntColumn(int columnNum) {
+		double[] doubles = this.getDoubleColumn(columnNum);
+		int[] ints = new int[doubles.length];
+		for (int i = 0; i < doubles.length; i++) {
+			ints[i] = (int) doubles[i];
+		}
+		return ints;
+	}
+
+	public int[] getIntColumn(String columnName) {
+		return this.getIntColumn(this.getColumnNum(columnName));
+	}
+
+	/**
+	 * Gets the values of a Boolean column without boxing. Empty Cells are
+	 * <code>false</code>; check them with {@link #getNulls(int)}.
+	 *
+	 * @param columnNum Column position, starting at 0.
+	 * @return Column values. Shared with the view; do not modify.
+	 * @throws IllegalStateException if the column is not Boolean.
+	 */
+
+	public boolean[] getBooleanColumn(int columnNum) {
+		if (this.columnTypes[columnNum] != ColumnType.BOOLEAN) {
+			throw this.getTypeMismatch(columnNum, "Booleans");
+		}
+		return (boolean[]) this.columns[columnNum];
+	}
+
+	public boolean[] getBooleanColumn(String columnName) {
+		return this.getBooleanColumn(this.getColumnNum(columnName));
+	}
+
+	/**
+	 * Gets the values of a column as dates.
+	 *
+	 * @param columnNum Column position, starting at 0.
+	 * @return Column values. <code>null</code> for empty Cells.
+	 */
+
+	public LocalDate[] getLocalDateColumn(int columnNum) {
+		LocalDate[] dates = new LocalDate[this.rowCount];
+		for (int i = 0; i < this.rowCount; i++) {
+			dates[i] = this.getLocalDate(i, columnNum);
+		}
+		return dates;
+	}
+
+	public LocalDate[] getLocalDateColumn(String columnName) {
+		return this.getLocalDateColumn(this.getColumnNum(columnName));
+	}
+
+	/**
+	 * Gets the null bitmap of a column. Bit <code>n</code> is set when row
+	 * <code>n</code> is empty.
+	 *
+	 * @param columnNum Column position, starting at 0.
+	 * @return Copy of the Null Bitmap.
+	 */
+
+	public BitSet getNulls(int columnNum) {
+		return (BitSet) this.nulls[columnNum].clone();
+	}
+
+	@Override
+	public String toString() {
+		return "Typed Excel Sheet \"" + this.name + "\" with " + this.rowCount + " row(s)";
+	}
+
+	private void checkRow(int rowNum) {
+		if (rowNum < 0 || rowNum >= this.rowCount) {
+			throw new IndexOutOfBoundsException("Row " + rowNum + " does not exist. Row Count: " + this.rowCount + ".");
+		}
+	}
+
+	private IllegalStateException getTypeMismatch(int columnNum, String expected) {
+		return new IllegalStateException("Column \"" + this.columnNames[columnNum] + "\" of Excel Sheet \"" + this.name + "\" holds " + this.columnTypes[columnNum] + " values, not " + expected + ".");
+	}
+
+	private static Object getValue(Object[] row, int columnNum) {
+		return columnNum < row.length ? row[columnNum] : null;
+	}
+
+	private static ColumnType getColumnType(List<Object[]> rows, int columnNum, boolean parseText) {
+		boolean isDouble = true;
+		boolean isBoolean = true;
+		boolean isDate = true;
+		boolean isEmpty = true;
+		for (int i = 1; i < rows.size(); i++) {
+			Object value = getValue(rows.get(i), columnNum);
+			if (value == null) {
+				continue;
+			}
+			isEmpty = false;
+			isDouble &= value instanceof Number || parseText && value instanceof String && isNumber((String) value);
+			isBoolean &= value instanceof Boolean || parseText && value instanceof String && (((String) value).equalsIgnoreCase("true") || ((String) value).equalsIgnoreCase("false"));
+			isDate &= value instanceof Date || value instanceof LocalDateTime || parseText && value instanceof String && parseDateText((String) value) != null;
+			if (!isDouble && !isBoolean && !isDate) {
+				return ColumnType.STRING;
+			}
+		}
+		if (isEmpty) {
+			return ColumnType.STRING;
+		}
+		return isDouble ? ColumnType.DOUBLE : isBoolean ? ColumnType.BOOLEAN : ColumnType.DATE;
+	}
+
+	/**
+	 * Parses a Date written by {@link Date#toString()}, e.g. Date Cells read as
+	 * text, keeping its local date and time and ignoring its time zone.
+	 *
+	 * @param value Text such as <code>Sun Jan 09 09:30:00 UTC 2000</code>.
+	 * @return Date and time. <code>null</code> if the text is not such a Date.
+	 */
+
+	static LocalDateTime parseDateText(String value) {
+		int length = value.length();
+		if (length < 26 || value.charAt(3) != ' ' || value.charAt(7) != ' ' || value.charAt(10) != ' ' || value.charAt(13) != ':'
+				|| value.charAt(16) != ':' || value.charAt(19) != ' ' || value.charAt(length - 5) != ' ') {
+			return null;
+		}
+		int month = MONTHS.indexOf(value.substring(4, 7));
+		if (month < 0 || month % 3 != 0) {
+			return null;
+		}
+		try {
+			return LocalDateTime.of(Integer.parseInt(value.substring(length - 4)), month / 3 + 1, Integer.parseInt(value.substring(8, 10)),
+					Integer.parseInt(value.substring(11, 13)), Integer.parseInt(value.substring(14, 16)), Integer.parseInt(value.substring(17, 19)));
+		} catch (NumberFormatException | DateTimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Checks whether a String is a decimal number a double holds without loss,
+	 * without the cost of a failed {@link Double#parseDouble(String)}. Numbers
+	 * with a leading zero, e.g. <code>00123</code>, or with more than 15
+	 * significant digits are not.
+	 */
+
+	private static boolean isNumber(String value) {
+		int length = value.length();
+		int i = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+		if (i + 1 < length && value.charAt(i) == '0' && value.charAt(i + 1) >= '0' && value.charAt(i + 1) <= '9') {
+			return false;
+		}
+		boolean hasDigit = false;
+		boolean hasPoint = false;
+		int digitCount = 0;
+		for (; i < length; i++) {
+			char c = value.charAt(i);
+			if (c >= '0' && c <= '9') {
+				hasDigit = true;
+				if ((digitCount > 0 || c != '0') && ++digitCount > MAX_DOUBLE_DIGITS) {
+					return false;
+				}
+			} else if (c == '.' && !hasPoint) {
+				hasPoint = true;
+			} else if ((c == 'E' || c == 'e') && hasDigit && i + 1 < length) {
+				return isExponent(value, i + 1);
+			} else {
+				return false;
+			}
+		}
+		return hasDigit;
+	}
+
+	private static boolean isExponent(String value, int start) {
+		int i = value.charAt(start) == '-' || value.charAt(start) == '+' ? start + 1 : start;
+		if (i == value.length()) {
+			return false;
+		}
+		for (; i < value.length(); i++) {
+			if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
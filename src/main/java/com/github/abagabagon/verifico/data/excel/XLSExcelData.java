@@ -4,11 +4,19 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.hssf.usermodel.HSSFCell;
+import org.apache.poi.hssf.usermodel.HSSFRow;
+import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DateUtil;
 
 /**
@@ -76,166 +84,230 @@ public class XLSExcelData implements ExcelData {
 
 	@Override
 	public Object getCellData(String sheetName, int rowNum, int columnNum) {
-		initializeInputFile();
 		this.log.trace("Retrieving Cell Data from \"" + sheetName + "\" Excel Sheet.");
-		Object excelData = new Object();
-		this.cell = this.book.getSheet(sheetName).getRow(rowNum).getCell(columnNum);
-		excelData = this.getCellValue(this.cell);
-		closeInputFile();
-		return excelData;
+		ExcelSheet sheet = this.getSheet(sheetName);
+		return sheet == null ? null : sheet.getCellData(rowNum, columnNum);
 	}
 
 	@Override
 	public Object[] getColumnData(String sheetName, String columnName) {
-		initializeInputFile();
 		this.log.trace("Retrieving data of the Column \"" + columnName + "\" from \"" + sheetName + "\" Excel Sheet.");
-		int columnCount = this.book.getSheet(sheetName).getRow(0).getPhysicalNumberOfCells();
-		int rowCount = this.book.getSheet(sheetName).getPhysicalNumberOfRows();
-		Object[] excelData = new Object[rowCount - 1];
-		boolean columnExist = false;
-		int columnNum;
-		for (int i = 0; i < columnCount; i++) {
-			this.cell = this.book.getSheet(sheetName).getRow(0).getCell(i);
-			if (this.cell.getStringCellValue().toString().equals(columnName)) {
-				columnNum = i;
-				columnExist = true;
-				for (int j = 0; j < rowCount - 1; j++) {
-					this.cell = this.book.getSheet(sheetName).getRow(j + 1).getCell(columnNum);
-					excelData[j] = this.getCellValue(this.cell);
-				}
-				break;
-			}
+		ExcelSheet sheet = this.getSheet(sheetName);
+		if (sheet == null) {
+			return null;
 		}
-		if (!columnExist) {
+		int columnNum = sheet.getColumnNum(columnName);
+		if (columnNum < 0) {
 			this.log.fatal("The Column Name \"" + columnName + "\" specified does not exist.");
 		}
-		closeInputFile();
-		return excelData;
+		return sheet.getColumnData(columnNum);
 	}
 
 	@Override
 	public Object[][] getSheetData(String sheetName, boolean withHeader) {
-		initializeInputFile();
 		this.log.trace("Retrieving data from \"" + sheetName + "\" Excel Sheet.");
-		int columnCount = this.book.getSheet(sheetName).getRow(0).getPhysicalNumberOfCells();
-		int rowCount    = this.book.getSheet(sheetName).getPhysicalNumberOfRows();
-		Object[][] excelData = null;
-
-		if(withHeader) {
-			excelData = new Object[rowCount - 1][columnCount];
-			if (rowCount > 0) {
-				for (int i = 1; i < rowCount; i++) {
-					for (int j = 0; j < columnCount; j++) {
-						this.cell = this.book.getSheet(sheetName).getRow(i).getCell(j);
-						excelData[i - 1][j] = this.getCellValue(this.cell);
-						continue;
-					}
-				}
-			} else {
-				this.log.fatal("Test Data is not available for Test Case: " + sheetName + ".");
+		ExcelSheet sheet = this.getSheet(sheetName);
+		if (sheet == null) {
+			return null;
+		}
+		if (sheet.getRowCount() == 0) {
+			this.log.fatal("No Data is available for Sheet Name: " + sheetName + ".");
+		}
+		return sheet.getSheetData(withHeader);
+	}
+
+	@Override
+	public Object[][] getColumnsData(String sheetName, String... columnNames) {
+		this.log.trace("Retrieving data of the Columns " + Arrays.toString(columnNames) + " from \"" + sheetName + "\" Excel Sheet.");
+		ExcelSheet sheet = this.getSheet(sheetName);
+		if (sheet == null) {
+			return null;
+		}
+		int[] columnNums = new int[columnNames.length];
+		for (int i = 0; i < columnNames.length; i++) {
+			columnNums[i] = sheet.getColumnNum(columnNames[i]);
+			if (columnNums[i] < 0) {
+				this.log.fatal("The Column Name \"" + columnNames[i] + "\" specified does not exist.");
 			}
-		} else {
-			excelData = new Object[rowCount][columnCount];
-			if (rowCount > 0) {
-				for (int i = 0; i < rowCount; i++) {
-					for (int j = 0; j < columnCount; j++) {
-						this.cell = this.book.getSheet(sheetName).getRow(i).getCell(j);
-						excelData[i][j] = this.getCellValue(this.cell);
-						continue;
+		}
+		return sheet.getColumnsData(columnNums);
+	}
+
+	@Override
+	public List<Map<String, Object>> getSheetDataAsMaps(String sheetName) {
+		this.log.trace("Retrieving data from \"" + sheetName + "\" Excel Sheet.");
+		ExcelSheet sheet = this.getSheet(sheetName);
+		return sheet == null ? null : sheet.getSheetDataAsMaps();
+	}
+
+	@Override
+	public ExcelRowIterator getRowIterator(String sheetName) {
+		this.log.trace("Iterating rows of \"" + sheetName + "\" Excel Sheet.");
+		ExcelSheet sheet = this.getSheet(sheetName);
+		return (sheet == null ? new ExcelSheet(sheetName, new Object[0][]) : sheet).getRowIterator();
+	}
+
+	@Override
+	public TypedExcelSheet getTypedSheet(String sheetName) {
+		this.log.trace("Retrieving typed data from \"" + sheetName + "\" Excel Sheet.");
+		ExcelSheet sheet = this.getSheet(sheetName);
+		return sheet == null ? null : sheet.getTypedSheet();
+	}
+
+	/**
+	 * Gets a parsed Sheet from the Excel Workbook Cache, parsing the Excel File
+	 * only if it is not cached yet or was modified.
+	 *
+	 * @param sheetName Sheet Name from the Excel File.
+	 * @return Excel Sheet. <code>null</code> if the Excel File could not be parsed.
+	 */
+
+	ExcelSheet getSheet(String sheetName) {
+		return ExcelWorkbookCache.getSheet(this.filePath, sheetName, this::readWorkbook);
+	}
+
+	/**
+	 * Parses every Sheet of the Excel File.
+	 *
+	 * @return Excel Sheets by Sheet Name. <code>null</code> if the Excel File could not be parsed.
+	 */
+
+	private Map<String, ExcelSheet> readWorkbook() {
+		this.book = null;
+		initializeInputFile();
+		if (this.book == null) {
+			closeInputFile();
+			return null;
+		}
+		this.log.trace("Parsing Excel File \"" + this.filePath + "\".");
+		Map<String, ExcelSheet> sheets = new HashMap<String, ExcelSheet>();
+		for (int i = 0; i < this.book.getNumberOfSheets(); i++) {
+			HSSFSheet sheet = this.book.getSheetAt(i);
+			Object[][] rows = new Object[sheet.getLastRowNum() + 1][];
+			Object[][] cellValues = new Object[rows.length][];
+			for (int j = 0; j < rows.length; j++) {
+				HSSFRow row = sheet.getRow(j);
+				rows[j] = new Object[row == null ? 0 : Math.max(0, row.getLastCellNum())];
+				for (int k = 0; k < rows[j].length; k++) {
+					this.cell = row.getCell(k);
+					if (this.cell != null && this.cell.getCellType() != CellType.BLANK) {
+						Object cellValue = this.getCellValue(this.cell);
+						rows[j][k] = this.getCellData(this.cell, cellValue);
+						if (cellValue != rows[j][k]) {
+							if (cellValues[j] == null) {
+								cellValues[j] = new Object[rows[j].length];
+							}
+							cellValues[j][k] = cellValue;
+						}
 					}
 				}
-			} else {
-				this.log.fatal("No Data is available for Sheet Name: " + sheetName + ".");
 			}
+			sheets.put(sheet.getSheetName(), new ExcelSheet(sheet.getSheetName(), rows, cellValues));
 		}
-
+		this.book = null;
+		this.cell = null;
 		closeInputFile();
-		return excelData;
+		return sheets;
 	}
 
 	/**
-	 * Get value of a Excel Cell.
+	 * Get value of a Excel Cell. Formula Cells give the result cached when the
+	 * Workbook was last calculated.
 	 *
 	 * @param cell HSSFCell Object
-	 * @return Cell data in a form of an Object.
+	 * @return Cell value in a form of a String, Double, LocalDateTime or Boolean.
 	 */
 
 	private Object getCellValue(HSSFCell cell) {
-		Object excelData = null;
-		switch(this.cell.getCellType()) {
+		CellType cellType = cell.getCellType();
+		if (cellType == CellType.FORMULA) {
+			cellType = cell.getCachedFormulaResultType();
+		}
+		switch (cellType) {
 		case STRING:
-			excelData = getStringCellTypeData(cell);
-			break;
+			return this.getStringCellTypeData(cell);
 		case NUMERIC:
-			excelData = this.getNumericCellTypeData(cell);
-			break;
+			return this.getNumericCellTypeData(cell);
 		case BOOLEAN:
-			excelData = getBooleanCellTypeData(cell);
-			break;
-		case FORMULA:
-			excelData = this.getFormulaCellTypeData(cell);
+			return this.getBooleanCellTypeData(cell);
+		case BLANK:
+			return null;
 		default:
-			this.log.error("Encountered undefined Cell Type: " + cell.getCellType());
+			this.log.error("Encountered undefined Cell Type: " + cellType);
+			return null;
 		}
-		return excelData;
 	}
 
 	/**
-	 * Get value of a String Type Excel Cell.
+	 * Converts a Cell value to the Cell data returned by Excel Data, where
+	 * Numeric and Date values are Strings.
 	 *
-	 * @param cell HSSFCell Object
+	 * @param cell		HSSFCell Object
+	 * @param cellValue	Cell value from {@link #getCellValue(HSSFCell)}.
 	 * @return Cell data in a form of an Object.
 	 */
 
-	private Object getStringCellTypeData(HSSFCell cell) {
-		Object excelData = cell.getStringCellValue();
-		this.log.trace("Successfully retrieved String Value \"" + excelData.toString() + "\"");
-		return excelData;
+	private Object getCellData(HSSFCell cell, Object cellValue) {
+		Object cellData = cellValue;
+		if (cellValue instanceof LocalDateTime) {
+			cellData = cell.getDateCellValue().toString();
+		} else if (cellValue instanceof Double) {
+			double value = (Double) cellValue;
+			cellData = value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : new BigDecimal(value).toString();
+		}
+		return cellData;
 	}
 
 	/**
-	 * Get value of a Numeric Type Excel Cell.
+	 * Get value of a String Type Excel Cell.
 	 *
 	 * @param cell HSSFCell Object
-	 * @return Cell data in a form of an Object.
+	 * @return Cell data in a form of a String.
 	 */
 
-	private Object getNumericCellTypeData(HSSFCell cell) {
-		Object excelData = null;
-		if (DateUtil.isCellDateFormatted(cell) == true) {
-			excelData = this.cell.getDateCellValue();
-			this.log.trace("Successfully retrieved Date Value \"" + excelData.toString() + "\"");
-		} else {
-			BigDecimal bigdDecimal = new BigDecimal(this.cell.getNumericCellValue());
-			excelData = bigdDecimal;
-			this.log.trace("Successfully retrieved Numeric Value \"" + Double.parseDouble(excelData.toString()) + "\" from a Numeric Type Cell");
+	private String getStringCellTypeData(HSSFCell cell) {
+		String excelData = cell.getStringCellValue();
+		if (this.log.isTraceEnabled()) {
+			this.log.trace("Successfully retrieved String Value \"" + excelData + "\"");
 		}
-		return excelData.toString();
+		return excelData;
 	}
 
 	/**
-	 * Get value of a Boolean Type Excel Cell.
+	 * Get value of a Numeric Type Excel Cell.
 	 *
 	 * @param cell HSSFCell Object
-	 * @return Cell data in a form of an Object.
+	 * @return Cell data in a form of a LocalDateTime if Date formatted, otherwise a Double.
 	 */
 
-	private Object getBooleanCellTypeData(HSSFCell cell) {
-		Object excelData = cell.getBooleanCellValue();
-		this.log.trace("Successfully retrieved Boolean Value \"" + Boolean.parseBoolean(excelData.toString()) + "\" from a Boolean Type Cell.");
+	private Object getNumericCellTypeData(HSSFCell cell) {
+		Object excelData = null;
+		if (DateUtil.isCellDateFormatted(cell)) {
+			excelData = cell.getLocalDateTimeCellValue();
+			if (this.log.isTraceEnabled()) {
+				this.log.trace("Successfully retrieved Date Value \"" + excelData + "\"");
+			}
+		} else {
+			excelData = cell.getNumericCellValue();
+			if (this.log.isTraceEnabled()) {
+				this.log.trace("Successfully retrieved Numeric Value \"" + excelData + "\" from a Numeric Type Cell");
+			}
+		}
 		return excelData;
 	}
 
 	/**
-	 * Get value of a Formula Type Excel Cell.
+	 * Get value of a Boolean Type Excel Cell.
 	 *
 	 * @param cell HSSFCell Object
-	 * @return Cell data in a form of an Object.
+	 * @return Cell data in a form of a Boolean.
 	 */
 
-	private Object getFormulaCellTypeData(HSSFCell cell) {
-		Object excelData = cell.getStringCellValue();
-		this.log.trace("Successfully retrieved Formula Value \"" + excelData.toString() + "\" from a Formula Type Cell.");
+	private Boolean getBooleanCellTypeData(HSSFCell cell) {
+		Boolean excelData = cell.getBooleanCellValue();
+		if (this.log.isTraceEnabled()) {
+			this.log.trace("Successfully retrieved Boolean Value \"" + excelData + "\" from a Boolean Type Cell.");
+		}
 		return excelData;
 	}
 
@@ -0,0 +1,304 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.abagabagon.verifico.enums.SQL;
+
+/**
+ * Asynchronous SQL Data retrieval and manipulation running independent
+ * queries concurrently on pooled SQL Connections
+ *
+ * @author albagabagon
+ *
+ */
+
+public class AsyncSQLData implements AutoCloseable {
+
+	private static final ScheduledExecutorService timeouts = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "verifico-sql-async-timeout");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private Logger log;
+	private SQL sqlType;
+	private String dbServer;
+	private String dbName;
+	private String user;
+	private String password;
+	private boolean isSSLUsed;
+	private ExecutorService executor;
+	private Semaphore permits;
+	private int queryTimeout;
+	private int fetchSize;
+
+	@FunctionalInterface
+	private interface SQLTask<T> {
+
+		T run(Connection connection, SQLData sqlData, AtomicReference<Statement> runningStatement) throws SQLException;
+
+	}
+
+	/**
+	 * Creates an asynchronous facade over the shared Connection Pool of a SQL
+	 * Type, Server, Database and User. Queries run on virtual threads when the
+	 * Java runtime supports them, otherwise on a fixed pool of daemon threads.
+	 *
+	 * @param sqlType			SQL Type
+	 * @param dbServer			Database Server
+	 * @param dbName			Database Name
+	 * @param user				Database User
+	 * @param password			Database Password
+	 * @param isSSLUsed			<code>true</code> if SSL is used.
+	 * @param maxConcurrency	Maximum number of queries running at the same time.
+	 */
+
+	public AsyncSQLData(SQL sqlType, String dbServer, String dbName, String user, String password, boolean isSSLUsed, int maxConcurrency) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.sqlType = sqlType;
+		this.dbServer = dbServer;
+		this.dbName = dbName;
+		this.user = user;
+		this.password = password;
+		this.isSSLUsed = isSSLUsed;
+		this.queryTimeout = 0;
+		this.fetchSize = 1000;
+		this.permits = new Semaphore(maxConcurrency);
+		this.executor = this.createExecutor(maxConcurrency);
+	}
+
+	/**
+	 * Sets how long a query may run. Once expired, the query is cancelled on
+	 * the server and its future completes with a TimeoutException.
+	 *
+	 * @param queryTimeout Query Timeout in seconds. <code>0</code> for no limit.
+	 */
+
+	public void setQueryTimeout(int queryTimeout) {
+		this.queryTimeout = queryTimeout;
+	}
+
+	/**
+	 * Sets the number of rows fetched from the server per round trip for
+	 * SELECT Queries.
+	 *
+	 * @param fetchSize Fetch Size
+	 */
+
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Executes a SQL SELECT Statement asynchronously. The rows are read in full
+	 * before the SQL Connection is given back to the pool. Cancelling the
+	 * future cancels the running query.
+	 *
+	 * @param sql			SQL SELECT Query
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 * @return Future of the SQL Rows.
+	 */
+
+	public CompletableFuture<List<SQLRow>> select(String sql, Object... parameters) {
+		return this.submit(sql, (connection, sqlData, runningStatement) -> {
+			PreparedStatement preparedStatement = this.prepare(connection, sql, parameters, runningStatement);
+			List<SQLRow> rows = new ArrayList<SQLRow>();
+			try (SQLRowIterator iterator = sqlData.selectRows(preparedStatement, this.fetchSize)) {
+				if (iterator == null) {
+					throw new SQLException("Unable to execute SELECT Query: " + sql);
+				}
+				iterator.forEachRemaining(rows::add);
+			}
+			return rows;
+		});
+	}
+
+	/**
+	 * Executes a SQL UPDATE Statement asynchronously.
+	 *
+	 * @param sql			SQL UPDATE Query
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 * @return Future of the number of updated records.
+	 */
+
+	public CompletableFuture<Integer> update(String sql, Object... parameters) {
+		return this.submitUpdate(sql, parameters);
+	}
+
+	/**
+	 * Executes a SQL INSERT Statement asynchronously.
+	 *
+	 * @param sql			SQL INSERT Query
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 * @return Future of the number of inserted records.
+	 */
+
+	public CompletableFuture<Integer> insert(String sql, Object... parameters) {
+		return this.submitUpdate(sql, parameters);
+	}
+
+	/**
+	 * Executes a SQL DELETE Statement asynchronously.
+	 *
+	 * @param sql			SQL DELETE Query
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 * @return Future of the number of deleted records.
+	 */
+
+	public CompletableFuture<Integer> delete(String sql, Object... parameters) {
+		return this.submitUpdate(sql, parameters);
+	}
+
+	/**
+	 * Waits for every future to complete.
+	 *
+	 * @param futures Futures returned by this facade.
+	 * @throws CompletionException if any of them failed, timed out or was cancelled.
+	 */
+
+	public static void awaitAll(CompletableFuture<?>... futures) {
+		CompletableFuture.allOf(futures).join();
+	}
+
+	/**
+	 * Stops accepting queries. Running queries are allowed to finish.
+	 */
+
+	@Override
+	public void close() {
+		this.log.debug("Closing Asynchronous SQL Data executor.");
+		this.executor.shutdown();
+	}
+
+	private CompletableFuture<Integer> submitUpdate(String sql, Object[] parameters) {
+		return this.submit(sql, (connection, sqlData, runningStatement) -> {
+			try (PreparedStatement preparedStatement = this.prepare(connection, sql, parameters, runningStatement)) {
+				SQLQueryTimer timer = SQLQueryTimer.start(sql);
+				timer.executing();
+				try {
+					int count = preparedStatement.executeUpdate();
+					timer.executed();
+					timer.finish(true);
+					return count;
+				} catch (SQLException e) {
+					timer.executed();
+					timer.finish(false);
+					throw e;
+				}
+			}
+		});
+	}
+
+	private PreparedStatement prepare(Connection connection, String sql, Object[] parameters, AtomicReference<Statement> runningStatement) throws SQLException {
+		PreparedStatement preparedStatement = connection.prepareStatement(sql);
+		if (this.queryTimeout > 0) {
+			preparedStatement.setQueryTimeout(this.queryTimeout);
+		}
+		SQLData.bind(preparedStatement, parameters);
+		runningStatement.set(preparedStatement);
+		return preparedStatement;
+	}
+
+	private <T> CompletableFuture<T> submit(String sql, SQLTask<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		AtomicReference<Statement> runningStatement = new AtomicReference<Statement>();
+		Future<?> execution = this.executor.submit(() -> {
+			if (future.isDone()) {
+				return;
+			}
+			try {
+				this.permits.acquire();
+			} catch (InterruptedException e) {
+				future.cancel(false);
+				Thread.currentThread().interrupt();
+				return;
+			}
+			if (future.isDone()) {
+				this.permits.release();
+				return;
+			}
+			SQLData sqlData = new SQLData(this.sqlType, this.dbServer, this.dbName, this.user, this.password, this.isSSLUsed);
+			sqlData.setConnectionPooling(true);
+			try {
+				Connection connection = sqlData.openConnection();
+				if (connection == null) {
+					throw new SQLException("Unable to open SQL Connection.");
+				}
+				future.complete(task.run(connection, sqlData, runningStatement));
+			} catch (Throwable e) {
+				if (!future.isDone()) {
+					this.log.fatal("Encountered " + e.getClass().getSimpleName() + " while executing asynchronous SQL Query!");
+					this.log.fatal("Query: " + sql);
+					this.log.fatal(ExceptionUtils.getStackTrace(e));
+				}
+				future.completeExceptionally(e);
+			} finally {
+				runningStatement.set(null);
+				sqlData.closeConnection();
+				this.permits.release();
+			}
+		});
+		if (this.queryTimeout > 0) {
+			timeouts.schedule(() -> {
+				if (future.completeExceptionally(new TimeoutException("SQL Query exceeded Query Timeout of " + this.queryTimeout + "s: " + sql))) {
+					this.log.error("SQL Query exceeded Query Timeout of " + this.queryTimeout + "s. Cancelling it.");
+				}
+			}, this.queryTimeout, TimeUnit.SECONDS);
+		}
+		future.whenComplete((result, exception) -> {
+			if (exception instanceof TimeoutException || future.isCancelled()) {
+				execution.cancel(false);
+				this.cancel(runningStatement.get());
+			}
+		});
+		return future;
+	}
+
+	private void cancel(Statement statement) {
+		if (statement == null) {
+			return;
+		}
+		try {
+			statement.cancel();
+		} catch (SQLException e) {
+			this.log.debug("Encountered SQLException while cancelling SQL Query.");
+		}
+	}
+
+	private ExecutorService createExecutor(int maxConcurrency) {
+		try {
+			ExecutorService virtualThreads = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			this.log.debug("Running asynchronous SQL Queries on virtual threads.");
+			return virtualThreads;
+		} catch (ReflectiveOperationException e) {
+			this.log.debug("Virtual threads are unavailable. Running asynchronous SQL Queries on " + maxConcurrency + " platform threads.");
+		}
+		AtomicInteger threadCount = new AtomicInteger();
+		return Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+			Thread thread = new Thread(runnable, "verifico-sql-async-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome and per-chunk timing of a SQL Batch execution
+ *
+ * @author albagabagon
+ *
+ */
+
+public class SQLBatchResult {
+
+	private final List<Chunk> chunks;
+	private boolean isSuccessful;
+
+	/**
+	 * Outcome of a single executed chunk of a SQL Batch.
+	 */
+
+	public static class Chunk {
+
+		private final int index;
+		private final int rowCount;
+		private final long updateCount;
+		private final long elapsedTime;
+
+		Chunk(int index, int rowCount, long updateCount, long elapsedTime) {
+			this.index = index;
+			this.rowCount = rowCount;
+			this.updateCount = updateCount;
+			this.elapsedTime = elapsedTime;
+		}
+
+		public int getIndex() {
+			return this.index;
+		}
+
+		public int getRowCount() {
+			return this.rowCount;
+		}
+
+		/**
+		 * Gets the number of affected records reported by the JDBC Driver.
+		 *
+		 * @return Update Count. <code>-1</code> if the Driver did not report it,
+		 *         e.g. for rewritten MySQL batches.
+		 */
+
+		public long getUpdateCount() {
+			return this.updateCount;
+		}
+
+		/**
+		 * Gets execution time of the chunk, including commit if transactional.
+		 *
+		 * @return Elapsed time in milliseconds.
+		 */
+
+		public long getElapsedTime() {
+			return this.elapsedTime;
+		}
+
+		@Override
+		public String toString() {
+			return "Chunk " + this.index + ": " + this.rowCount + " row(s), " + (this.updateCount < 0 ? "unknown" : String.valueOf(this.updateCount)) + " record(s) affected, " + this.elapsedTime + " ms";
+		}
+
+	}
+
+	SQLBatchResult() {
+		this.chunks = new ArrayList<Chunk>();
+		this.isSuccessful = true;
+	}
+
+	void addChunk(Chunk chunk) {
+		this.chunks.add(chunk);
+	}
+
+	void setFailed() {
+		this.isSuccessful = false;
+	}
+
+	/**
+	 * Checks if every chunk of the SQL Batch was executed.
+	 *
+	 * @return <code>true</code> if all chunks succeeded. <code>false</code> if
+	 *         execution stopped at a failed chunk.
+	 */
+
+	public boolean isSuccessful() {
+		return this.isSuccessful;
+	}
+
+	/**
+	 * Gets executed chunks in order.
+	 *
+	 * @return List of executed chunks.
+	 */
+
+	public List<Chunk> getChunks() {
+		return Collections.unmodifiableList(this.chunks);
+	}
+
+	/**
+	 * Gets the number of rows sent in successfully executed chunks.
+	 *
+	 * @return Row Count
+	 */
+
+	public long getRowCount() {
+		long rowCount = 0;
+		for (Chunk chunk : this.chunks) {
+			rowCount += chunk.getRowCount();
+		}
+		return rowCount;
+	}
+
+	/**
+	 * Gets the total execution time of all chunks.
+	 *
+	 * @return Elapsed time in milliseconds.
+	 */
+
+	public long getElapsedTime() {
+		long elapsedTime = 0;
+		for (Chunk chunk : this.chunks) {
+			elapsedTime += chunk.getElapsedTime();
+		}
+		return elapsedTime;
+	}
+
+	@Override
+	public String toString() {
+		return (this.isSuccessful ? "Successful" : "Failed") + " SQL Batch: " + this.getRowCount() + " row(s) in " + this.chunks.size() + " chunk(s), " + this.getElapsedTime() + " ms";
+	}
+
+}
@@ -0,0 +1,571 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.github.abagabagon.verifico.enums.SQL;
+
+/**
+ * Thread-safe JDBC Connection Pool shared per SQL Type, Server, Database,
+ * User and SSL setting
+ *
+ * @author albagabagon
+ *
+ */
+
+public class SQLConnectionPool {
+
+	private static final Map<String, SQLConnectionPool> pools = new ConcurrentHashMap<String, SQLConnectionPool>();
+	private static final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "verifico-sql-pool-maintenance");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		maintenance.scheduleWithFixedDelay(() -> {
+			for (SQLConnectionPool pool : pools.values()) {
+				pool.maintain();
+			}
+		}, 5, 5, TimeUnit.SECONDS);
+		Runtime.getRuntime().addShutdownHook(new Thread(SQLConnectionPool::closeAll, "verifico-sql-pool-shutdown"));
+	}
+
+	private Logger log;
+	private String name;
+	private SQLDriver sqlDriver;
+	private String password;
+	private boolean isInMemory;
+	private LinkedList<PooledConnection> idleConnections;
+	private List<PooledConnection> borrowedConnections;
+	private int totalConnections;
+	private int minSize;
+	private int maxSize;
+	private int idleTimeout;
+	private int borrowTimeout;
+	private int validationTimeout;
+	private int leakDetectionThreshold;
+	private int statementCacheSize;
+	private SQLStatementCache.Statistics statementCacheStatistics;
+	private boolean isClosed;
+
+	private class PooledConnection implements InvocationHandler {
+
+		private final Connection connection;
+		private final List<Statement> statements;
+		private final SQLStatementCache statementCache;
+		private volatile Connection proxy;
+		private long lastUsed;
+		private long borrowedAt;
+		private Throwable borrowedBy;
+		private boolean isLeakReported;
+
+		private PooledConnection(Connection connection) {
+			this.connection = connection;
+			this.statements = new ArrayList<Statement>();
+			this.statementCache = new SQLStatementCache(connection, SQLConnectionPool.this.statementCacheSize, SQLConnectionPool.this.statementCacheStatistics);
+			this.lastUsed = System.currentTimeMillis();
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String methodName = method.getName();
+			if (methodName.equals("close")) {
+				if (this.proxy == proxy) {
+					this.proxy = null;
+					SQLConnectionPool.this.giveBack(this);
+				}
+				return null;
+			} else if (methodName.equals("isClosed")) {
+				return this.proxy != proxy || this.connection.isClosed();
+			} else if (this.proxy != proxy && method.getDeclaringClass() != Object.class) {
+				throw new SQLException("Connection has already been returned to the pool.");
+			}
+			Object result;
+			try {
+				result = method.invoke(this.connection, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+			if (result instanceof Statement) {
+				this.track((Statement) result);
+			}
+			return result;
+		}
+
+		/**
+		 * Tracks a Statement created through the lent Connection so it can be
+		 * closed when given back, dropping the tracked Statements that the
+		 * borrower has already closed.
+		 */
+
+		private void track(Statement statement) {
+			Iterator<Statement> iterator = this.statements.iterator();
+			while (iterator.hasNext()) {
+				Statement trackedStatement = iterator.next();
+				try {
+					if (trackedStatement.isClosed()) {
+						iterator.remove();
+					}
+				} catch (SQLException e) {
+					iterator.remove();
+				}
+			}
+			this.statements.add(statement);
+		}
+
+	}
+
+	private SQLConnectionPool(String name, SQLDriver sqlDriver, String password, boolean isInMemory) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.name = name;
+		this.sqlDriver = sqlDriver;
+		this.password = password;
+		this.isInMemory = isInMemory;
+		this.idleConnections = new LinkedList<PooledConnection>();
+		this.borrowedConnections = new ArrayList<PooledConnection>();
+		this.minSize = 0;
+		this.maxSize = 10;
+		this.idleTimeout = 300;
+		this.borrowTimeout = 30;
+		this.validationTimeout = 2;
+		this.leakDetectionThreshold = 60;
+		this.statementCacheSize = 25;
+		this.statementCacheStatistics = new SQLStatementCache.Statistics();
+	}
+
+	/**
+	 * Gets the shared Connection Pool for a SQL Type, Server, Database, User and
+	 * SSL setting, creating it on first use.
+	 *
+	 * @param sqlType	SQL Type
+	 * @param dbServer	Database Server
+	 * @param dbName	Database Name
+	 * @param user		Database User
+	 * @param password	Database Password
+	 * @param isSSLUsed	<code>true</code> if SSL is used.
+	 * @return Shared Connection Pool. <code>null</code> if the pool was created
+	 *         with another Database Password.
+	 */
+
+	public static SQLConnectionPool getPool(SQL sqlType, String dbServer, String dbName, String user, String password, boolean isSSLUsed) {
+		return getPool(sqlType, dbServer, dbName, user, password, isSSLUsed, false);
+	}
+
+	/**
+	 * Gets the shared Connection Pool for a SQL Type, Server, Database, User and
+	 * SSL setting, creating it on first use. Connections rewriting SQL Batches
+	 * are pooled apart from the others. A pool is only handed out for the
+	 * Database Password it was created with.
+	 *
+	 * @param sqlType				SQL Type
+	 * @param dbServer				Database Server
+	 * @param dbName				Database Name
+	 * @param user					Database User
+	 * @param password				Database Password
+	 * @param isSSLUsed				<code>true</code> if SSL is used.
+	 * @param isBatchRewriteUsed	<code>true</code> if MySQL and MariaDB
+	 *                              Connections rewrite SQL Batches.
+	 * @return Shared Connection Pool. <code>null</code> if the pool was created
+	 *         with another Database Password.
+	 */
+
+	public static SQLConnectionPool getPool(SQL sqlType, String dbServer, String dbName, String user, String password, boolean isSSLUsed, boolean isBatchRewriteUsed) {
+		String name = sqlType + "://" + user + "@" + dbServer + "/" + dbName + "?ssl=" + isSSLUsed + (isBatchRewriteUsed ? "&batchRewrite=true" : "");
+		SQLConnectionPool pool = pools.computeIfAbsent(name, key -> {
+			SQLDriver sqlDriver = new SQLDriver(sqlType, dbServer, dbName, user, password, isSSLUsed);
+			sqlDriver.setBatchRewriteUsed(isBatchRewriteUsed);
+			boolean isInMemory = sqlType == SQL.SQLite && (dbName == null || dbName.startsWith(":memory:"));
+			return new SQLConnectionPool(key, sqlDriver, password, isInMemory);
+		});
+		if (!Objects.equals(pool.password, password)) {
+			pool.log.fatal("Unable to use SQL Connection Pool \"" + name + "\". It was created with another Database Password.");
+			return null;
+		}
+		return pool;
+	}
+
+	/**
+	 * Closes every shared Connection Pool and their physical Connections.
+	 */
+
+	public static void closeAll() {
+		for (SQLConnectionPool pool : pools.values()) {
+			pool.close();
+		}
+		pools.clear();
+	}
+
+	/**
+	 * Sets the number of Connections kept open even when idle.
+	 *
+	 * @param minSize Minimum Pool Size.
+	 */
+
+	public final synchronized void setMinSize(int minSize) {
+		this.minSize = minSize;
+	}
+
+	/**
+	 * Sets the maximum number of open Connections. Borrowers wait when all are
+	 * in use.
+	 *
+	 * @param maxSize Maximum Pool Size.
+	 */
+
+	public final synchronized void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Sets how long a Connection may stay idle before it is closed, as long as
+	 * the Minimum Pool Size is kept. The last Connection to a SQLite in-memory
+	 * database is never closed for being idle, as closing it drops the
+	 * database.
+	 *
+	 * @param idleTimeout Idle Timeout in seconds.
+	 */
+
+	public final synchronized void setIdleTimeout(int idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Sets how long a borrower waits for a free Connection.
+	 *
+	 * @param borrowTimeout Borrow Timeout in seconds.
+	 */
+
+	public final synchronized void setBorrowTimeout(int borrowTimeout) {
+		this.borrowTimeout = borrowTimeout;
+	}
+
+	/**
+	 * Sets how long a Connection may be borrowed before it is reported as a
+	 * possible leak together with the stack trace of the borrower.
+	 *
+	 * @param leakDetectionThreshold Leak Detection Threshold in seconds. <code>0</code> to disable.
+	 */
+
+	public final synchronized void setLeakDetectionThreshold(int leakDetectionThreshold) {
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
+	/**
+	 * Sets the number of PreparedStatements cached per physical Connection.
+	 * Applies to Connections opened afterwards.
+	 *
+	 * @param statementCacheSize Statement Cache Size. <code>0</code> to disable.
+	 */
+
+	public final synchronized void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	/**
+	 * Gets the combined hit, miss and eviction counters of the Statement Caches
+	 * of every Connection of the pool.
+	 *
+	 * @return Statement Cache Statistics
+	 */
+
+	public final SQLStatementCache.Statistics getStatementCacheStatistics() {
+		return this.statementCacheStatistics;
+	}
+
+	/**
+	 * Gets the Statement Cache of the physical Connection behind a borrowed
+	 * Connection.
+	 *
+	 * @param connection Connection borrowed from a pool.
+	 * @return Statement Cache. <code>null</code> if the Connection was not
+	 *         borrowed from a pool or has already been given back.
+	 */
+
+	static SQLStatementCache getStatementCache(Connection connection) {
+		if (connection == null || !Proxy.isProxyClass(connection.getClass())) {
+			return null;
+		}
+		InvocationHandler handler = Proxy.getInvocationHandler(connection);
+		if (handler instanceof PooledConnection && ((PooledConnection) handler).proxy == connection) {
+			return ((PooledConnection) handler).statementCache;
+		}
+		return null;
+	}
+
+	/**
+	 * Closes the Statements created through a borrowed Connection and the
+	 * cached PreparedStatements of its physical Connection, e.g. so that no
+	 * Statement is active while the database is replaced.
+	 *
+	 * @param connection Connection borrowed from a pool. Ignored otherwise.
+	 */
+
+	static void closeStatements(Connection connection) {
+		if (connection == null || !Proxy.isProxyClass(connection.getClass())) {
+			return;
+		}
+		InvocationHandler handler = Proxy.getInvocationHandler(connection);
+		if (handler instanceof PooledConnection && ((PooledConnection) handler).proxy == connection) {
+			PooledConnection pooledConnection = (PooledConnection) handler;
+			for (Statement statement : pooledConnection.statements) {
+				try {
+					statement.close();
+				} catch (SQLException e) {
+					LogManager.getLogger(SQLConnectionPool.class).debug("Encountered SQLException while closing Statement of borrowed SQL Connection.");
+				}
+			}
+			pooledConnection.statements.clear();
+			pooledConnection.statementCache.close();
+		}
+	}
+
+	/**
+	 * Borrows a Connection from the pool. Idle Connections are validated before
+	 * being handed out. Closing the returned Connection gives it back to the
+	 * pool.
+	 *
+	 * @return SQL Connection. <code>null</code> if no Connection could be
+	 *         obtained within the Borrow Timeout.
+	 */
+
+	public final Connection borrow() {
+		long deadline = System.currentTimeMillis() + this.borrowTimeout * 1000L;
+		while (true) {
+			PooledConnection pooledConnection = null;
+			boolean isCreating = false;
+			synchronized (this) {
+				if (this.isClosed) {
+					this.log.fatal("Unable to borrow SQL Connection. Connection Pool \"" + this.name + "\" is closed.");
+					return null;
+				}
+				if (!this.idleConnections.isEmpty()) {
+					pooledConnection = this.idleConnections.removeFirst();
+				} else if (this.totalConnections < this.maxSize) {
+					this.totalConnections++;
+					isCreating = true;
+				} else {
+					long remaining = deadline - System.currentTimeMillis();
+					if (remaining <= 0) {
+						this.log.fatal("Wait time to borrow SQL Connection from \"" + this.name + "\" has expired. " + this.borrowedConnections.size() + " Connection(s) in use.");
+						return null;
+					}
+					try {
+						this.wait(remaining);
+					} catch (InterruptedException e) {
+						this.log.fatal("Encountered InterruptedException while waiting for SQL Connection!");
+						Thread.currentThread().interrupt();
+						return null;
+					}
+					continue;
+				}
+			}
+			if (isCreating) {
+				pooledConnection = this.create();
+				if (pooledConnection == null) {
+					return null;
+				}
+			} else if (!this.isValid(pooledConnection)) {
+				this.discard(pooledConnection);
+				continue;
+			}
+			return this.lend(pooledConnection);
+		}
+	}
+
+	/**
+	 * Gets the number of Connections currently borrowed.
+	 *
+	 * @return Borrowed Connection count.
+	 */
+
+	public final synchronized int getActiveCount() {
+		return this.borrowedConnections.size();
+	}
+
+	/**
+	 * Gets the number of idle Connections.
+	 *
+	 * @return Idle Connection count.
+	 */
+
+	public final synchronized int getIdleCount() {
+		return this.idleConnections.size();
+	}
+
+	/**
+	 * Closes the pool and all of its physical Connections.
+	 */
+
+	public final void close() {
+		List<PooledConnection> connections;
+		synchronized (this) {
+			this.log.debug("Closing SQL Connection Pool \"" + this.name + "\".");
+			this.isClosed = true;
+			connections = new ArrayList<PooledConnection>(this.idleConnections);
+			connections.addAll(this.borrowedConnections);
+			this.idleConnections.clear();
+			this.borrowedConnections.clear();
+			this.notifyAll();
+		}
+		for (PooledConnection pooledConnection : connections) {
+			this.discard(pooledConnection);
+		}
+	}
+
+	private PooledConnection create() {
+		this.log.debug("Opening new physical SQL Connection for \"" + this.name + "\".");
+		Connection connection = null;
+		try {
+			connection = this.sqlDriver.getSQLConnection();
+		} catch (ExceptionInInitializerError e) {
+			this.log.fatal("Encountered ExceptionInInitializerError while opening SQL Connection!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+		if (connection == null) {
+			synchronized (this) {
+				this.totalConnections--;
+				this.notifyAll();
+			}
+			return null;
+		}
+		return new PooledConnection(connection);
+	}
+
+	private Connection lend(PooledConnection pooledConnection) {
+		Connection proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, pooledConnection);
+		synchronized (this) {
+			pooledConnection.proxy = proxy;
+			pooledConnection.borrowedAt = System.currentTimeMillis();
+			pooledConnection.borrowedBy = this.leakDetectionThreshold > 0 ? new Throwable("SQL Connection borrowed here") : null;
+			pooledConnection.isLeakReported = false;
+			this.borrowedConnections.add(pooledConnection);
+		}
+		return proxy;
+	}
+
+	private void giveBack(PooledConnection pooledConnection) {
+		boolean isReusable = true;
+		try {
+			for (Statement statement : pooledConnection.statements) {
+				statement.close();
+			}
+			pooledConnection.statements.clear();
+			if (!pooledConnection.connection.getAutoCommit()) {
+				pooledConnection.connection.rollback();
+				pooledConnection.connection.setAutoCommit(true);
+			}
+			pooledConnection.connection.clearWarnings();
+		} catch (SQLException e) {
+			this.log.error("Encountered SQLException while resetting SQL Connection. Discarding it.");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+			isReusable = false;
+		}
+		synchronized (this) {
+			if (!this.borrowedConnections.remove(pooledConnection)) {
+				return;
+			}
+			if (isReusable && !this.isClosed) {
+				pooledConnection.lastUsed = System.currentTimeMillis();
+				this.idleConnections.addFirst(pooledConnection);
+				this.notifyAll();
+				return;
+			}
+		}
+		this.discard(pooledConnection);
+	}
+
+	private boolean isValid(PooledConnection pooledConnection) {
+		try {
+			return pooledConnection.connection.isValid(this.validationTimeout);
+		} catch (SQLException e) {
+			this.log.debug("SQL Connection failed validation.");
+			return false;
+		}
+	}
+
+	private void discard(PooledConnection pooledConnection) {
+		pooledConnection.statementCache.close();
+		try {
+			pooledConnection.connection.close();
+		} catch (SQLException e) {
+			this.log.debug("Encountered SQLException while closing physical SQL Connection.");
+		}
+		synchronized (this) {
+			this.totalConnections--;
+			this.notifyAll();
+		}
+	}
+
+	private void maintain() {
+		List<PooledConnection> evicted = new ArrayList<PooledConnection>();
+		int missing;
+		synchronized (this) {
+			if (this.isClosed) {
+				return;
+			}
+			long now = System.currentTimeMillis();
+			int keptSize = Math.max(this.minSize, this.isInMemory ? 1 : 0);
+			Iterator<PooledConnection> iterator = this.idleConnections.descendingIterator();
+			while (iterator.hasNext() && this.totalConnections - evicted.size() > keptSize) {
+				PooledConnection pooledConnection = iterator.next();
+				if (now - pooledConnection.lastUsed > this.idleTimeout * 1000L) {
+					iterator.remove();
+					evicted.add(pooledConnection);
+				}
+			}
+			if (this.leakDetectionThreshold > 0) {
+				for (PooledConnection pooledConnection : this.borrowedConnections) {
+					if (!pooledConnection.isLeakReported && now - pooledConnection.borrowedAt > this.leakDetectionThreshold * 1000L) {
+						pooledConnection.isLeakReported = true;
+						this.log.warn("Possible SQL Connection leak in \"" + this.name + "\": borrowed " + ((now - pooledConnection.borrowedAt) / 1000) + "s ago and not closed.");
+						if (pooledConnection.borrowedBy != null) {
+							this.log.warn(ExceptionUtils.getStackTrace(pooledConnection.borrowedBy));
+						}
+					}
+				}
+			}
+			missing = Math.min(this.minSize, this.maxSize) - (this.totalConnections - evicted.size());
+			this.totalConnections += Math.max(0, missing);
+		}
+		if (!evicted.isEmpty()) {
+			this.log.debug("Evicting " + evicted.size() + " idle SQL Connection(s) from \"" + this.name + "\".");
+		}
+		for (PooledConnection pooledConnection : evicted) {
+			this.discard(pooledConnection);
+		}
+		for (int i = 0; i < missing; i++) {
+			PooledConnection pooledConnection = this.create();
+			if (pooledConnection != null) {
+				synchronized (this) {
+					if (!this.isClosed) {
+						this.idleConnections.addLast(pooledConnection);
+						this.notifyAll();
+						continue;
+					}
+				}
+				this.discard(pooledConnection);
+			}
+		}
+	}
+
+}
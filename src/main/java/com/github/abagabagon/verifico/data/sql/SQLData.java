@@ -1,10 +1,26 @@
 package com.github.abagabagon.verifico.data.sql;
 
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLTimeoutException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.logging.log4j.LogManager;
@@ -30,7 +46,14 @@ public class SQLData {
 	private String user;
 	private String password;
 	private boolean isSSLUsed;
+	private boolean isPooled;
+	private boolean isBatchRewriteUsed;
+	private boolean isTransactionalSession;
+	private LinkedHashMap<String, Savepoint> savepoints;
 	private SQLDriver sqlDriver;
+	private SQLStatementCache statementCache;
+	private SQLStatementCache.Statistics statementCacheStatistics;
+	private int statementCacheSize;
 
 	public SQLData(SQL sqlType, String dbServer, String dbName, String user, String password, boolean isSSLUsed) {
 		this.log = LogManager.getLogger(this.getClass());
@@ -40,6 +63,10 @@ public class SQLData {
 		this.user = user;
 		this.password = password;
 		this.isSSLUsed = isSSLUsed;
+		this.isPooled = false;
+		this.savepoints = new LinkedHashMap<String, Savepoint>();
+		this.statementCacheStatistics = new SQLStatementCache.Statistics();
+		this.statementCacheSize = 25;
 	}
 
 	enum SQLQuery {
@@ -51,14 +78,87 @@ public class SQLData {
 	/* ####################################################### */
 
 	/**
-	 * Opens SQL Connection.
+	 * Sets whether SQL Connections are borrowed from the shared Connection Pool
+	 * for this SQL Type, Server, Database, User and SSL setting. Disabled by
+	 * default, so every {@link #openConnection()} opens a new Connection and
+	 * {@link #closeConnection()} closes it.
+	 *
+	 * @param isPooled <code>true</code> to use the shared Connection Pool.
+	 *                 <code>false</code> to open a new Connection every time.
+	 */
+
+	public void setConnectionPooling(boolean isPooled) {
+		this.isPooled = isPooled;
+	}
+
+	/**
+	 * Sets whether MySQL and MariaDB Connections send SQL Batches as multi-row
+	 * statements, e.g. for Connections used only for bulk inserts. Disabled by
+	 * default. Applies to Connections opened afterwards; pooled Connections
+	 * rewriting SQL Batches come from their own Connection Pool.
+	 *
+	 * @param isBatchRewriteUsed <code>true</code> to rewrite SQL Batches.
+	 */
+
+	public void setBatchRewriting(boolean isBatchRewriteUsed) {
+		this.isBatchRewriteUsed = isBatchRewriteUsed;
+	}
+
+	/**
+	 * Gets the shared Connection Pool for this SQL Type, Server, Database, User
+	 * and SSL setting, e.g. to tune its size.
+	 *
+	 * @return Shared Connection Pool. <code>null</code> if the pool was created
+	 *         with another Database Password.
+	 */
+
+	public SQLConnectionPool getConnectionPool() {
+		return SQLConnectionPool.getPool(this.sqlType, this.dbServer, this.dbName, this.user, this.password, this.isSSLUsed, this.isBatchRewriteUsed);
+	}
+
+	/**
+	 * Sets the number of PreparedStatements cached for SQL Queries passed as
+	 * text when Connection Pooling is disabled. Pooled Connections use the
+	 * Statement Cache Size of the Connection Pool.
+	 *
+	 * @param statementCacheSize Statement Cache Size. <code>0</code> to disable.
+	 */
+
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	/**
+	 * Gets hit, miss and eviction counters of the PreparedStatement Cache used
+	 * for SQL Queries passed as text. When Connection Pooling is enabled, the
+	 * counters are shared by every user of the Connection Pool.
+	 *
+	 * @return Statement Cache Statistics
+	 */
+
+	public SQLStatementCache.Statistics getStatementCacheStatistics() {
+		SQLConnectionPool pool = this.isPooled ? this.getConnectionPool() : null;
+		return pool == null ? this.statementCacheStatistics : pool.getStatementCacheStatistics();
+	}
+
+	/**
+	 * Opens SQL Connection. When Connection Pooling is enabled, the Connection is
+	 * borrowed from the shared Connection Pool and given back on
+	 * {@link #closeConnection()}.
 	 *
 	 * @return SQL Connection Object.
 	 */
 
 	public Connection openConnection() {
 		this.log.debug("I open SQL Connection.");
+		if (this.isPooled) {
+			SQLConnectionPool pool = this.getConnectionPool();
+			this.connection = pool == null ? null : pool.borrow();
+			return this.connection;
+		}
 		this.sqlDriver = new SQLDriver(this.sqlType, this.dbServer, this.dbName, this.user, this.password, this.isSSLUsed);
+		this.sqlDriver.setBatchRewriteUsed(this.isBatchRewriteUsed);
+		this.statementCache = null;
 		try {
 			this.connection = this.sqlDriver.getSQLConnection();
 		} catch (ExceptionInInitializerError e) {
@@ -71,7 +171,187 @@ public class SQLData {
 		return this.connection;
 	}
 
+	/**
+	 * Replaces the content of the open SQLite database with a fixture, e.g.
+	 * before every test. Call it outside of a Transactional Session. The open
+	 * ResultSet and cached PreparedStatements of the Connection are closed
+	 * first.
+	 *
+	 * @param fixture SQLite Fixture
+	 * @return <code>true</code> if the fixture was restored.
+	 */
+
+	public boolean restoreFixture(SQLiteFixture fixture) {
+		this.log.debug("I restore SQLite Fixture \"" + fixture.getName() + "\".");
+		if (this.sqlType != SQL.SQLite) {
+			this.log.error("Unable to restore SQLite Fixture on a " + this.sqlType + " Database.");
+			return false;
+		}
+		this.closeResultSet();
+		if (this.statementCache != null) {
+			this.statementCache.close();
+		}
+		return fixture.restore(this.connection);
+	}
+
+	/**
+	 * Starts a Transactional Session on the open SQL Connection. Every
+	 * Statement executed afterwards runs inside a single transaction which is
+	 * rolled back by {@link #endTransactionalSession()} or
+	 * {@link #closeConnection()}, so the test leaves no data behind. Batch
+	 * chunks are isolated with savepoints instead of being committed.
+	 */
+
+	public void beginTransactionalSession() {
+		this.log.debug("I begin Transactional Session.");
+		if (this.isTransactionalSession) {
+			this.log.warn("Transactional Session has already been started.");
+			return;
+		}
+		try {
+			this.connection.setAutoCommit(false);
+			this.isTransactionalSession = true;
+			this.log.debug("Successfully began Transactional Session.");
+		} catch (NullPointerException e) {
+			this.log.fatal("Unable to begin Transactional Session. SQL Connection might not have been opened.");
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while beginning Transactional Session!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	/**
+	 * Checks whether a Transactional Session is active.
+	 *
+	 * @return <code>true</code> if a Transactional Session is active.
+	 */
+
+	public boolean isTransactionalSession() {
+		return this.isTransactionalSession;
+	}
+
+	/**
+	 * Marks a named savepoint within the Transactional Session, e.g. at the start
+	 * of a nested test step.
+	 *
+	 * @param name Savepoint Name
+	 */
+
+	public void setSavepoint(String name) {
+		this.log.debug("I set Savepoint \"" + name + "\".");
+		if (!this.isTransactionalSession) {
+			this.log.error("Unable to set Savepoint \"" + name + "\". No Transactional Session is active.");
+			return;
+		}
+		try {
+			this.savepoints.remove(name);
+			this.savepoints.put(name, this.connection.setSavepoint(name));
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while setting Savepoint \"" + name + "\"!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	/**
+	 * Undoes every Statement executed since a named savepoint. Savepoints set
+	 * after it are discarded; the savepoint itself stays usable.
+	 *
+	 * @param name Savepoint Name
+	 */
+
+	public void rollbackToSavepoint(String name) {
+		this.log.debug("I rollback to Savepoint \"" + name + "\".");
+		Savepoint savepoint = this.savepoints.get(name);
+		if (savepoint == null) {
+			this.log.error("Unable to rollback to Savepoint \"" + name + "\". Savepoint does not exist.");
+			return;
+		}
+		try {
+			this.connection.rollback(savepoint);
+			this.discardSavepointsAfter(name, false);
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while rolling back to Savepoint \"" + name + "\"!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	/**
+	 * Releases a named savepoint and those set after it, keeping their
+	 * changes within the Transactional Session.
+	 *
+	 * @param name Savepoint Name
+	 */
+
+	public void releaseSavepoint(String name) {
+		this.log.debug("I release Savepoint \"" + name + "\".");
+		Savepoint savepoint = this.savepoints.get(name);
+		if (savepoint == null) {
+			this.log.error("Unable to release Savepoint \"" + name + "\". Savepoint does not exist.");
+			return;
+		}
+		try {
+			this.connection.releaseSavepoint(savepoint);
+		} catch (SQLFeatureNotSupportedException e) {
+			this.log.debug("SQL Driver does not support releasing Savepoints. Savepoint \"" + name + "\" is kept until the session ends.");
+		} catch (SQLException e) {
+			this.log.error("Encountered SQLException while releasing Savepoint \"" + name + "\"!");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+		this.discardSavepointsAfter(name, true);
+	}
+
+	/**
+	 * Ends the Transactional Session by rolling back every Statement executed
+	 * since it began, and restores Auto-Commit Mode.
+	 */
+
+	public void endTransactionalSession() {
+		this.log.debug("I end Transactional Session.");
+		if (!this.isTransactionalSession) {
+			return;
+		}
+		this.isTransactionalSession = false;
+		this.savepoints.clear();
+		try {
+			this.connection.rollback();
+			this.connection.setAutoCommit(true);
+			this.log.debug("Successfully rolled back Transactional Session.");
+		} catch (NullPointerException e) {
+			this.log.fatal("Unable to rollback Transactional Session. SQL Connection might have been lost.");
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while rolling back Transactional Session!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	private void discardSavepointsAfter(String name, boolean isInclusive) {
+		List<String> names = new ArrayList<String>(this.savepoints.keySet());
+		int index = names.indexOf(name);
+		for (int i = names.size() - 1; i > index; i--) {
+			this.savepoints.remove(names.get(i));
+		}
+		if (isInclusive) {
+			this.savepoints.remove(name);
+		}
+	}
+
 	private ResultSet execute(SQLQuery sqlQuery, PreparedStatement preparedStatement) {
+		return this.execute(sqlQuery, preparedStatement, SQLQueryTimer.start(preparedStatement.toString()));
+	}
+
+	private ResultSet execute(SQLQuery sqlQuery, PreparedStatement preparedStatement, SQLQueryTimer timer) {
 		this.log.debug("------------------------------------------------------------------------");
 		this.log.debug("EXECUTING " + String.valueOf(sqlQuery).toUpperCase() + " QUERY:\n" + preparedStatement.toString());
 		this.log.debug("------------------------------------------------------------------------");
@@ -79,6 +359,7 @@ public class SQLData {
 		boolean status = false;
 		this.resultSet = null;
 		int count = 0;
+		timer.executing();
 		for(int i = 0; i < 3; i++) {
 			try {
 				switch(sqlQuery) {
@@ -100,6 +381,7 @@ public class SQLData {
 					} else {
 						this.log.error("No SQL Records were inserted.");
 					}
+					break;
 				case DELETE:
 					count = preparedStatement.executeUpdate();
 					if (count > 0) {
@@ -107,6 +389,7 @@ public class SQLData {
 					} else {
 						this.log.error("No SQL Records were deleted.");
 					}
+					break;
 				default:
 					this.log.fatal(sqlQuery + " is an unsupported SQL Query.");
 				}
@@ -134,6 +417,13 @@ public class SQLData {
 			}
 		}
 
+		timer.executed();
+		if (sqlQuery == SQLQuery.SELECT && status) {
+			this.resultSet = timer.track(this.resultSet);
+		} else {
+			timer.finish(status);
+		}
+
 		if(status) {
 			this.log.debug("------------------------------------------------------------------------");
 			this.log.debug("SUCCESSFUL EXECUTION OF " + String.valueOf(sqlQuery).toUpperCase() + " QUERY.");
@@ -159,6 +449,142 @@ public class SQLData {
 		return this.resultSet;
 	}
 
+	/**
+	 * Executes a SQL SELECT Statement and returns the ResultSet. The Statement
+	 * is taken from the PreparedStatement Cache of the Connection, so the
+	 * ResultSet stays readable only until the same SQL Query is executed again.
+	 *
+	 * @param sql			SQL SELECT Query
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 * @return ResultSet based on the SQL SELECT Query
+	 */
+
+	public ResultSet select(String sql, Object... parameters) {
+		SQLQueryTimer timer = SQLQueryTimer.start(sql);
+		PreparedStatement preparedStatement = this.prepare(SQLQuery.SELECT, sql, parameters, timer);
+		if (preparedStatement == null) {
+			return null;
+		}
+		this.resultSet = this.execute(SQLQuery.SELECT, preparedStatement, timer);
+		return this.resultSet;
+	}
+
+	/**
+	 * Executes a SQL SELECT Statement and reads all of its rows into a SQL
+	 * Table, keeping numeric and boolean columns in primitive arrays.
+	 *
+	 * @param sql			SQL SELECT Query
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 * @return SQL Table. <code>null</code> if the Query could not be executed.
+	 */
+
+	public SQLTable selectTable(String sql, Object... parameters) {
+		ResultSet resultSet = this.select(sql, parameters);
+		if (resultSet == null) {
+			return null;
+		}
+		try {
+			return SQLTable.read(resultSet);
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while reading SQL Table!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			return null;
+		} finally {
+			this.closeResultSet();
+		}
+	}
+
+	/**
+	 * Executes a SQL SELECT Statement and streams its rows one at a time
+	 * instead of materializing the whole ResultSet. The Statement is prepared
+	 * forward-only and read-only. For MySQL, rows are streamed one by one
+	 * regardless of Fetch Size; no other Statement can run on the Connection
+	 * until the iterator is exhausted or closed.
+	 *
+	 * @param sql			SQL SELECT Query
+	 * @param fetchSize		Number of rows fetched from the server per round trip.
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 * @return Iterator of SQL Rows, also available as a Stream. <code>null</code>
+	 *         if the Query could not be executed.
+	 */
+
+	public SQLRowIterator selectRows(String sql, int fetchSize, Object... parameters) {
+		SQLQueryTimer timer = SQLQueryTimer.start(sql);
+		PreparedStatement preparedStatement = null;
+		try {
+			preparedStatement = this.connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			bind(preparedStatement, parameters);
+			timer.prepared();
+		} catch (NullPointerException e) {
+			this.log.fatal("Unable to prepare SELECT Query. SQL Connection might not have been opened.");
+			timer.finish(false);
+			return null;
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while preparing SELECT Query!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			timer.finish(false);
+			return null;
+		}
+		SQLRowIterator rows = this.selectRows(preparedStatement, fetchSize, timer);
+		if (rows == null) {
+			try {
+				preparedStatement.close();
+			} catch (SQLException e) {
+				this.log.debug(ExceptionUtils.getStackTrace(e));
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Executes a SQL SELECT Statement and streams its rows one at a time
+	 * instead of materializing the whole ResultSet. Prepare the Statement
+	 * forward-only and read-only for the smallest memory footprint. The
+	 * Statement is closed together with the iterator.
+	 *
+	 * @param preparedStatement	SQL SELECT Query in PreparedStatement Object
+	 * @param fetchSize			Number of rows fetched from the server per round trip.
+	 * @return Iterator of SQL Rows, also available as a Stream. <code>null</code>
+	 *         if the Query could not be executed.
+	 */
+
+	public SQLRowIterator selectRows(PreparedStatement preparedStatement, int fetchSize) {
+		return this.selectRows(preparedStatement, fetchSize, SQLQueryTimer.start(preparedStatement.toString()));
+	}
+
+	private SQLRowIterator selectRows(PreparedStatement preparedStatement, int fetchSize, SQLQueryTimer timer) {
+		this.log.debug("------------------------------------------------------------------------");
+		this.log.debug("STREAMING SELECT QUERY (FETCH SIZE " + fetchSize + "):\n" + preparedStatement.toString());
+		this.log.debug("------------------------------------------------------------------------");
+		SQLRowIterator rows = null;
+		try {
+			preparedStatement.setFetchDirection(ResultSet.FETCH_FORWARD);
+			preparedStatement.setFetchSize(this.sqlType == SQL.MySQL ? Integer.MIN_VALUE : fetchSize);
+			timer.executing();
+			ResultSet resultSet = preparedStatement.executeQuery();
+			timer.executed();
+			rows = new SQLRowIterator(preparedStatement, resultSet, timer);
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while executing streaming SELECT Query!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			timer.finish(false);
+		} catch (Exception e) {
+			this.log.fatal("Encountered Exception while executing streaming SELECT Query!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			timer.finish(false);
+		}
+		return rows;
+	}
+
 	/**
 	 * Executes a SQL UPDATE Statement.
 	 *
@@ -169,6 +595,23 @@ public class SQLData {
 		this.execute(SQLQuery.UPDATE, preparedStatement);
 	}
 
+	/**
+	 * Executes a SQL UPDATE Statement taken from the PreparedStatement Cache of
+	 * the Connection.
+	 *
+	 * @param sql			SQL UPDATE Query
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 */
+
+	public void update(String sql, Object... parameters) {
+		SQLQueryTimer timer = SQLQueryTimer.start(sql);
+		PreparedStatement preparedStatement = this.prepare(SQLQuery.UPDATE, sql, parameters, timer);
+		if (preparedStatement != null) {
+			this.execute(SQLQuery.UPDATE, preparedStatement, timer);
+			this.closeUncachedStatement(preparedStatement);
+		}
+	}
+
 	/**
 	 * Executes a SQL INSERT Statement.
 	 *
@@ -179,6 +622,23 @@ public class SQLData {
 		this.execute(SQLQuery.INSERT, preparedStatement);
 	}
 
+	/**
+	 * Executes a SQL INSERT Statement taken from the PreparedStatement Cache of
+	 * the Connection.
+	 *
+	 * @param sql			SQL INSERT Query
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 */
+
+	public void insert(String sql, Object... parameters) {
+		SQLQueryTimer timer = SQLQueryTimer.start(sql);
+		PreparedStatement preparedStatement = this.prepare(SQLQuery.INSERT, sql, parameters, timer);
+		if (preparedStatement != null) {
+			this.execute(SQLQuery.INSERT, preparedStatement, timer);
+			this.closeUncachedStatement(preparedStatement);
+		}
+	}
+
 	/**
 	 * Executes a SQL DELETE Statement.
 	 *
@@ -189,6 +649,354 @@ public class SQLData {
 		this.execute(SQLQuery.DELETE, preparedStatement);
 	}
 
+	/**
+	 * Executes a SQL DELETE Statement taken from the PreparedStatement Cache of
+	 * the Connection.
+	 *
+	 * @param sql			SQL DELETE Query
+	 * @param parameters	Values bound to the Query's <code>?</code> placeholders, in order.
+	 */
+
+	public void delete(String sql, Object... parameters) {
+		SQLQueryTimer timer = SQLQueryTimer.start(sql);
+		PreparedStatement preparedStatement = this.prepare(SQLQuery.DELETE, sql, parameters, timer);
+		if (preparedStatement != null) {
+			this.execute(SQLQuery.DELETE, preparedStatement, timer);
+			this.closeUncachedStatement(preparedStatement);
+		}
+	}
+
+	/**
+	 * Executes a SQL INSERT Statement once per parameter row, sent in batches.
+	 *
+	 * @param sql				SQL INSERT Query with <code>?</code> placeholders.
+	 * @param rows				Parameter rows, one Object Array per record.
+	 * @param chunkSize			Number of rows sent per <code>executeBatch</code>.
+	 * @param isTransactional	<code>true</code> to commit each chunk in its own transaction.
+	 * @return Outcome and per-chunk timing of the SQL Batch.
+	 */
+
+	public SQLBatchResult insertBatch(String sql, Iterable<Object[]> rows, int chunkSize, boolean isTransactional) {
+		return this.executeBatch(SQLQuery.INSERT, sql, rows.iterator(), chunkSize, isTransactional);
+	}
+
+	/**
+	 * Executes a SQL INSERT Statement once per streamed parameter row, sent in
+	 * batches. Only one chunk of rows is held in memory at a time.
+	 *
+	 * @param sql				SQL INSERT Query with <code>?</code> placeholders.
+	 * @param rows				Parameter rows, one Object Array per record.
+	 * @param chunkSize			Number of rows sent per <code>executeBatch</code>.
+	 * @param isTransactional	<code>true</code> to commit each chunk in its own transaction.
+	 * @return Outcome and per-chunk timing of the SQL Batch.
+	 */
+
+	public SQLBatchResult insertBatch(String sql, Iterator<Object[]> rows, int chunkSize, boolean isTransactional) {
+		return this.executeBatch(SQLQuery.INSERT, sql, rows, chunkSize, isTransactional);
+	}
+
+	/**
+	 * Executes a SQL UPDATE Statement once per parameter row, sent in batches.
+	 *
+	 * @param sql				SQL UPDATE Query with <code>?</code> placeholders.
+	 * @param rows				Parameter rows, one Object Array per execution.
+	 * @param chunkSize			Number of rows sent per <code>executeBatch</code>.
+	 * @param isTransactional	<code>true</code> to commit each chunk in its own transaction.
+	 * @return Outcome and per-chunk timing of the SQL Batch.
+	 */
+
+	public SQLBatchResult updateBatch(String sql, Iterable<Object[]> rows, int chunkSize, boolean isTransactional) {
+		return this.executeBatch(SQLQuery.UPDATE, sql, rows.iterator(), chunkSize, isTransactional);
+	}
+
+	/**
+	 * Executes a SQL UPDATE Statement once per streamed parameter row, sent in
+	 * batches.
+	 *
+	 * @param sql				SQL UPDATE Query with <code>?</code> placeholders.
+	 * @param rows				Parameter rows, one Object Array per execution.
+	 * @param chunkSize			Number of rows sent per <code>executeBatch</code>.
+	 * @param isTransactional	<code>true</code> to commit each chunk in its own transaction.
+	 * @return Outcome and per-chunk timing of the SQL Batch.
+	 */
+
+	public SQLBatchResult updateBatch(String sql, Iterator<Object[]> rows, int chunkSize, boolean isTransactional) {
+		return this.executeBatch(SQLQuery.UPDATE, sql, rows, chunkSize, isTransactional);
+	}
+
+	/**
+	 * Executes a SQL DELETE Statement once per parameter row, sent in batches.
+	 *
+	 * @param sql				SQL DELETE Query with <code>?</code> placeholders.
+	 * @param rows				Parameter rows, one Object Array per execution.
+	 * @param chunkSize			Number of rows sent per <code>executeBatch</code>.
+	 * @param isTransactional	<code>true</code> to commit each chunk in its own transaction.
+	 * @return Outcome and per-chunk timing of the SQL Batch.
+	 */
+
+	public SQLBatchResult deleteBatch(String sql, Iterable<Object[]> rows, int chunkSize, boolean isTransactional) {
+		return this.executeBatch(SQLQuery.DELETE, sql, rows.iterator(), chunkSize, isTransactional);
+	}
+
+	/**
+	 * Executes a SQL DELETE Statement once per streamed parameter row, sent in
+	 * batches.
+	 *
+	 * @param sql				SQL DELETE Query with <code>?</code> placeholders.
+	 * @param rows				Parameter rows, one Object Array per execution.
+	 * @param chunkSize			Number of rows sent per <code>executeBatch</code>.
+	 * @param isTransactional	<code>true</code> to commit each chunk in its own transaction.
+	 * @return Outcome and per-chunk timing of the SQL Batch.
+	 */
+
+	public SQLBatchResult deleteBatch(String sql, Iterator<Object[]> rows, int chunkSize, boolean isTransactional) {
+		return this.executeBatch(SQLQuery.DELETE, sql, rows, chunkSize, isTransactional);
+	}
+
+	private SQLBatchResult executeBatch(SQLQuery sqlQuery, String sql, Iterator<Object[]> rows, int chunkSize, boolean isTransactional) {
+		this.log.debug("------------------------------------------------------------------------");
+		this.log.debug("EXECUTING " + String.valueOf(sqlQuery).toUpperCase() + " BATCH (CHUNK SIZE " + chunkSize + "):\n" + sql);
+		this.log.debug("------------------------------------------------------------------------");
+
+		SQLBatchResult result = new SQLBatchResult();
+		if (chunkSize < 1) {
+			this.log.fatal("Unable to execute " + sqlQuery + " Batch. Chunk Size must be at least 1, but was " + chunkSize + ".");
+			result.setFailed();
+			return result;
+		}
+		SQLQueryTimer timer = SQLQueryTimer.start(sql);
+		boolean isAutoCommit = true;
+		try (PreparedStatement preparedStatement = this.connection.prepareStatement(sql)) {
+			timer.prepared();
+			isAutoCommit = this.connection.getAutoCommit();
+			if (isTransactional) {
+				this.connection.setAutoCommit(false);
+			}
+			int chunkIndex = 0;
+			while (rows.hasNext()) {
+				int rowCount = 0;
+				while (rows.hasNext() && rowCount < chunkSize) {
+					bind(preparedStatement, rows.next());
+					preparedStatement.addBatch();
+					rowCount++;
+				}
+				long start = System.nanoTime();
+				Savepoint chunkStart = isTransactional && this.isTransactionalSession ? this.connection.setSavepoint() : null;
+				try {
+					int[] counts = preparedStatement.executeBatch();
+					if (chunkStart != null) {
+						this.connection.releaseSavepoint(chunkStart);
+					} else if (isTransactional) {
+						this.connection.commit();
+					}
+					long elapsedTime = (System.nanoTime() - start) / 1000000;
+					SQLBatchResult.Chunk chunk = new SQLBatchResult.Chunk(chunkIndex, rowCount, this.sumUpdateCounts(counts), elapsedTime);
+					result.addChunk(chunk);
+					this.log.debug(chunk.toString());
+				} catch (BatchUpdateException e) {
+					this.log.fatal("Encountered BatchUpdateException while executing " + sqlQuery + " Batch Chunk " + chunkIndex + "!");
+					this.log.fatal("SQL State: " + e.getSQLState());
+					this.log.fatal("Error Code: " + e.getErrorCode());
+					this.log.fatal("Message: " + e.getMessage());
+					this.log.fatal(ExceptionUtils.getStackTrace(e));
+					if (chunkStart != null) {
+						this.connection.rollback(chunkStart);
+					} else if (isTransactional) {
+						this.connection.rollback();
+					}
+					result.setFailed();
+					break;
+				}
+				chunkIndex++;
+			}
+		} catch (NullPointerException e) {
+			this.log.fatal("Unable to execute " + sqlQuery + " Batch. SQL Connection might not have been opened.");
+			result.setFailed();
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while executing " + sqlQuery + " Batch!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			this.rollbackQuietly(isTransactional);
+			result.setFailed();
+		} catch (Exception e) {
+			this.log.fatal("Encountered Exception while executing " + sqlQuery + " Batch!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			this.rollbackQuietly(isTransactional);
+			result.setFailed();
+		} finally {
+			if (isTransactional && this.connection != null) {
+				try {
+					this.connection.setAutoCommit(isAutoCommit);
+				} catch (SQLException e) {
+					this.log.error("Encountered SQLException while restoring Auto-Commit Mode!");
+				}
+			}
+		}
+
+		timer.executed();
+		timer.finish(result.isSuccessful());
+
+		if(result.isSuccessful()) {
+			this.log.debug("------------------------------------------------------------------------");
+			this.log.debug("SUCCESSFUL EXECUTION OF " + String.valueOf(sqlQuery).toUpperCase() + " BATCH: " + result);
+			this.log.debug("------------------------------------------------------------------------");
+		} else {
+			this.log.debug("------------------------------------------------------------------------");
+			this.log.error("FAILED EXECUTION OF " + String.valueOf(sqlQuery).toUpperCase() + " BATCH: " + result);
+			this.log.debug("------------------------------------------------------------------------");
+		}
+		return result;
+	}
+
+	private long sumUpdateCounts(int[] counts) {
+		long total = 0;
+		for (int count : counts) {
+			if (count == Statement.SUCCESS_NO_INFO) {
+				return -1;
+			}
+			total += count;
+		}
+		return total;
+	}
+
+	private void rollbackQuietly(boolean isTransactional) {
+		if (isTransactional && !this.isTransactionalSession && this.connection != null) {
+			try {
+				this.connection.rollback();
+			} catch (SQLException e) {
+				this.log.error("Encountered SQLException while rolling back SQL Batch!");
+			}
+		}
+	}
+
+	/**
+	 * Gets a PreparedStatement for a SQL Query from the Statement Cache of the
+	 * current Connection and binds its parameters.
+	 *
+	 * @param sqlQuery		SQL Query Type, for logging.
+	 * @param sql			SQL Query with <code>?</code> placeholders.
+	 * @param parameters	Parameter values.
+	 * @param timer			Timer of the SQL Query execution.
+	 * @return Bound PreparedStatement. <code>null</code> if it could not be prepared.
+	 */
+
+	private PreparedStatement prepare(SQLQuery sqlQuery, String sql, Object[] parameters, SQLQueryTimer timer) {
+		try {
+			SQLStatementCache cache = this.getStatementCache();
+			PreparedStatement preparedStatement;
+			if (cache != null && cache.isEnabled()) {
+				preparedStatement = cache.prepare(sql);
+			} else {
+				preparedStatement = this.connection.prepareStatement(sql);
+				if (sqlQuery == SQLQuery.SELECT) {
+					preparedStatement.closeOnCompletion();
+				}
+			}
+			bind(preparedStatement, parameters);
+			timer.prepared();
+			return preparedStatement;
+		} catch (NullPointerException e) {
+			this.log.fatal("Unable to prepare " + sqlQuery + " Query. SQL Connection might not have been opened.");
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while preparing " + sqlQuery + " Query!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+		timer.prepared();
+		timer.finish(false);
+		return null;
+	}
+
+	/**
+	 * Closes a PreparedStatement from {@link #prepare} once executed, unless it
+	 * is owned by the PreparedStatement Cache. Uncached SELECT Statements are
+	 * closed along with their ResultSet instead.
+	 */
+
+	private void closeUncachedStatement(PreparedStatement preparedStatement) {
+		SQLStatementCache cache = this.getStatementCache();
+		if (cache != null && cache.isEnabled()) {
+			return;
+		}
+		try {
+			preparedStatement.close();
+		} catch (SQLException e) {
+			this.log.error("Encountered SQLException while closing PreparedStatement!");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	private SQLStatementCache getStatementCache() {
+		if (this.isPooled) {
+			return SQLConnectionPool.getStatementCache(this.connection);
+		}
+		if (this.statementCache == null && this.connection != null) {
+			this.statementCache = new SQLStatementCache(this.connection, this.statementCacheSize, this.statementCacheStatistics);
+		}
+		return this.statementCache;
+	}
+
+	/**
+	 * Binds parameter values to the <code>?</code> placeholders of a
+	 * PreparedStatement, in order, using the setter matching each value's type.
+	 *
+	 * @param preparedStatement	PreparedStatement to bind to.
+	 * @param parameters		Parameter values.
+	 * @throws SQLException if a value cannot be bound.
+	 */
+
+	static void bind(PreparedStatement preparedStatement, Object[] parameters) throws SQLException {
+		for (int i = 0; i < parameters.length; i++) {
+			int index = i + 1;
+			Object value = parameters[i];
+			if (value == null) {
+				preparedStatement.setNull(index, Types.NULL);
+			} else if (value instanceof String) {
+				preparedStatement.setString(index, (String) value);
+			} else if (value instanceof Integer) {
+				preparedStatement.setInt(index, (Integer) value);
+			} else if (value instanceof Long) {
+				preparedStatement.setLong(index, (Long) value);
+			} else if (value instanceof Double) {
+				preparedStatement.setDouble(index, (Double) value);
+			} else if (value instanceof Float) {
+				preparedStatement.setFloat(index, (Float) value);
+			} else if (value instanceof Short) {
+				preparedStatement.setShort(index, (Short) value);
+			} else if (value instanceof Byte) {
+				preparedStatement.setByte(index, (Byte) value);
+			} else if (value instanceof Boolean) {
+				preparedStatement.setBoolean(index, (Boolean) value);
+			} else if (value instanceof BigDecimal) {
+				preparedStatement.setBigDecimal(index, (BigDecimal) value);
+			} else if (value instanceof byte[]) {
+				preparedStatement.setBytes(index, (byte[]) value);
+			} else if (value instanceof Timestamp) {
+				preparedStatement.setTimestamp(index, (Timestamp) value);
+			} else if (value instanceof Date) {
+				preparedStatement.setDate(index, (Date) value);
+			} else if (value instanceof Time) {
+				preparedStatement.setTime(index, (Time) value);
+			} else if (value instanceof java.util.Date) {
+				preparedStatement.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()));
+			} else if (value instanceof LocalDateTime) {
+				preparedStatement.setTimestamp(index, Timestamp.valueOf((LocalDateTime) value));
+			} else if (value instanceof LocalDate) {
+				preparedStatement.setDate(index, Date.valueOf((LocalDate) value));
+			} else if (value instanceof LocalTime) {
+				preparedStatement.setTime(index, Time.valueOf((LocalTime) value));
+			} else if (value instanceof Enum) {
+				preparedStatement.setString(index, ((Enum<?>) value).name());
+			} else {
+				preparedStatement.setObject(index, value);
+			}
+		}
+	}
+
 	/**
 	 * Closes and empties the ResultSet.
 	 */
@@ -220,6 +1028,11 @@ public class SQLData {
 	public void closeConnection() {
 		this.log.debug("I close SQL Connection.");
 		this.closeResultSet();
+		this.endTransactionalSession();
+		if (this.statementCache != null) {
+			this.statementCache.close();
+			this.statementCache = null;
+		}
 		try {
 			if (this.connection != null) {
 				this.connection.close();
@@ -27,6 +27,7 @@ public class SQLDriver {
 	private String user;
 	private String password;
 	private boolean isSSLUsed;
+	private boolean isBatchRewriteUsed;
 	private Connection connection;
 	private String url;
 
@@ -40,6 +41,20 @@ public class SQLDriver {
 		this.isSSLUsed = isSSLUsed;
 	}
 
+	/**
+	 * Sets whether MySQL and MariaDB Connections send SQL Batches as multi-row
+	 * statements (<code>rewriteBatchedStatements</code> and
+	 * <code>useBulkStmts</code>). Disabled by default, as it changes how
+	 * update counts and generated keys of batches are reported. Applies to
+	 * Connections initialized afterwards.
+	 *
+	 * @param isBatchRewriteUsed <code>true</code> to rewrite SQL Batches.
+	 */
+
+	public void setBatchRewriteUsed(boolean isBatchRewriteUsed) {
+		this.isBatchRewriteUsed = isBatchRewriteUsed;
+	}
+
 	/**
 	 * Initializes SQL Connection.
 	 *
@@ -63,6 +78,10 @@ public class SQLDriver {
 				Class.forName("org.mariadb.jdbc.Driver").getDeclaredConstructor().newInstance();
 				this.connection = this.getMariaDBConnection();
 				break;
+			case SQLite:
+				Class.forName("org.sqlite.JDBC").getDeclaredConstructor().newInstance();
+				this.connection = this.getSQLiteConnection();
+				break;
 			default:
 				this.log.fatal(this.sqlType + " is an unsupported SQL Type.");
 			}
@@ -112,6 +131,9 @@ public class SQLDriver {
 		} else {
 			this.url = this.url + "?useSSL=false";
 		}
+		if (this.isBatchRewriteUsed) {
+			this.url = this.url + "&rewriteBatchedStatements=true";
+		}
 		Connection connection = null;
 		try {
 			connection = DriverManager.getConnection(this.url, this.user, this.password);
@@ -174,6 +196,9 @@ public class SQLDriver {
 		} else {
 			this.url = this.url + "?useSSL=false";
 		}
+		if (this.isBatchRewriteUsed) {
+			this.url = this.url + "&useBulkStmts=true";
+		}
 		Connection connection = null;
 		try {
 			connection = DriverManager.getConnection(this.url, this.user, this.password);
@@ -191,4 +216,40 @@ public class SQLDriver {
 		return connection;
 	}
 
+	/**
+	 * Initializes SQLite Connection. The Database Name is the path of the
+	 * database file. A Database Name of <code>:memory:</code> or
+	 * <code>:memory:&lt;name&gt;</code> opens a named in-memory database shared
+	 * by every Connection to the same name, so pooled Connections see the same
+	 * data. It lives as long as one of its Connections stays open. Server, User,
+	 * Password and SSL are ignored.
+	 *
+	 * @return SQLite Connection
+	 */
+
+	private Connection getSQLiteConnection() {
+		this.log.debug("Initializing SQLite Connection.");
+		if (this.dbName == null || this.dbName.startsWith(":memory:")) {
+			String memoryName = this.dbName == null || this.dbName.equals(":memory:") ? "memory" : this.dbName.substring(":memory:".length());
+			this.url = "jdbc:sqlite:file:" + memoryName + "?mode=memory&cache=shared";
+		} else {
+			this.url = "jdbc:sqlite:" + this.dbName;
+		}
+		Connection connection = null;
+		try {
+			connection = DriverManager.getConnection(this.url);
+			this.log.debug("Successfully initialized SQL Connection.");
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while initializing SQLite Connection!");
+			this.log.fatal("SQL Exception: " + e.getMessage());
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		} catch (Exception e) {
+			this.log.fatal("Encountered Exception while initializing SQLite Connection!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+		return connection;
+	}
+
 }
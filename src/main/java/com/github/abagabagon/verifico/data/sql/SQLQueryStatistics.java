@@ -0,0 +1,414 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+/**
+ * Process-wide latency statistics of SQL Queries executed through SQLData,
+ * aggregated per normalized SQL text
+ *
+ * @author albagabagon
+ *
+ */
+
+public class SQLQueryStatistics {
+
+	private static final Map<String, SQLQueryStatistics> statistics = new ConcurrentHashMap<String, SQLQueryStatistics>();
+	private static final String OTHER_QUERIES = "(other queries)";
+	private static final String UNKNOWN_QUERIES = "(statements without SQL text)";
+	private static final Pattern OBJECT_IDENTITY = Pattern.compile("^[\\w.$]+@[0-9a-fA-F]+$");
+	private static final Pattern DRIVER_PREFIX = Pattern.compile("^[\\w.$]+(@[0-9a-fA-F]+)?:\\s+");
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+	private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(\\.\\d+)?\\b");
+	private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private static volatile boolean isEnabled = true;
+	private static volatile long slowQueryThreshold = 1000;
+	private static volatile int maxQueries = 1000;
+
+	private final String sql;
+	private final AtomicLong executionCount;
+	private final AtomicLong failureCount;
+	private final Histogram prepareTime;
+	private final Histogram executeTime;
+	private final Histogram firstRowTime;
+	private final Histogram fetchTime;
+	private final Histogram totalTime;
+
+	/**
+	 * Latency histogram with fixed, roughly logarithmic buckets from 100
+	 * microseconds to 10 seconds.
+	 */
+
+	public static class Histogram {
+
+		private static final long[] BOUNDS = { 100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000, 250000, 500000, 1000000, 2500000, 5000000, 10000000 };
+
+		private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length + 1);
+		private final AtomicLong count = new AtomicLong();
+		private final AtomicLong sum = new AtomicLong();
+		private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+		private final AtomicLong max = new AtomicLong();
+
+		void record(long nanos) {
+			long micros = nanos / 1000;
+			int bucket = 0;
+			while (bucket < BOUNDS.length && micros > BOUNDS[bucket]) {
+				bucket++;
+			}
+			this.buckets.incrementAndGet(bucket);
+			this.count.incrementAndGet();
+			this.sum.addAndGet(micros);
+			this.min.accumulateAndGet(micros, Math::min);
+			this.max.accumulateAndGet(micros, Math::max);
+		}
+
+		public long getCount() {
+			return this.count.get();
+		}
+
+		/**
+		 * Gets the mean latency.
+		 *
+		 * @return Mean in milliseconds. <code>0</code> if nothing was recorded.
+		 */
+
+		public double getMean() {
+			long count = this.getCount();
+			return count == 0 ? 0 : this.sum.get() / 1000.0 / count;
+		}
+
+		public double getMin() {
+			return this.getCount() == 0 ? 0 : this.min.get() / 1000.0;
+		}
+
+		public double getMax() {
+			return this.max.get() / 1000.0;
+		}
+
+		/**
+		 * Gets an estimate of a latency percentile, as the upper bound of the
+		 * bucket it falls into, capped at the maximum recorded latency.
+		 *
+		 * @param percentile Percentile from <code>0</code> to <code>100</code>.
+		 * @return Latency in milliseconds. <code>0</code> if nothing was recorded.
+		 */
+
+		public double getPercentile(double percentile) {
+			long count = this.getCount();
+			if (count == 0) {
+				return 0;
+			}
+			long rank = (long) Math.ceil(percentile / 100 * count);
+			long seen = 0;
+			for (int i = 0; i < this.buckets.length(); i++) {
+				seen += this.buckets.get(i);
+				if (seen >= Math.max(1, rank)) {
+					return i < BOUNDS.length ? Math.min(BOUNDS[i] / 1000.0, this.getMax()) : this.getMax();
+				}
+			}
+			return this.getMax();
+		}
+
+		@SuppressWarnings("unchecked")
+		JSONObject toJSON() {
+			JSONObject json = new JSONObject();
+			json.put("count", this.getCount());
+			json.put("meanMs", this.getMean());
+			json.put("minMs", this.getMin());
+			json.put("maxMs", this.getMax());
+			json.put("p50Ms", this.getPercentile(50));
+			json.put("p95Ms", this.getPercentile(95));
+			json.put("p99Ms", this.getPercentile(99));
+			JSONObject buckets = new JSONObject();
+			for (int i = 0; i < this.buckets.length(); i++) {
+				long bucketCount = this.buckets.get(i);
+				if (bucketCount > 0) {
+					buckets.put(i < BOUNDS.length ? "<=" + BOUNDS[i] / 1000.0 + "ms" : ">" + BOUNDS[BOUNDS.length - 1] / 1000.0 + "ms", bucketCount);
+				}
+			}
+			json.put("buckets", buckets);
+			return json;
+		}
+
+	}
+
+	private SQLQueryStatistics(String sql) {
+		this.sql = sql;
+		this.executionCount = new AtomicLong();
+		this.failureCount = new AtomicLong();
+		this.prepareTime = new Histogram();
+		this.executeTime = new Histogram();
+		this.firstRowTime = new Histogram();
+		this.fetchTime = new Histogram();
+		this.totalTime = new Histogram();
+	}
+
+	/**
+	 * Sets whether SQL Query executions are timed. Enabled by default.
+	 *
+	 * @param isEnabled <code>true</code> to time SQL Query executions.
+	 */
+
+	public static void setEnabled(boolean isEnabled) {
+		SQLQueryStatistics.isEnabled = isEnabled;
+	}
+
+	public static boolean isEnabled() {
+		return isEnabled;
+	}
+
+	/**
+	 * Sets the total time above which a SQL Query execution is written to the
+	 * Slow Query Log (Logger "SlowQuery").
+	 *
+	 * @param slowQueryThreshold Slow Query Threshold in milliseconds.
+	 */
+
+	public static void setSlowQueryThreshold(long slowQueryThreshold) {
+		SQLQueryStatistics.slowQueryThreshold = slowQueryThreshold;
+	}
+
+	public static long getSlowQueryThreshold() {
+		return slowQueryThreshold;
+	}
+
+	/**
+	 * Sets the number of distinct normalized SQL Queries tracked. Executions of
+	 * further queries are aggregated together.
+	 *
+	 * @param maxQueries Maximum number of tracked SQL Queries.
+	 */
+
+	public static void setMaxQueries(int maxQueries) {
+		SQLQueryStatistics.maxQueries = maxQueries;
+	}
+
+	/**
+	 * Gets the statistics of a SQL Query.
+	 *
+	 * @param sql SQL Query, normalized before lookup.
+	 * @return SQL Query Statistics. <code>null</code> if the query was never executed.
+	 */
+
+	public static SQLQueryStatistics get(String sql) {
+		return statistics.get(normalize(sql));
+	}
+
+	/**
+	 * Gets the statistics of every SQL Query, slowest total time first.
+	 *
+	 * @return List of SQL Query Statistics.
+	 */
+
+	public static List<SQLQueryStatistics> getAll() {
+		List<SQLQueryStatistics> all = new ArrayList<SQLQueryStatistics>(statistics.values());
+		Collections.sort(all, Comparator.comparingLong((SQLQueryStatistics query) -> query.totalTime.sum.get()).reversed());
+		return all;
+	}
+
+	/**
+	 * Clears the statistics of every SQL Query.
+	 */
+
+	public static void reset() {
+		statistics.clear();
+	}
+
+	/**
+	 * Gets the statistics of every SQL Query as JSON, slowest total time first.
+	 *
+	 * @return JSON Object with the Slow Query Threshold and one entry per query.
+	 */
+
+	@SuppressWarnings("unchecked")
+	public static JSONObject toJSON() {
+		JSONObject json = new JSONObject();
+		json.put("slowQueryThresholdMs", slowQueryThreshold);
+		JSONArray queries = new JSONArray();
+		for (SQLQueryStatistics query : getAll()) {
+			JSONObject entry = new JSONObject();
+			entry.put("sql", query.sql);
+			entry.put("executions", query.getExecutionCount());
+			entry.put("failures", query.getFailureCount());
+			entry.put("prepare", query.prepareTime.toJSON());
+			entry.put("execute", query.executeTime.toJSON());
+			entry.put("firstRow", query.firstRowTime.toJSON());
+			entry.put("fetch", query.fetchTime.toJSON());
+			entry.put("total", query.totalTime.toJSON());
+			queries.add(entry);
+		}
+		json.put("queries", queries);
+		return json;
+	}
+
+	/**
+	 * Writes the statistics of every SQL Query as JSON, e.g. at the end of a
+	 * test suite.
+	 *
+	 * @param filePath File Path of the JSON File.
+	 */
+
+	public static void export(String filePath) {
+		Logger log = LogManager.getLogger(SQLQueryStatistics.class);
+		log.debug("Exporting SQL Query Statistics to \"" + filePath + "\".");
+		try (Writer writer = new FileWriter(filePath)) {
+			toJSON().writeJSONString(writer);
+			log.debug("Successfully exported SQL Query Statistics.");
+		} catch (IOException e) {
+			log.error("Encountered IOException while exporting SQL Query Statistics to \"" + filePath + "\"!");
+			log.debug(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+	/**
+	 * Normalizes a SQL Query so executions differing only by literal values or
+	 * whitespace are aggregated together. String and number literals become
+	 * <code>?</code> and <code>IN</code> lists collapse to a single placeholder.
+	 * Statements whose driver does not expose their SQL text are aggregated
+	 * together.
+	 *
+	 * @param sql SQL Query
+	 * @return Normalized SQL Query
+	 */
+
+	public static String normalize(String sql) {
+		if (sql == null || OBJECT_IDENTITY.matcher(sql.trim()).matches()) {
+			return UNKNOWN_QUERIES;
+		}
+		String normalized = DRIVER_PREFIX.matcher(sql.trim()).replaceFirst("");
+		normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+		normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+		normalized = IN_LIST.matcher(normalized).replaceAll("IN (?)");
+		return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+	}
+
+	static SQLQueryStatistics of(String sql) {
+		String normalized = normalize(sql);
+		SQLQueryStatistics query = statistics.get(normalized);
+		if (query == null) {
+			String key = statistics.size() < maxQueries ? normalized : OTHER_QUERIES;
+			query = statistics.computeIfAbsent(key, SQLQueryStatistics::new);
+		}
+		return query;
+	}
+
+	void record(long prepareNanos, long executeNanos, long firstRowNanos, long fetchNanos, boolean isSuccessful) {
+		this.executionCount.incrementAndGet();
+		if (!isSuccessful) {
+			this.failureCount.incrementAndGet();
+		}
+		long totalNanos = 0;
+		if (prepareNanos >= 0) {
+			this.prepareTime.record(prepareNanos);
+			totalNanos += prepareNanos;
+		}
+		if (executeNanos >= 0) {
+			this.executeTime.record(executeNanos);
+			totalNanos += executeNanos;
+		}
+		if (firstRowNanos >= 0) {
+			this.firstRowTime.record(firstRowNanos);
+		}
+		if (fetchNanos >= 0) {
+			this.fetchTime.record(fetchNanos);
+			totalNanos += fetchNanos;
+		}
+		this.totalTime.record(totalNanos);
+	}
+
+	public String getSQL() {
+		return this.sql;
+	}
+
+	public long getExecutionCount() {
+		return this.executionCount.get();
+	}
+
+	public long getFailureCount() {
+		return this.failureCount.get();
+	}
+
+	/**
+	 * Gets the time spent preparing the Statement and binding its parameters.
+	 * Not recorded for Statements prepared by the caller.
+	 *
+	 * @return Prepare Time Histogram
+	 */
+
+	public Histogram getPrepareTime() {
+		return this.prepareTime;
+	}
+
+	/**
+	 * Gets the time spent executing the Statement until the driver returned.
+	 *
+	 * @return Execute Time Histogram
+	 */
+
+	public Histogram getExecuteTime() {
+		return this.executeTime;
+	}
+
+	/**
+	 * Gets the time from execution until the first row was read. Recorded for
+	 * SELECT Queries only.
+	 *
+	 * @return First Row Time Histogram
+	 */
+
+	public Histogram getFirstRowTime() {
+		return this.firstRowTime;
+	}
+
+	/**
+	 * Gets the time from execution until the last row was read or the
+	 * ResultSet was closed. Recorded for SELECT Queries only.
+	 *
+	 * @return Full Fetch Time Histogram
+	 */
+
+	public Histogram getFetchTime() {
+		return this.fetchTime;
+	}
+
+	/**
+	 * Gets the sum of prepare, execute and full fetch time.
+	 *
+	 * @return Total Time Histogram
+	 */
+
+	public Histogram getTotalTime() {
+		return this.totalTime;
+	}
+
+	@Override
+	public String toString() {
+		Map<String, Object> summary = new LinkedHashMap<String, Object>();
+		summary.put("executions", this.getExecutionCount());
+		summary.put("failures", this.getFailureCount());
+		summary.put("meanMs", String.format("%.3f", this.totalTime.getMean()));
+		summary.put("p95Ms", String.format("%.3f", this.totalTime.getPercentile(95)));
+		summary.put("maxMs", String.format("%.3f", this.totalTime.getMax()));
+		return this.sql + " " + summary;
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Times the phases of a single SQL Query execution and records them into
+ * SQLQueryStatistics
+ *
+ * @author albagabagon
+ *
+ */
+
+class SQLQueryTimer {
+
+	private static final Logger slowQueryLog = LogManager.getLogger("SlowQuery");
+
+	private final String sql;
+	private final boolean isEnabled;
+	private long phaseStartedAt;
+	private long executedAt;
+	private long prepareNanos;
+	private long executeNanos;
+	private long firstRowNanos;
+	private long fetchNanos;
+	private boolean isFinished;
+
+	private SQLQueryTimer(String sql) {
+		this.sql = sql;
+		this.isEnabled = SQLQueryStatistics.isEnabled();
+		this.phaseStartedAt = System.nanoTime();
+		this.prepareNanos = -1;
+		this.executeNanos = -1;
+		this.firstRowNanos = -1;
+		this.fetchNanos = -1;
+	}
+
+	/**
+	 * Starts timing a SQL Query execution. The prepare phase starts now.
+	 *
+	 * @param sql SQL Query
+	 * @return SQL Query Timer
+	 */
+
+	static SQLQueryTimer start(String sql) {
+		return new SQLQueryTimer(sql);
+	}
+
+	void prepared() {
+		long now = System.nanoTime();
+		this.prepareNanos = now - this.phaseStartedAt;
+		this.phaseStartedAt = now;
+	}
+
+	void executing() {
+		this.phaseStartedAt = System.nanoTime();
+	}
+
+	void executed() {
+		this.executedAt = System.nanoTime();
+		this.executeNanos = this.executedAt - this.phaseStartedAt;
+	}
+
+	void firstRow() {
+		if (this.firstRowNanos < 0) {
+			this.firstRowNanos = System.nanoTime() - this.executedAt;
+		}
+	}
+
+	void fetched() {
+		if (this.fetchNanos < 0) {
+			this.fetchNanos = System.nanoTime() - this.executedAt;
+		}
+	}
+
+	/**
+	 * Records the timed phases once. SQL Queries whose total time exceeds the
+	 * Slow Query Threshold are written to the Slow Query Log.
+	 *
+	 * @param isSuccessful <code>true</code> if the SQL Query succeeded.
+	 */
+
+	void finish(boolean isSuccessful) {
+		if (this.isFinished || !this.isEnabled) {
+			return;
+		}
+		this.isFinished = true;
+		SQLQueryStatistics.of(this.sql).record(this.prepareNanos, this.executeNanos, this.firstRowNanos, this.fetchNanos, isSuccessful);
+		long totalNanos = Math.max(0, this.prepareNanos) + Math.max(0, this.executeNanos) + Math.max(0, this.fetchNanos);
+		if (totalNanos / 1000000 >= SQLQueryStatistics.getSlowQueryThreshold()) {
+			slowQueryLog.warn(String.format("SLOW QUERY (%.3f ms total: prepare %s, execute %s, first row %s, fetch %s)%s:%n%s", totalNanos / 1000000.0, format(this.prepareNanos),
+					format(this.executeNanos), format(this.firstRowNanos), format(this.fetchNanos), isSuccessful ? "" : " FAILED", this.sql));
+		}
+	}
+
+	/**
+	 * Wraps a ResultSet so the first row and full fetch are timed as the caller
+	 * reads it. Timing is recorded once the last row was read or the ResultSet
+	 * is closed.
+	 *
+	 * @param resultSet ResultSet of the timed SQL Query.
+	 * @return Timed ResultSet
+	 */
+
+	ResultSet track(ResultSet resultSet) {
+		if (!this.isEnabled || resultSet == null) {
+			this.finish(resultSet != null);
+			return resultSet;
+		}
+		InvocationHandler handler = new InvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				String methodName = method.getName();
+				Object result;
+				try {
+					result = method.invoke(resultSet, args);
+				} catch (InvocationTargetException e) {
+					if (methodName.equals("next")) {
+						SQLQueryTimer.this.fetched();
+						SQLQueryTimer.this.finish(false);
+					}
+					throw e.getCause();
+				}
+				if (methodName.equals("next")) {
+					if (Boolean.TRUE.equals(result)) {
+						SQLQueryTimer.this.firstRow();
+					} else {
+						SQLQueryTimer.this.fetched();
+						SQLQueryTimer.this.finish(true);
+					}
+				} else if (methodName.equals("close")) {
+					SQLQueryTimer.this.fetched();
+					SQLQueryTimer.this.finish(true);
+				}
+				return result;
+			}
+
+		};
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class }, handler);
+	}
+
+	private static String format(long nanos) {
+		return nanos < 0 ? "n/a" : String.format("%.3f ms", nanos / 1000000.0);
+	}
+
+}
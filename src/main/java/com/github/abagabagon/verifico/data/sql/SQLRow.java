@@ -0,0 +1,187 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Single row of a SQL ResultSet with typed accessors
+ *
+ * @author albagabagon
+ *
+ */
+
+public class SQLRow {
+
+	private final Map<String, Integer> columnIndex;
+	private final Object[] values;
+
+	SQLRow(Map<String, Integer> columnIndex, Object[] values) {
+		this.columnIndex = columnIndex;
+		this.values = values;
+	}
+
+	/**
+	 * Gets the number of columns of the row.
+	 *
+	 * @return Column Count
+	 */
+
+	public int getColumnCount() {
+		return this.values.length;
+	}
+
+	/**
+	 * Gets value of a column.
+	 *
+	 * @param column Column position, starting at 1 like JDBC.
+	 * @return Column value. <code>null</code> if SQL NULL.
+	 */
+
+	public Object getObject(int column) {
+		return this.values[column - 1];
+	}
+
+	/**
+	 * Gets value of a column.
+	 *
+	 * @param columnLabel Column Label (case-insensitive).
+	 * @return Column value. <code>null</code> if SQL NULL.
+	 */
+
+	public Object getObject(String columnLabel) {
+		Integer column = this.columnIndex.get(columnLabel);
+		if (column == null) {
+			throw new IllegalArgumentException("Column \"" + columnLabel + "\" does not exist.");
+		}
+		return this.values[column];
+	}
+
+	public boolean isNull(int column) {
+		return this.getObject(column) == null;
+	}
+
+	public boolean isNull(String columnLabel) {
+		return this.getObject(columnLabel) == null;
+	}
+
+	public String getString(int column) {
+		return toString(this.getObject(column));
+	}
+
+	public String getString(String columnLabel) {
+		return toString(this.getObject(columnLabel));
+	}
+
+	/**
+	 * Gets value of a column as an int.
+	 *
+	 * @param column Column position, starting at 1.
+	 * @return Column value. <code>0</code> if SQL NULL, like JDBC.
+	 */
+
+	public int getInt(int column) {
+		return (int) toLong(this.getObject(column));
+	}
+
+	public int getInt(String columnLabel) {
+		return (int) toLong(this.getObject(columnLabel));
+	}
+
+	public long getLong(int column) {
+		return toLong(this.getObject(column));
+	}
+
+	public long getLong(String columnLabel) {
+		return toLong(this.getObject(columnLabel));
+	}
+
+	public double getDouble(int column) {
+		return toDouble(this.getObject(column));
+	}
+
+	public double getDouble(String columnLabel) {
+		return toDouble(this.getObject(columnLabel));
+	}
+
+	public BigDecimal getBigDecimal(int column) {
+		return toBigDecimal(this.getObject(column));
+	}
+
+	public BigDecimal getBigDecimal(String columnLabel) {
+		return toBigDecimal(this.getObject(columnLabel));
+	}
+
+	public boolean getBoolean(int column) {
+		return toBoolean(this.getObject(column));
+	}
+
+	public boolean getBoolean(String columnLabel) {
+		return toBoolean(this.getObject(columnLabel));
+	}
+
+	/**
+	 * Gets all values of the row.
+	 *
+	 * @return Row values in a form of an Object Array.
+	 */
+
+	public Object[] toArray() {
+		return this.values.clone();
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.values);
+	}
+
+	private static String toString(Object value) {
+		return value == null ? null : value.toString();
+	}
+
+	private static long toLong(Object value) {
+		if (value == null) {
+			return 0;
+		} else if (value instanceof Number) {
+			return ((Number) value).longValue();
+		} else if (value instanceof Boolean) {
+			return ((Boolean) value) ? 1 : 0;
+		}
+		return Long.parseLong(value.toString().trim());
+	}
+
+	private static double toDouble(Object value) {
+		if (value == null) {
+			return 0;
+		} else if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		return Double.parseDouble(value.toString().trim());
+	}
+
+	private static BigDecimal toBigDecimal(Object value) {
+		if (value == null) {
+			return null;
+		} else if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		} else if (value instanceof Double || value instanceof Float) {
+			return BigDecimal.valueOf(((Number) value).doubleValue());
+		} else if (value instanceof Number) {
+			return BigDecimal.valueOf(((Number) value).longValue());
+		}
+		return new BigDecimal(value.toString().trim());
+	}
+
+	private static boolean toBoolean(Object value) {
+		if (value == null) {
+			return false;
+		} else if (value instanceof Boolean) {
+			return (Boolean) value;
+		} else if (value instanceof Number) {
+			return ((Number) value).intValue() != 0;
+		}
+		String text = value.toString().trim();
+		return text.equalsIgnoreCase("true") || text.equals("1") || text.equalsIgnoreCase("Y");
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Forward-only iterator over a SQL ResultSet that keeps only the current row
+ * in memory
+ *
+ * @author albagabagon
+ *
+ */
+
+public class SQLRowIterator implements Iterator<SQLRow>, AutoCloseable {
+
+	private Logger log;
+	private Statement statement;
+	private ResultSet resultSet;
+	private SQLQueryTimer timer;
+	private Map<String, Integer> columnIndex;
+	private String[] columnLabels;
+	private int columnCount;
+	private boolean isAdvanced;
+	private boolean hasNext;
+	private boolean isClosed;
+
+	/**
+	 * Creates an iterator over a ResultSet.
+	 *
+	 * @param statement	Statement that produced the ResultSet. Closed together
+	 *                  with the iterator. <code>null</code> to leave it open.
+	 * @param resultSet	ResultSet to iterate.
+	 */
+
+	SQLRowIterator(Statement statement, ResultSet resultSet) throws SQLException {
+		this(statement, resultSet, null);
+	}
+
+	/**
+	 * Creates an iterator over a ResultSet whose first row and full fetch are
+	 * timed.
+	 *
+	 * @param statement	Statement that produced the ResultSet. Closed together
+	 *                  with the iterator. <code>null</code> to leave it open.
+	 * @param resultSet	ResultSet to iterate.
+	 * @param timer		Timer of the SQL Query execution. <code>null</code> if not timed.
+	 */
+
+	SQLRowIterator(Statement statement, ResultSet resultSet, SQLQueryTimer timer) throws SQLException {
+		this.log = LogManager.getLogger(this.getClass());
+		this.statement = statement;
+		this.resultSet = resultSet;
+		this.timer = timer;
+		ResultSetMetaData metaData = resultSet.getMetaData();
+		this.columnCount = metaData.getColumnCount();
+		this.columnIndex = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+		this.columnLabels = new String[this.columnCount];
+		for (int i = this.columnCount; i >= 1; i--) {
+			this.columnLabels[i - 1] = metaData.getColumnLabel(i);
+			this.columnIndex.put(this.columnLabels[i - 1], i - 1);
+		}
+	}
+
+	/**
+	 * Gets the Column Labels of the ResultSet, in column order.
+	 *
+	 * @return Column Labels
+	 */
+
+	public String[] getColumnLabels() {
+		return this.columnLabels.clone();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (!this.isAdvanced && !this.isClosed) {
+			try {
+				this.hasNext = this.resultSet.next();
+			} catch (SQLException e) {
+				this.log.fatal("Encountered SQLException while fetching next SQL Row!");
+				this.log.fatal("SQL State: " + e.getSQLState());
+				this.log.fatal("Error Code: " + e.getErrorCode());
+				this.log.fatal(ExceptionUtils.getStackTrace(e));
+				if (this.timer != null) {
+					this.timer.fetched();
+					this.timer.finish(false);
+				}
+				this.close();
+				throw new IllegalStateException("Unable to fetch next SQL Row.", e);
+			}
+			this.isAdvanced = true;
+			if (this.hasNext && this.timer != null) {
+				this.timer.firstRow();
+			}
+			if (!this.hasNext) {
+				this.close();
+			}
+		}
+		return this.hasNext && !this.isClosed;
+	}
+
+	@Override
+	public SQLRow next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		this.isAdvanced = false;
+		Object[] values = new Object[this.columnCount];
+		try {
+			for (int i = 0; i < this.columnCount; i++) {
+				values[i] = this.resultSet.getObject(i + 1);
+			}
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while reading SQL Row!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+			this.close();
+			throw new IllegalStateException("Unable to read SQL Row.", e);
+		}
+		return new SQLRow(this.columnIndex, values);
+	}
+
+	/**
+	 * Gets the rows as a sequential Stream. Closing the Stream closes the
+	 * iterator.
+	 *
+	 * @return Stream of SQL Rows.
+	 */
+
+	public Stream<SQLRow> stream() {
+		Spliterator<SQLRow> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(this::close);
+	}
+
+	/**
+	 * Closes the ResultSet and its Statement. Called automatically once the last
+	 * row has been read.
+	 */
+
+	@Override
+	public void close() {
+		if (this.isClosed) {
+			return;
+		}
+		this.isClosed = true;
+		if (this.timer != null) {
+			this.timer.fetched();
+			this.timer.finish(true);
+		}
+		try {
+			this.resultSet.close();
+			if (this.statement != null) {
+				this.statement.close();
+			}
+		} catch (SQLException e) {
+			this.log.error("Encountered SQLException while closing streamed ResultSet!");
+			this.log.debug(ExceptionUtils.getStackTrace(e));
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded LRU cache of PreparedStatements keyed by SQL text, bound to a single
+ * physical SQL Connection
+ *
+ * @author albagabagon
+ *
+ */
+
+public class SQLStatementCache {
+
+	private Logger log;
+	private Connection connection;
+	private LinkedHashMap<String, PreparedStatement> statements;
+	private int maxSize;
+	private Statistics statistics;
+
+	/**
+	 * Hit, miss and eviction counters of one or more Statement Caches.
+	 */
+
+	public static class Statistics {
+
+		private final AtomicLong hitCount = new AtomicLong();
+		private final AtomicLong missCount = new AtomicLong();
+		private final AtomicLong evictionCount = new AtomicLong();
+
+		public long getHitCount() {
+			return this.hitCount.get();
+		}
+
+		public long getMissCount() {
+			return this.missCount.get();
+		}
+
+		public long getEvictionCount() {
+			return this.evictionCount.get();
+		}
+
+		/**
+		 * Gets the share of lookups served from the cache.
+		 *
+		 * @return Hit Ratio from <code>0.0</code> to <code>1.0</code>.
+		 */
+
+		public double getHitRatio() {
+			long hits = this.getHitCount();
+			long lookups = hits + this.getMissCount();
+			return lookups == 0 ? 0 : (double) hits / lookups;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d hit(s), %d miss(es), %d eviction(s), %.1f%% hit ratio", this.getHitCount(), this.getMissCount(), this.getEvictionCount(), this.getHitRatio() * 100);
+		}
+
+	}
+
+	/**
+	 * Creates a Statement Cache on a physical SQL Connection.
+	 *
+	 * @param connection	Physical SQL Connection the Statements are prepared on.
+	 * @param maxSize		Maximum number of cached Statements.
+	 * @param statistics	Counters the cache records into. May be shared by several caches.
+	 */
+
+	SQLStatementCache(Connection connection, int maxSize, Statistics statistics) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.connection = connection;
+		this.maxSize = maxSize;
+		this.statistics = statistics;
+		this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (this.size() > SQLStatementCache.this.maxSize) {
+					SQLStatementCache.this.statistics.evictionCount.incrementAndGet();
+					SQLStatementCache.this.closeQuietly(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+
+		};
+	}
+
+	/**
+	 * Gets the cached PreparedStatement for a SQL text, preparing it on a miss.
+	 * Statements which were closed or whose Connection failed are prepared
+	 * again.
+	 *
+	 * @param sql SQL Query with <code>?</code> placeholders.
+	 * @return PreparedStatement owned by the cache. Callers must not close it.
+	 * @throws SQLException if the Statement cannot be prepared.
+	 */
+
+	PreparedStatement prepare(String sql) throws SQLException {
+		PreparedStatement preparedStatement = this.statements.get(sql);
+		if (preparedStatement != null && !preparedStatement.isClosed()) {
+			this.statistics.hitCount.incrementAndGet();
+			this.log.trace("Statement Cache hit: " + sql);
+			return preparedStatement;
+		}
+		this.statistics.missCount.incrementAndGet();
+		this.log.trace("Statement Cache miss: " + sql);
+		preparedStatement = this.connection.prepareStatement(sql);
+		if (this.maxSize > 0) {
+			this.statements.put(sql, preparedStatement);
+		}
+		return preparedStatement;
+	}
+
+	/**
+	 * Checks whether the cache keeps Statements at all. Statements from a
+	 * disabled cache are owned by the caller.
+	 *
+	 * @return <code>true</code> if Maximum Size is greater than zero.
+	 */
+
+	boolean isEnabled() {
+		return this.maxSize > 0;
+	}
+
+	/**
+	 * Gets the number of cached Statements.
+	 *
+	 * @return Cache Size
+	 */
+
+	public int size() {
+		return this.statements.size();
+	}
+
+	/**
+	 * Gets the counters the cache records into.
+	 *
+	 * @return Statement Cache Statistics
+	 */
+
+	public Statistics getStatistics() {
+		return this.statistics;
+	}
+
+	/**
+	 * Closes and removes every cached Statement.
+	 */
+
+	void close() {
+		Iterator<PreparedStatement> iterator = this.statements.values().iterator();
+		while (iterator.hasNext()) {
+			this.closeQuietly(iterator.next());
+			iterator.remove();
+		}
+	}
+
+	private void closeQuietly(PreparedStatement preparedStatement) {
+		try {
+			preparedStatement.close();
+		} catch (SQLException e) {
+			this.log.debug("Encountered SQLException while closing cached PreparedStatement.");
+		}
+	}
+
+}
@@ -0,0 +1,376 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fully read SQL ResultSet stored column by column. Integer, long, double and
+ * boolean columns are kept in primitive arrays with a null bitmap instead of
+ * boxed values.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class SQLTable {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private enum ColumnType {
+		INT, LONG, DOUBLE, BOOLEAN, OBJECT
+	}
+
+	private final String[] columnLabels;
+	private final Map<String, Integer> columnIndex;
+	private final ColumnType[] columnTypes;
+	private final Object[] columns;
+	private final BitSet[] nulls;
+	private int rowCount;
+	private int capacity;
+
+	private SQLTable(ResultSetMetaData metaData) throws SQLException {
+		int columnCount = metaData.getColumnCount();
+		this.columnLabels = new String[columnCount];
+		this.columnIndex = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);
+		this.columnTypes = new ColumnType[columnCount];
+		this.columns = new Object[columnCount];
+		this.nulls = new BitSet[columnCount];
+		this.capacity = INITIAL_CAPACITY;
+		for (int i = columnCount - 1; i >= 0; i--) {
+			this.columnLabels[i] = metaData.getColumnLabel(i + 1);
+			this.columnIndex.put(this.columnLabels[i], i);
+			this.columnTypes[i] = getColumnType(metaData.getColumnClassName(i + 1), metaData.getColumnType(i + 1));
+			this.nulls[i] = new BitSet();
+			switch (this.columnTypes[i]) {
+			case INT:
+				this.columns[i] = new int[INITIAL_CAPACITY];
+				break;
+			case LONG:
+				this.columns[i] = new long[INITIAL_CAPACITY];
+				break;
+			case DOUBLE:
+				this.columns[i] = new double[INITIAL_CAPACITY];
+				break;
+			case BOOLEAN:
+				this.columns[i] = new boolean[INITIAL_CAPACITY];
+				break;
+			default:
+				this.columns[i] = new Object[INITIAL_CAPACITY];
+			}
+		}
+	}
+
+	/**
+	 * Reads every remaining row of a ResultSet. Column metadata is read once
+	 * and the ResultSet is advanced exactly once per row. The ResultSet is left
+	 * open.
+	 *
+	 * @param resultSet ResultSet positioned before its first unread row.
+	 * @return SQL Table
+	 * @throws SQLException if the ResultSet cannot be read.
+	 */
+
+	public static SQLTable read(ResultSet resultSet) throws SQLException {
+		return read(resultSet, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Reads up to a maximum number of rows of a ResultSet.
+	 *
+	 * @param resultSet	ResultSet positioned before its first unread row.
+	 * @param maxRows	Maximum number of rows to read.
+	 * @return SQL Table
+	 * @throws SQLException if the ResultSet cannot be read.
+	 */
+
+	public static SQLTable read(ResultSet resultSet, int maxRows) throws SQLException {
+		SQLTable table = new SQLTable(resultSet.getMetaData());
+		while (table.rowCount < maxRows && resultSet.next()) {
+			table.readRow(resultSet);
+		}
+		table.trim();
+		return table;
+	}
+
+	public int getRowCount() {
+		return this.rowCount;
+	}
+
+	public int getColumnCount() {
+		return this.columnLabels.length;
+	}
+
+	/**
+	 * Gets the label of a column.
+	 *
+	 * @param column Column position, starting at 1 like JDBC.
+	 * @return Column Label
+	 */
+
+	public String getColumnLabel(int column) {
+		return this.columnLabels[column - 1];
+	}
+
+	/**
+	 * Gets the position of a column.
+	 *
+	 * @param columnLabel Column Label (case-insensitive).
+	 * @return Column position, starting at 1 like JDBC.
+	 */
+
+	public int getColumn(String columnLabel) {
+		Integer column = this.columnIndex.get(columnLabel);
+		if (column == null) {
+			throw new IllegalArgumentException("Column \"" + columnLabel + "\" does not exist.");
+		}
+		return column + 1;
+	}
+
+	/**
+	 * Checks whether a value is SQL NULL.
+	 *
+	 * @param row		Row position, starting at 0.
+	 * @param column	Column position, starting at 1.
+	 * @return <code>true</code> if the value is SQL NULL.
+	 */
+
+	public boolean isNull(int row, int column) {
+		return this.nulls[column - 1].get(row);
+	}
+
+	/**
+	 * Gets the null bitmap of a column. Bit <code>n</code> is set when row
+	 * <code>n</code> is SQL NULL.
+	 *
+	 * @param column Column position, starting at 1.
+	 * @return Copy of the Null Bitmap.
+	 */
+
+	public BitSet getNulls(int column) {
+		return (BitSet) this.nulls[column - 1].clone();
+	}
+
+	/**
+	 * Gets a value, boxing primitive columns.
+	 *
+	 * @param row		Row position, starting at 0.
+	 * @param column	Column position, starting at 1.
+	 * @return Value. <code>null</code> if SQL NULL.
+	 */
+
+	public Object getValue(int row, int column) {
+		int i = column - 1;
+		if (row >= this.rowCount) {
+			throw new IndexOutOfBoundsException("Row " + row + " does not exist. Row Count: " + this.rowCount + ".");
+		}
+		if (this.nulls[i].get(row)) {
+			return null;
+		}
+		switch (this.columnTypes[i]) {
+		case INT:
+			return ((int[]) this.columns[i])[row];
+		case LONG:
+			return ((long[]) this.columns[i])[row];
+		case DOUBLE:
+			return ((double[]) this.columns[i])[row];
+		case BOOLEAN:
+			return ((boolean[]) this.columns[i])[row];
+		default:
+			return ((Object[]) this.columns[i])[row];
+		}
+	}
+
+	public Object getValue(int row, String columnLabel) {
+		return this.getValue(row, this.getColumn(columnLabel));
+	}
+
+	/**
+	 * Gets the values of an integer column without boxing. SQL NULL values are
+	 * <code>0</code>; check them with {@link #isNull(int, int)}.
+	 *
+	 * @param column Column position, starting at 1.
+	 * @return Column values. Shared with the table; do not modify.
+	 * @throws IllegalStateException if the column is not stored as int.
+	 */
+
+	public int[] getIntColumn(int column) {
+		return (int[]) this.getPrimitiveColumn(column, ColumnType.INT);
+	}
+
+	public long[] getLongColumn(int column) {
+		return (long[]) this.getPrimitiveColumn(column, ColumnType.LONG);
+	}
+
+	public double[] getDoubleColumn(int column) {
+		return (double[]) this.getPrimitiveColumn(column, ColumnType.DOUBLE);
+	}
+
+	public boolean[] getBooleanColumn(int column) {
+		return (boolean[]) this.getPrimitiveColumn(column, ColumnType.BOOLEAN);
+	}
+
+	/**
+	 * Gets the values of any column, boxing primitive columns.
+	 *
+	 * @param column Column position, starting at 1.
+	 * @return Column values. <code>null</code> for SQL NULL.
+	 */
+
+	public Object[] getColumnValues(int column) {
+		Object[] values = new Object[this.rowCount];
+		for (int row = 0; row < this.rowCount; row++) {
+			values[row] = this.getValue(row, column);
+		}
+		return values;
+	}
+
+	public Object[] getColumnValues(String columnLabel) {
+		return this.getColumnValues(this.getColumn(columnLabel));
+	}
+
+	/**
+	 * Gets a row, boxing primitive columns.
+	 *
+	 * @param row Row position, starting at 0.
+	 * @return Row values in a form of an Object Array.
+	 */
+
+	public Object[] getRow(int row) {
+		Object[] values = new Object[this.columnLabels.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = this.getValue(row, i + 1);
+		}
+		return values;
+	}
+
+	/**
+	 * Gets all rows, boxing primitive columns.
+	 *
+	 * @return Rows in a form of a two-dimensional Object Array.
+	 */
+
+	public Object[][] toArray() {
+		Object[][] rows = new Object[this.rowCount][];
+		for (int row = 0; row < this.rowCount; row++) {
+			rows[row] = this.getRow(row);
+		}
+		return rows;
+	}
+
+	@Override
+	public String toString() {
+		return "SQL Table " + Arrays.toString(this.columnLabels) + " with " + this.rowCount + " row(s)";
+	}
+
+	private Object getPrimitiveColumn(int column, ColumnType columnType) {
+		if (this.columnTypes[column - 1] != columnType) {
+			throw new IllegalStateException("Column \"" + this.columnLabels[column - 1] + "\" is stored as " + this.columnTypes[column - 1] + ", not " + columnType + ".");
+		}
+		return this.columns[column - 1];
+	}
+
+	private void readRow(ResultSet resultSet) throws SQLException {
+		int row = this.rowCount;
+		if (row == this.capacity) {
+			this.capacity *= 2;
+			for (int i = 0; i < this.columns.length; i++) {
+				this.columns[i] = this.resize(i, this.capacity);
+			}
+		}
+		for (int i = 0; i < this.columns.length; i++) {
+			int column = i + 1;
+			switch (this.columnTypes[i]) {
+			case INT:
+				((int[]) this.columns[i])[row] = resultSet.getInt(column);
+				break;
+			case LONG:
+				((long[]) this.columns[i])[row] = resultSet.getLong(column);
+				break;
+			case DOUBLE:
+				((double[]) this.columns[i])[row] = resultSet.getDouble(column);
+				break;
+			case BOOLEAN:
+				((boolean[]) this.columns[i])[row] = resultSet.getBoolean(column);
+				break;
+			default:
+				((Object[]) this.columns[i])[row] = resultSet.getObject(column);
+			}
+			if (resultSet.wasNull()) {
+				this.nulls[i].set(row);
+			}
+		}
+		this.rowCount++;
+	}
+
+	private void trim() {
+		for (int i = 0; i < this.columns.length; i++) {
+			this.columns[i] = this.resize(i, this.rowCount);
+		}
+		this.capacity = this.rowCount;
+	}
+
+	private Object resize(int i, int length) {
+		switch (this.columnTypes[i]) {
+		case INT:
+			return Arrays.copyOf((int[]) this.columns[i], length);
+		case LONG:
+			return Arrays.copyOf((long[]) this.columns[i], length);
+		case DOUBLE:
+			return Arrays.copyOf((double[]) this.columns[i], length);
+		case BOOLEAN:
+			return Arrays.copyOf((boolean[]) this.columns[i], length);
+		default:
+			return Arrays.copyOf((Object[]) this.columns[i], length);
+		}
+	}
+
+	/**
+	 * Chooses how a column is stored, preferring the Java class reported by the
+	 * JDBC Driver. Drivers reporting no specific class, like SQLite, fall back on
+	 * the SQL Type, where INTEGER is stored as long since it may hold 64-bit
+	 * values.
+	 */
+
+	private static ColumnType getColumnType(String className, int sqlType) {
+		if (className != null && !className.equals(Object.class.getName())) {
+			switch (className) {
+			case "java.lang.Integer":
+			case "java.lang.Short":
+			case "java.lang.Byte":
+				return ColumnType.INT;
+			case "java.lang.Long":
+				return ColumnType.LONG;
+			case "java.lang.Double":
+			case "java.lang.Float":
+				return ColumnType.DOUBLE;
+			case "java.lang.Boolean":
+				return ColumnType.BOOLEAN;
+			default:
+				return ColumnType.OBJECT;
+			}
+		}
+		switch (sqlType) {
+		case Types.TINYINT:
+		case Types.SMALLINT:
+			return ColumnType.INT;
+		case Types.INTEGER:
+		case Types.BIGINT:
+			return ColumnType.LONG;
+		case Types.FLOAT:
+		case Types.REAL:
+		case Types.DOUBLE:
+			return ColumnType.DOUBLE;
+		case Types.BOOLEAN:
+			return ColumnType.BOOLEAN;
+		default:
+			return ColumnType.OBJECT;
+		}
+	}
+
+}
@@ -0,0 +1,232 @@
+package com.github.abagabagon.verifico.data.sql;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.core.Codes;
+
+/**
+ * SQLite fixture database built once and cloned into test databases through
+ * the SQLite Online Backup API
+ *
+ * @author albagabagon
+ *
+ */
+
+public class SQLiteFixture {
+
+	private static final Map<String, SQLiteFixture> fixtures = new ConcurrentHashMap<String, SQLiteFixture>();
+
+	private Logger log;
+	private String name;
+	private File snapshot;
+
+	private SQLiteFixture(String name, File snapshot) {
+		this.log = LogManager.getLogger(this.getClass());
+		this.name = name;
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Gets a fixture built from SQL Statements. The fixture is built on first
+	 * use and shared by every later call with the same name.
+	 *
+	 * @param name			Fixture Name
+	 * @param statements	SQL Statements creating and populating the fixture.
+	 * @return SQLite Fixture. <code>null</code> if it could not be built.
+	 */
+
+	public static SQLiteFixture fromStatements(String name, String... statements) {
+		SQLiteFixture fixture = fixtures.get(name);
+		if (fixture == null) {
+			fixture = build(name, statements);
+			if (fixture != null) {
+				SQLiteFixture existing = fixtures.putIfAbsent(name, fixture);
+				if (existing != null) {
+					fixture.delete();
+					fixture = existing;
+				}
+			}
+		}
+		return fixture;
+	}
+
+	/**
+	 * Gets a fixture built from a SQL Script whose statements end with a
+	 * semicolon at the end of a line. The fixture is built on first use and
+	 * shared by every later call with the same name.
+	 *
+	 * @param name		Fixture Name
+	 * @param filePath	File Path of the SQL Script.
+	 * @return SQLite Fixture. <code>null</code> if it could not be built.
+	 */
+
+	public static SQLiteFixture fromScript(String name, String filePath) {
+		SQLiteFixture fixture = fixtures.get(name);
+		if (fixture != null) {
+			return fixture;
+		}
+		String script;
+		try {
+			script = new String(Files.readAllBytes(Paths.get(filePath)), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			Logger log = LogManager.getLogger(SQLiteFixture.class);
+			log.fatal("Encountered IOException while reading SQL Script \"" + filePath + "\"!");
+			log.fatal(ExceptionUtils.getStackTrace(e));
+			return null;
+		}
+		return fromStatements(name, script.split(";[ \\t]*(\\r?\\n|$)"));
+	}
+
+	/**
+	 * Gets a previously built fixture.
+	 *
+	 * @param name Fixture Name
+	 * @return SQLite Fixture. <code>null</code> if no fixture with this name was built.
+	 */
+
+	public static SQLiteFixture get(String name) {
+		return fixtures.get(name);
+	}
+
+	/**
+	 * Deletes the snapshots of every fixture.
+	 */
+
+	public static void clear() {
+		for (SQLiteFixture fixture : fixtures.values()) {
+			fixture.delete();
+		}
+		fixtures.clear();
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Replaces the content of a SQLite database with the fixture. Works for
+	 * in-memory and file databases and takes milliseconds for small fixtures.
+	 * Statements of a pooled Connection and its cached PreparedStatements are
+	 * closed first. Other Statements and ResultSets still open on the database,
+	 * including on other Connections of a shared in-memory database, must be
+	 * closed by the caller, or the restore fails.
+	 *
+	 * @param connection SQLite Connection, pooled or not.
+	 * @return <code>true</code> if the fixture was restored.
+	 */
+
+	public boolean restore(Connection connection) {
+		this.log.debug("Restoring SQLite Fixture \"" + this.name + "\".");
+		long start = System.nanoTime();
+		try {
+			SQLConnectionPool.closeStatements(connection);
+			SQLiteConnection sqliteConnection = connection.unwrap(SQLiteConnection.class);
+			int resultCode = sqliteConnection.getDatabase().restore("main", this.snapshot.getAbsolutePath(), null);
+			if (resultCode != Codes.SQLITE_OK) {
+				this.log.fatal("Unable to restore SQLite Fixture \"" + this.name + "\": " + SQLiteErrorCode.getErrorCode(resultCode) + ".");
+				return false;
+			}
+			this.log.debug("Successfully restored SQLite Fixture \"" + this.name + "\" in " + (System.nanoTime() - start) / 1000000 + " ms.");
+			return true;
+		} catch (SQLException e) {
+			this.log.fatal("Encountered SQLException while restoring SQLite Fixture \"" + this.name + "\"!");
+			this.log.fatal("SQL State: " + e.getSQLState());
+			this.log.fatal("Error Code: " + e.getErrorCode());
+			this.log.fatal("Message: " + e.getMessage());
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		} catch (NullPointerException e) {
+			this.log.fatal("Unable to restore SQLite Fixture \"" + this.name + "\". SQL Connection might not have been opened.");
+		}
+		return false;
+	}
+
+	/**
+	 * Copies the fixture to a new SQLite database file, e.g. one per parallel
+	 * test. The copy is done by the kernel without passing through the Java
+	 * heap.
+	 *
+	 * @param filePath File Path of the database copy. Overwritten if it exists.
+	 * @return <code>true</code> if the fixture was copied.
+	 */
+
+	public boolean copyTo(String filePath) {
+		this.log.debug("Copying SQLite Fixture \"" + this.name + "\" to \"" + filePath + "\".");
+		try (FileChannel source = new FileInputStream(this.snapshot).getChannel(); FileChannel target = new FileOutputStream(filePath).getChannel()) {
+			long size = source.size();
+			long position = 0;
+			while (position < size) {
+				position += source.transferTo(position, size - position, target);
+			}
+			return true;
+		} catch (IOException e) {
+			this.log.fatal("Encountered IOException while copying SQLite Fixture \"" + this.name + "\"!");
+			this.log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+		return false;
+	}
+
+	private static SQLiteFixture build(String name, String[] statements) {
+		Logger log = LogManager.getLogger(SQLiteFixture.class);
+		log.debug("Building SQLite Fixture \"" + name + "\".");
+		File snapshot = null;
+		try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+			try (Statement statement = connection.createStatement()) {
+				connection.setAutoCommit(false);
+				for (String sql : statements) {
+					if (!sql.trim().isEmpty()) {
+						statement.execute(sql);
+					}
+				}
+				connection.commit();
+			}
+			snapshot = File.createTempFile("verifico-fixture-", ".db");
+			snapshot.deleteOnExit();
+			int resultCode = connection.unwrap(SQLiteConnection.class).getDatabase().backup("main", snapshot.getAbsolutePath(), null);
+			if (resultCode != Codes.SQLITE_OK) {
+				log.fatal("Unable to create snapshot of SQLite Fixture \"" + name + "\": " + SQLiteErrorCode.getErrorCode(resultCode) + ".");
+				snapshot.delete();
+				return null;
+			}
+			log.debug("Successfully built SQLite Fixture \"" + name + "\".");
+			return new SQLiteFixture(name, snapshot);
+		} catch (SQLException e) {
+			log.fatal("Encountered SQLException while building SQLite Fixture \"" + name + "\"!");
+			log.fatal("SQL State: " + e.getSQLState());
+			log.fatal("Error Code: " + e.getErrorCode());
+			log.fatal("Message: " + e.getMessage());
+			log.fatal(ExceptionUtils.getStackTrace(e));
+		} catch (IOException e) {
+			log.fatal("Encountered IOException while creating snapshot of SQLite Fixture \"" + name + "\"!");
+			log.fatal(ExceptionUtils.getStackTrace(e));
+		}
+		if (snapshot != null) {
+			snapshot.delete();
+		}
+		return null;
+	}
+
+	private void delete() {
+		if (!this.snapshot.delete()) {
+			this.log.debug("Unable to delete snapshot of SQLite Fixture \"" + this.name + "\".");
+		}
+	}
+
+}
@@ -9,6 +9,6 @@ package com.github.abagabagon.verifico.enums;
 
 public enum Excel {
 
-	XLS, XLSX
+	XLS, XLS_STREAMING, XLSX, XLSX_STREAMING, CSV, TSV
 
 }
\ No newline at end of file
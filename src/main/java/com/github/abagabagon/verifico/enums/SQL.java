@@ -9,6 +9,6 @@ package com.github.abagabagon.verifico.enums;
 
 public enum SQL {
 
-	MySQL, MSSQL, MariaDB
+	MySQL, MSSQL, MariaDB, SQLite
 
 }
\ No newline at end of file
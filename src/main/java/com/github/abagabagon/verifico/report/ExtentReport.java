@@ -11,6 +11,7 @@ import com.aventstack.extentreports.markuputils.Markup;
 import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.github.abagabagon.verifico.automation.web.PageMetrics;
 
 /**
  * Implemented Extent Report Reporter
@@ -112,6 +113,19 @@ public class ExtentReport implements Reporter {
 		}
 	}
 
+	@Override
+	public void metrics(PageMetrics pageMetrics) {
+		if(this.isExtentTestNull()) {
+			this.log.warn("\"INFO\" Page Metrics could not be logged at ExtentReports.");
+		} else if (pageMetrics == null) {
+			this.log.warn("No Page Metrics to log at ExtentReports.");
+		} else {
+			this.log.info(pageMetrics.toString());
+			Markup markUp = MarkupHelper.createTable(pageMetrics.toTable());
+			this.test.log(Status.INFO, markUp);
+		}
+	}
+
 	@Override
 	public void pass(String testCaseName) {
 		if(this.isExtentTestNull()) {
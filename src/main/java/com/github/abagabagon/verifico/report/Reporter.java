@@ -1,5 +1,7 @@
 package com.github.abagabagon.verifico.report;
 
+import com.github.abagabagon.verifico.automation.web.PageMetrics;
+
 /**
  * Interface for Test Automation Reporting
  *
@@ -58,6 +60,16 @@ public interface Reporter {
 
 	public void info(String details) ;
 
+	/**
+	 * Logs Page Metrics of a navigation as INFO. Does nothing unless the
+	 * Reporter supports Page Metrics.
+	 *
+	 * @param pageMetrics Page Metrics captured by BrowserCommands.
+	 */
+
+	public default void metrics(PageMetrics pageMetrics) {
+	}
+
 	/**
 	 * Logs test event as PASSED
 	 *
@@ -3,9 +3,12 @@ package com.github.abagabagon.verifico.utilities;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.github.abagabagon.verifico.data.sql.SQLTable;
+
 /**
  * Parses data types
  *
@@ -91,37 +94,51 @@ public class Parser {
 		return parsed;
 	}
 
+	/**
+	 * Parses the remaining rows of an input ResultSet to an Object Array.
+	 * Column metadata is read once and the ResultSet is advanced once per row.
+	 *
+	 * @param resultSet Input ResultSet Object
+	 * @return Parsed Object Array. <code>null</code> if the ResultSet could not be read.
+	 */
+
+	public static Object[][] parseResultSetToObjectArray(ResultSet resultSet) {
+		return parseResultSetToObjectArray(resultSet, Integer.MAX_VALUE);
+	}
+
 	/**
 	 * Parses an input ResultSet to an Object Array.
 	 *
 	 * @param resultSet   Input ResultSet Object
-	 * @param columnCount Column Count
-	 * @param rowCount    Row Count
+	 * @param columnCount Column Count. Ignored; the Column Count is read from
+	 *                    the ResultSet metadata.
+	 * @param rowCount    Maximum number of rows to parse.
 	 * @return Parsed Object Array
+	 * @deprecated Use {@link #parseResultSetToObjectArray(ResultSet)} or
+	 *             {@link SQLTable#read(ResultSet)}.
 	 */
 
+	@Deprecated
 	public static Object[][] parseResultSetToObjectArray(ResultSet resultSet, int columnCount, int rowCount) {
+		return parseResultSetToObjectArray(resultSet, rowCount);
+	}
+
+	private static Object[][] parseResultSetToObjectArray(ResultSet resultSet, int maxRows) {
 		Object[][] sqlData = null;
 		try {
-			sqlData = new Object[rowCount][columnCount];
-			if (rowCount > 0) {
-				for (int i = 0; i < rowCount; i++) {
-					for (int j = 0; j < columnCount; j++) {
-						resultSet.next();
-						sqlData[i][j] = resultSet.getObject(j + 1);
-						continue;
-					}
-				}
-			} else {
-				log.fatal("No Data is available.");
+			sqlData = SQLTable.read(resultSet, maxRows).toArray();
+			if (sqlData.length == 0) {
+				log.warn("No Data is available.");
 			}
 		} catch(SQLException e) {
 			log.fatal("Encountered SQLException while retrieving SQL Data!");
-			e.printStackTrace();
+			log.fatal("SQL State: " + e.getSQLState());
+			log.fatal("Error Code: " + e.getErrorCode());
+			log.fatal(ExceptionUtils.getStackTrace(e));
 		} catch(Exception e) {
 			log.fatal("Encountered Exception while retrieving SQL Data!");
-			e.printStackTrace();
+			log.fatal(ExceptionUtils.getStackTrace(e));
 		}
 		return sqlData;
 	}
-}
+}
\ No newline at end of file
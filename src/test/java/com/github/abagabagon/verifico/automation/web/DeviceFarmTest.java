@@ -0,0 +1,103 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+/**
+ * Checks placement, queueing and utilization of a Device Farm against a stub
+ * W3C endpoint.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class DeviceFarmTest {
+
+	private StubSessionServer server;
+	private MobileDevice smallDevice;
+	private MobileDevice largeDevice;
+	private DeviceFarm farm;
+
+	@Before
+	public void startServer() throws IOException {
+		this.server = new StubSessionServer();
+		this.smallDevice = new MobileDevice(this.server.getUrl(), "emulator-5554", Platform.ANDROID, "12", 1);
+		this.largeDevice = new MobileDevice(this.server.getUrl(), "emulator-5556", Platform.ANDROID, "12", 2);
+		this.farm = new DeviceFarm(Arrays.asList(this.smallDevice, this.largeDevice));
+		this.farm.setLeaseTimeout(1);
+	}
+
+	@After
+	public void stopServer() {
+		this.farm.close();
+		this.server.close();
+	}
+
+	@Test
+	public void leasesGoToTheLeastLoadedDevice() {
+		assertTrue(this.getSessionRequest(this.farm.lease(capabilities("android"))).contains("emulator-5554"));
+		assertTrue(this.getSessionRequest(this.farm.lease(capabilities("android"))).contains("emulator-5556"));
+		assertTrue(this.getSessionRequest(this.farm.lease(capabilities("android"))).contains("emulator-5556"));
+		assertNull(this.farm.lease(capabilities("android")));
+	}
+
+	@Test
+	public void incompatibleCapabilitiesGetNoSession() {
+		assertNull(this.farm.lease(capabilities("iOS")));
+		assertEquals(0, this.server.getCreatedSessions().size());
+	}
+
+	@Test
+	public void queuedRequestGetsTheReleasedSession() throws Exception {
+		WebDriver driver = this.farm.lease(capabilities("android"));
+		this.farm.lease(capabilities("android"));
+		this.farm.lease(capabilities("android"));
+
+		this.farm.setLeaseTimeout(10);
+		CompletableFuture<WebDriver> queuedLease = CompletableFuture.supplyAsync(() -> this.farm.lease(capabilities("android")));
+		Thread.sleep(200);
+		this.farm.release(driver);
+		assertSame(driver, queuedLease.get(10, TimeUnit.SECONDS));
+		assertEquals(3, this.server.getCreatedSessions().size());
+	}
+
+	@Test
+	public void utilizationIsKeptPerDevice() throws Exception {
+		WebDriver driver = this.farm.lease(capabilities("android"));
+		Thread.sleep(50);
+		this.farm.release(driver);
+		Map<MobileDevice, Double> utilization = this.farm.getUtilization();
+		assertEquals(2, utilization.size());
+		assertTrue(utilization.get(this.smallDevice) > 0 && utilization.get(this.smallDevice) <= 1);
+		assertEquals(0.0, utilization.get(this.largeDevice), 0.0);
+	}
+
+	private String getSessionRequest(WebDriver driver) {
+		assertNotNull(driver);
+		return this.server.getSessionRequest(MobileSessionPoolTest.getSessionId(driver));
+	}
+
+	private static DesiredCapabilities capabilities(String platform) {
+		DesiredCapabilities capabilities = new DesiredCapabilities();
+		capabilities.setCapability("platformName", platform);
+		capabilities.setCapability("appium:app", "app-a");
+		return capabilities;
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Checks leasing, releasing, per-Device session caps, reset on release and
+ * eviction of Mobile Session Pools against a stub W3C endpoint.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class MobileSessionPoolTest {
+
+	private StubSessionServer server;
+	private MobileSessionPool pool;
+
+	@Before
+	public void startServer() throws IOException {
+		this.server = new StubSessionServer();
+		this.pool = new MobileSessionPool(this.server.getUrl(), 1);
+		this.pool.setLeaseTimeout(1);
+	}
+
+	@After
+	public void stopServer() {
+		this.pool.close();
+		this.server.close();
+	}
+
+	@Test
+	public void releasedSessionIsResetAndReused() {
+		WebDriver driver = this.pool.lease(capabilities("emulator-5554", "app-a"));
+		assertNotNull(driver);
+		this.pool.release(driver);
+		assertEquals(Arrays.asList("DELETE cookie", "POST execute/sync", "POST url"), this.server.getCommands(getSessionId(driver)));
+		assertSame(driver, this.pool.lease(capabilities("emulator-5554", "app-a")));
+		assertEquals(1, this.server.getCreatedSessions().size());
+		assertEquals(1, this.pool.getSessionCount("emulator-5554"));
+	}
+
+	@Test
+	public void leaseWaitsWhileDeviceIsAtItsSessionCap() throws Exception {
+		WebDriver driver = this.pool.lease(capabilities("emulator-5554", "app-a"));
+		assertNull(this.pool.lease(capabilities("emulator-5554", "app-a")));
+		assertNotNull(this.pool.lease(capabilities("emulator-5556", "app-a")));
+
+		this.pool.setLeaseTimeout(10);
+		CompletableFuture<WebDriver> waitingLease = CompletableFuture.supplyAsync(() -> this.pool.lease(capabilities("emulator-5554", "app-a")));
+		Thread.sleep(200);
+		this.pool.release(driver);
+		assertSame(driver, waitingLease.get(10, TimeUnit.SECONDS));
+		assertEquals(2, this.server.getCreatedSessions().size());
+	}
+
+	@Test
+	public void sessionFailingItsResetIsClosed() {
+		WebDriver driver = this.pool.lease(capabilities("emulator-5554", "app-a"));
+		String sessionId = getSessionId(driver);
+		this.server.failReset(sessionId);
+		this.pool.release(driver);
+		assertEquals(Arrays.asList(sessionId), this.server.getDeletedSessions());
+		assertEquals(0, this.pool.getSessionCount("emulator-5554"));
+
+		WebDriver newDriver = this.pool.lease(capabilities("emulator-5554", "app-a"));
+		assertNotSame(driver, newDriver);
+		assertEquals(1, this.pool.getSessionCount("emulator-5554"));
+	}
+
+	@Test
+	public void idleSessionWithOtherCapabilitiesIsEvictedAtTheCap() {
+		WebDriver driver = this.pool.lease(capabilities("emulator-5554", "app-a"));
+		String sessionId = getSessionId(driver);
+		this.pool.release(driver);
+		WebDriver otherDriver = this.pool.lease(capabilities("emulator-5554", "app-b"));
+		assertNotNull(otherDriver);
+		assertNotSame(driver, otherDriver);
+		assertEquals(Arrays.asList(sessionId), this.server.getDeletedSessions());
+		assertEquals(1, this.pool.getSessionCount("emulator-5554"));
+	}
+
+	@Test
+	public void deadIdleSessionIsReplaced() {
+		WebDriver driver = this.pool.lease(capabilities("emulator-5554", "app-a"));
+		this.pool.release(driver);
+		this.server.kill(getSessionId(driver));
+		WebDriver newDriver = this.pool.lease(capabilities("emulator-5554", "app-a"));
+		assertNotNull(newDriver);
+		assertNotSame(driver, newDriver);
+		assertEquals(2, this.server.getCreatedSessions().size());
+		assertEquals(1, this.pool.getSessionCount("emulator-5554"));
+	}
+
+	@Test
+	public void closeQuitsIdleAndLeasedSessions() {
+		WebDriver idleDriver = this.pool.lease(capabilities("emulator-5554", "app-a"));
+		WebDriver leasedDriver = this.pool.lease(capabilities("emulator-5556", "app-a"));
+		String idleSessionId = getSessionId(idleDriver);
+		String leasedSessionId = getSessionId(leasedDriver);
+		this.pool.release(idleDriver);
+		this.pool.close();
+		assertTrue(this.server.getDeletedSessions().containsAll(Arrays.asList(idleSessionId, leasedSessionId)));
+		assertEquals(0, this.pool.getSessionCount("emulator-5554"));
+		assertEquals(0, this.pool.getSessionCount("emulator-5556"));
+	}
+
+	static DesiredCapabilities capabilities(String device, String app) {
+		DesiredCapabilities capabilities = new DesiredCapabilities();
+		capabilities.setCapability("platformName", "android");
+		capabilities.setCapability("appium:deviceName", device);
+		capabilities.setCapability("appium:app", app);
+		return capabilities;
+	}
+
+	static String getSessionId(WebDriver driver) {
+		return ((RemoteWebDriver) driver).getSessionId().toString();
+	}
+
+}
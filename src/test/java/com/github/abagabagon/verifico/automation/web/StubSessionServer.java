@@ -0,0 +1,181 @@
+package com.github.abagabagon.verifico.automation.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stub W3C WebDriver endpoint on a local port. It answers the commands used by
+ * Mobile Session Pools: POST /session, DELETE /session/{id}, getting the
+ * window handle, and deleting Cookies, executing scripts and navigating on
+ * release. Sessions can be killed or made to fail their reset.
+ *
+ * @author albagabagon
+ *
+ */
+
+class StubSessionServer implements AutoCloseable {
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final AtomicInteger sessionNum;
+	private final Set<String> liveSessions;
+	private final Set<String> failingSessions;
+	private final List<String> createdSessions;
+	private final Map<String, String> sessionRequests;
+	private final List<String> deletedSessions;
+	private final List<String> commands;
+
+	StubSessionServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.executor = Executors.newCachedThreadPool();
+		this.sessionNum = new AtomicInteger();
+		this.liveSessions = ConcurrentHashMap.newKeySet();
+		this.failingSessions = ConcurrentHashMap.newKeySet();
+		this.createdSessions = Collections.synchronizedList(new ArrayList<String>());
+		this.sessionRequests = new ConcurrentHashMap<String, String>();
+		this.deletedSessions = Collections.synchronizedList(new ArrayList<String>());
+		this.commands = Collections.synchronizedList(new ArrayList<String>());
+		this.server.createContext("/", this::handle);
+		this.server.setExecutor(this.executor);
+		this.server.start();
+	}
+
+	URL getUrl() {
+		try {
+			return new URL("http://127.0.0.1:" + this.server.getAddress().getPort());
+		} catch (MalformedURLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	List<String> getCreatedSessions() {
+		synchronized (this.createdSessions) {
+			return new ArrayList<String>(this.createdSessions);
+		}
+	}
+
+	/**
+	 * Gets the body of the POST /session request that created a session.
+	 */
+
+	String getSessionRequest(String sessionId) {
+		return this.sessionRequests.get(sessionId);
+	}
+
+	List<String> getDeletedSessions() {
+		synchronized (this.deletedSessions) {
+			return new ArrayList<String>(this.deletedSessions);
+		}
+	}
+
+	/**
+	 * Gets the commands received for a session, e.g.
+	 * <code>DELETE cookie</code>, leaving out the session ID.
+	 */
+
+	List<String> getCommands(String sessionId) {
+		List<String> sessionCommands = new ArrayList<String>();
+		synchronized (this.commands) {
+			for (String command : this.commands) {
+				if (command.startsWith(sessionId + " ")) {
+					sessionCommands.add(command.substring(sessionId.length() + 1));
+				}
+			}
+		}
+		return sessionCommands;
+	}
+
+	/**
+	 * Ends a session on the server side, as if the Device went away.
+	 */
+
+	void kill(String sessionId) {
+		this.liveSessions.remove(sessionId);
+	}
+
+	/**
+	 * Makes script execution fail for a session, so resetting it on release
+	 * fails.
+	 */
+
+	void failReset(String sessionId) {
+		this.failingSessions.add(sessionId);
+	}
+
+	@Override
+	public void close() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] buffer = new byte[4096];
+			for (int count; (count = in.read(buffer)) >= 0;) {
+				body.write(buffer, 0, count);
+			}
+		}
+		String method = exchange.getRequestMethod();
+		String[] path = exchange.getRequestURI().getPath().replaceFirst("^/(wd/hub/)?", "").split("/");
+		if (path.length == 1 && path[0].equals("session") && method.equals("POST")) {
+			String sessionId = "session-" + this.sessionNum.incrementAndGet();
+			this.sessionRequests.put(sessionId, new String(body.toByteArray(), StandardCharsets.UTF_8));
+			this.liveSessions.add(sessionId);
+			this.createdSessions.add(sessionId);
+			this.respond(exchange, 200, "{\"value\":{\"sessionId\":\"" + sessionId + "\",\"capabilities\":{\"platformName\":\"android\"}}}");
+			return;
+		}
+		if (path.length < 2 || !path[0].equals("session")) {
+			this.respond(exchange, 404, "{\"value\":{\"error\":\"unknown command\",\"message\":\"" + exchange.getRequestURI() + "\"}}");
+			return;
+		}
+		String sessionId = path[1];
+		String command = path.length == 2 ? "" : String.join("/", Arrays.copyOfRange(path, 2, path.length));
+		this.commands.add((sessionId + " " + method + " " + command).trim());
+		if (!this.liveSessions.contains(sessionId)) {
+			this.respond(exchange, 404, "{\"value\":{\"error\":\"invalid session id\",\"message\":\"Session " + sessionId + " does not exist.\"}}");
+			return;
+		}
+		if (command.isEmpty() && method.equals("DELETE")) {
+			this.liveSessions.remove(sessionId);
+			this.deletedSessions.add(sessionId);
+			this.respond(exchange, 200, "{\"value\":null}");
+		} else if (command.equals("window") && method.equals("GET")) {
+			this.respond(exchange, 200, "{\"value\":\"window-" + sessionId + "\"}");
+		} else if (command.startsWith("execute") && this.failingSessions.contains(sessionId)) {
+			this.respond(exchange, 500, "{\"value\":{\"error\":\"javascript error\",\"message\":\"Storage is not available.\"}}");
+		} else {
+			this.respond(exchange, 200, "{\"value\":null}");
+		}
+	}
+
+	private void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+}
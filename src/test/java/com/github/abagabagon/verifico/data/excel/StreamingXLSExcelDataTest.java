@@ -0,0 +1,245 @@
+package com.github.abagabagon.verifico.data.excel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that StreamingXLSExcelData reads the same values as XLSExcelData
+ * from XLS Files built with HSSFWorkbook.
+ *
+ * @author albagabagon
+ *
+ */
+
+public class StreamingXLSExcelDataTest {
+
+	private static final String[] SHEET_NAMES = { "Data", "Empty", "Gaps", "Large" };
+	private static final String[] COLUMN_NAMES = { "Name", "Number", "Date", "Flag", "Double", "Text", "Negated", "Blank", "Error" };
+	private static final double DATE_1904_VALUE = 1000.5;
+
+	@ClassRule
+	public static TemporaryFolder folder = new TemporaryFolder();
+
+	private static ExcelData xlsData;
+	private static ExcelData streamingData;
+	private static ExcelData xls1904Data;
+	private static ExcelData streaming1904Data;
+
+	@BeforeClass
+	public static void createWorkbooks() throws IOException {
+		File file = folder.newFile("data.xls");
+		try (HSSFWorkbook book = new HSSFWorkbook()) {
+			createDataSheet(book);
+			book.createSheet("Empty");
+			createGapsSheet(book);
+			createLargeSheet(book);
+			book.getCreationHelper().createFormulaEvaluator().evaluateAll();
+			write(book, file);
+		}
+		xlsData = new XLSExcelData(file.getPath());
+		streamingData = new StreamingXLSExcelData(file.getPath());
+
+		File file1904 = folder.newFile("data1904.xls");
+		try (HSSFWorkbook book = new HSSFWorkbook()) {
+			((DateWindow1904Record) book.getInternalWorkbook().findFirstRecordBySid(DateWindow1904Record.sid)).setWindowing((short) 1);
+			CellStyle dateStyle = book.createCellStyle();
+			dateStyle.setDataFormat(book.createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+			Sheet sheet = book.createSheet("Dates");
+			sheet.createRow(0).createCell(0).setCellValue("Date");
+			Cell cell = sheet.createRow(1).createCell(0);
+			cell.setCellValue(DATE_1904_VALUE);
+			cell.setCellStyle(dateStyle);
+			write(book, file1904);
+		}
+		xls1904Data = new XLSExcelData(file1904.getPath());
+		streaming1904Data = new StreamingXLSExcelData(file1904.getPath());
+	}
+
+	@Test
+	public void getSheetDataMatchesXLSExcelData() {
+		for (String sheetName : SHEET_NAMES) {
+			assertArrayEquals(sheetName, xlsData.getSheetData(sheetName, false), streamingData.getSheetData(sheetName, false));
+			assertArrayEquals(sheetName, xlsData.getSheetData(sheetName, true), streamingData.getSheetData(sheetName, true));
+		}
+	}
+
+	@Test
+	public void getColumnDataMatchesXLSExcelData() {
+		for (String columnName : COLUMN_NAMES) {
+			assertArrayEquals(columnName, xlsData.getColumnData("Data", columnName), streamingData.getColumnData("Data", columnName));
+		}
+		assertArrayEquals(xlsData.getColumnData("Data", "Unknown"), streamingData.getColumnData("Data", "Unknown"));
+	}
+
+	@Test
+	public void getCellDataMatchesXLSExcelData() {
+		for (String sheetName : SHEET_NAMES) {
+			for (int i = 0; i < 12; i++) {
+				for (int j = 0; j < 16; j++) {
+					assertEquals(sheetName + " " + i + "," + j, xlsData.getCellData(sheetName, i, j), streamingData.getCellData(sheetName, i, j));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void getColumnsDataMatchesXLSExcelData() {
+		assertArrayEquals(xlsData.getColumnsData("Data", COLUMN_NAMES), streamingData.getColumnsData("Data", COLUMN_NAMES));
+		assertArrayEquals(xlsData.getColumnsData("Data", "Text", "Unknown", "Name"), streamingData.getColumnsData("Data", "Text", "Unknown", "Name"));
+		assertArrayEquals(xlsData.getColumnsData("Large", "A", "G"), streamingData.getColumnsData("Large", "A", "G"));
+	}
+
+	@Test
+	public void getSheetDataAsMapsMatchesXLSExcelData() {
+		for (String sheetName : SHEET_NAMES) {
+			assertEquals(sheetName, xlsData.getSheetDataAsMaps(sheetName), streamingData.getSheetDataAsMaps(sheetName));
+		}
+	}
+
+	@Test
+	public void formulaCellsGiveTheirCachedResults() {
+		assertEquals("2", streamingData.getCellData("Data", 1, 4));
+		assertEquals("ax", streamingData.getCellData("Data", 1, 5));
+		assertEquals(Boolean.TRUE, streamingData.getCellData("Data", 1, 6));
+		assertEquals("", streamingData.getCellData("Data", 4, 5));
+		assertNull(streamingData.getCellData("Data", 5, 8));
+		assertNull(streamingData.getCellData("Data", 6, 8));
+	}
+
+	@Test
+	public void blankCellsAreNull() {
+		assertNull(streamingData.getCellData("Data", 1, 7));
+		assertNull(streamingData.getCellData("Data", 1, 8));
+		assertNull(streamingData.getCellData("Data", 1, 14));
+		assertEquals(COLUMN_NAMES.length, streamingData.getSheetData("Data", false)[1].length);
+	}
+
+	@Test
+	public void gapRowsAreKept() {
+		Object[][] sheetData = streamingData.getSheetData("Gaps", false);
+		assertEquals(6, sheetData.length);
+		assertEquals("x", sheetData[2][3]);
+		assertArrayEquals(new Object[4], sheetData[5]);
+	}
+
+	@Test
+	public void datesUse1904DateWindowing() {
+		Object[][] sheetData = xls1904Data.getSheetData("Dates", true);
+		assertArrayEquals(sheetData, streaming1904Data.getSheetData("Dates", true));
+		assertEquals(DateUtil.getJavaDate(DATE_1904_VALUE, true).toString(), streaming1904Data.getCellData("Dates", 1, 0));
+		assertEquals(xls1904Data.getTypedSheet("Dates").getLocalDateTime(0, 0), streaming1904Data.getTypedSheet("Dates").getLocalDateTime(0, 0));
+	}
+
+	@Test
+	public void missingSheetGivesNull() {
+		assertNull(streamingData.getSheetData("Missing", true));
+		assertNull(streamingData.getColumnData("Missing", "Name"));
+		assertNull(streamingData.getCellData("Missing", 1, 1));
+		assertNull(streamingData.getColumnsData("Missing", "Name"));
+		assertNull(streamingData.getSheetDataAsMaps("Missing"));
+		assertNull(xlsData.getColumnsData("Missing", "Name"));
+		assertNull(xlsData.getSheetDataAsMaps("Missing"));
+	}
+
+	private static void createDataSheet(HSSFWorkbook book) {
+		CellStyle isoDateStyle = book.createCellStyle();
+		isoDateStyle.setDataFormat(book.createDataFormat().getFormat("yyyy-mm-dd"));
+		CellStyle builtinDateStyle = book.createCellStyle();
+		builtinDateStyle.setDataFormat((short) 14);
+		CellStyle dateTimeStyle = book.createCellStyle();
+		dateTimeStyle.setDataFormat(book.createDataFormat().getFormat("dd/mm/yyyy hh:mm"));
+		CellStyle[] dateStyles = { isoDateStyle, builtinDateStyle, dateTimeStyle };
+		CellStyle blankStyle = book.createCellStyle();
+		blankStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+		Sheet sheet = book.createSheet("Data");
+		Row header = sheet.createRow(0);
+		for (int i = 0; i < COLUMN_NAMES.length; i++) {
+			header.createCell(i).setCellValue(COLUMN_NAMES[i]);
+		}
+		double[] numbers = { 1, -2, 3.5, 0.1, 1e20, 123456789012345.0, 1e-7, 42 };
+		for (int i = 1; i <= numbers.length; i++) {
+			if (i == 2) {
+				continue;
+			}
+			Row row = sheet.createRow(i);
+			if (i == 3) {
+				continue;
+			}
+			row.createCell(0).setCellValue(String.valueOf((char) ('a' + i - 1)));
+			row.createCell(1).setCellValue(numbers[i - 1]);
+			Cell date = row.createCell(2);
+			date.setCellValue(new GregorianCalendar(2000, Calendar.JANUARY, i, i, 30));
+			date.setCellStyle(dateStyles[i % dateStyles.length]);
+			row.createCell(3).setCellValue(i % 2 == 0);
+			row.createCell(4).setCellFormula("B" + (i + 1) + "*2");
+			row.createCell(5).setCellFormula(i == 4 ? "\"\"" : "A" + (i + 1) + "&\"x\"");
+			row.createCell(6).setCellFormula("NOT(D" + (i + 1) + ")");
+			if (i == 1) {
+				for (int j = 7; j < 16; j++) {
+					row.createCell(j).setCellStyle(blankStyle);
+				}
+			} else if (i == 5) {
+				row.createCell(8).setCellErrorValue(FormulaError.DIV0.getCode());
+			} else if (i == 6) {
+				row.createCell(8).setCellFormula("1/0");
+			} else {
+				row.createCell(7).setCellStyle(blankStyle);
+			}
+		}
+	}
+
+	private static void createGapsSheet(HSSFWorkbook book) {
+		Sheet sheet = book.createSheet("Gaps");
+		Row header = sheet.createRow(0);
+		for (int i = 0; i < 4; i++) {
+			header.createCell(i).setCellValue("Column " + i);
+		}
+		sheet.createRow(2).createCell(3).setCellValue("x");
+		sheet.createRow(5);
+	}
+
+	private static void createLargeSheet(HSSFWorkbook book) {
+		Sheet sheet = book.createSheet("Large");
+		Row header = sheet.createRow(0);
+		for (int i = 0; i < 7; i++) {
+			header.createCell(i).setCellValue(String.valueOf((char) ('A' + i)));
+		}
+		for (int i = 1; i <= 300; i++) {
+			Row row = sheet.createRow(i);
+			for (int j = 0; j < 6; j++) {
+				row.createCell(j).setCellValue(j % 2 == 0 ? i * j : i + 0.25 * j);
+			}
+			row.createCell(6).setCellValue("s" + (i % 7));
+		}
+	}
+
+	private static void write(HSSFWorkbook book, File file) throws IOException {
+		try (OutputStream excelOut = new FileOutputStream(file)) {
+			book.write(excelOut);
+		}
+	}
+
+}